@@ -1,14 +1,14 @@
-declare module "*.wav" {
-  const src: string;
-  export default src;
-}
-
-declare module "*.mp3" {
-  const src: string;
-  export default src;
-}
-
-declare module "*.ogg" {
-  const src: string;
-  export default src;
-}
+declare module "*.wav" {
+  const src: string;
+  export default src;
+}
+
+declare module "*.mp3" {
+  const src: string;
+  export default src;
+}
+
+declare module "*.ogg" {
+  const src: string;
+  export default src;
+}
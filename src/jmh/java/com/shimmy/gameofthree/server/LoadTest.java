@@ -0,0 +1,333 @@
+package com.shimmy.gameofthree.server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Drives a running server with many concurrent clients over HTTP and reports throughput and tail latency per
+// request type. It is how the platform and virtual thread modes are compared: run it once against a server
+// started normally and once against one started with GAME_VIRTUAL_THREADS=true. With load.api=async the moves,
+// games, player creation and matchmaking go to the /api/async routes of a server started with GAME_API_ASYNC=true,
+// which is how the sync and async endpoints are compared. Each client is a virtual
+// thread, so the harness itself is not what limits the number of connections. Scenarios:
+//   players  every client creates a player, then sends 90% reads of the players it created and 10% creates,
+//            back to back
+//   games    every client creates a player and enters matchmaking, polls for its game, then polls the game
+//            every load.poll-interval-ms and moves when it is its turn, entering matchmaking again once it ended
+//   streams  every client creates a player and holds its game event stream open until the end, reopening it when
+//            the server closes it. The first load.stream-readers clients also read their player back to back next
+//            to it, so with load.clients=10000 they show how the server answers while it holds ten thousand streams
+// Settings are system properties passed through load.args, for example
+//   mvn -Pbenchmark test-compile exec:exec@load-test -Dload.args="-Dload.clients=1000 -Dload.scenario=games"
+// Requests during the warmup are not counted. The report is printed and written to target/load-test-result.json
+public class LoadTest {
+
+    private final String baseUrl = System.getProperty("load.url", "http://localhost:8080");
+    private final String scenario = System.getProperty("load.scenario", "players");
+    // Prefix of the routes that have an async version, reading a player always goes to the sync one
+    private final String api = "async".equals(System.getProperty("load.api", "sync")) ? "/api/async" : "/api";
+    private final int clients = Integer.getInteger("load.clients", 100);
+    private final Duration warmup = Duration.ofSeconds(Integer.getInteger("load.warmup-seconds", 10));
+    private final Duration duration = Duration.ofSeconds(Integer.getInteger("load.duration-seconds", 60));
+    private final long pollIntervalMs = Integer.getInteger("load.poll-interval-ms", 50);
+    private final int streamReaders = Integer.getInteger("load.stream-readers", 50);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    // Latencies in nanoseconds of the requests sent during the measurement, by request type
+    private final Map<String, Queue<Long>> latencies = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    // Event streams the streams scenario holds, closed when the measurement ends
+    private final Set<InputStream> streams = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger openStreams = new AtomicInteger();
+    private final AtomicInteger peakOpenStreams = new AtomicInteger();
+    private final LongAdder droppedStreams = new LongAdder();
+
+    private long measureFrom;
+    private long measureUntil;
+
+    public static void main(String[] args) throws Exception {
+        new LoadTest().run();
+    }
+
+    private void run() throws Exception {
+        System.out.printf("%s scenario, %d clients against %s%s, %ds warmup, %ds measured%n",
+                scenario, clients, baseUrl, api, warmup.toSeconds(), duration.toSeconds());
+        measureFrom = System.nanoTime() + warmup.toNanos();
+        measureUntil = measureFrom + duration.toNanos();
+        try (ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                int client = i;
+                clientThreads.submit(() -> {
+                    switch (scenario) {
+                        case "players" -> playersClient(client);
+                        case "games" -> gamesClient(client);
+                        case "streams" -> streamsClient(client);
+                        default -> throw new IllegalArgumentException("Unknown scenario " + scenario);
+                    }
+                    return null;
+                });
+            }
+            clientThreads.submit(() -> {
+                Thread.sleep(Duration.ofNanos(measureUntil - System.nanoTime()));
+                closeStreams();
+                return null;
+            });
+        }
+        report();
+    }
+
+    private void playersClient(int client) throws InterruptedException {
+        List<String> playerIds = new ArrayList<>();
+        while (running()) {
+            if (playerIds.isEmpty() || ThreadLocalRandom.current().nextInt(10) == 0) {
+                JsonNode created = send("createPlayer", post(api + "/player/", Map.of("playerName", "Load " + client)));
+                if (created != null) {
+                    playerIds.add(created.get("playerId").asText());
+                }
+            } else {
+                String playerId = playerIds.get(ThreadLocalRandom.current().nextInt(playerIds.size()));
+                send("getPlayer", get("/api/player/" + playerId));
+            }
+        }
+    }
+
+    private void gamesClient(int client) throws InterruptedException {
+        String playerId = null;
+        while (running() && playerId == null) {
+            JsonNode created = send("createPlayer", post(api + "/player/", Map.of("playerName", "Load " + client)));
+            if (created != null) {
+                playerId = created.get("playerId").asText();
+            } else {
+                pause();
+            }
+        }
+        while (running()) {
+            if (send("enterMatchmaking", post(api + "/player/matchmaking", Map.of("playerId", playerId))) == null) {
+                pause();
+                continue;
+            }
+            JsonNode game = null;
+            while (running() && (game == null || !game.hasNonNull("id"))) {
+                pause();
+                game = send("getMatchmakingGame", get(api + "/game/matchmaking?playerId=" + playerId));
+            }
+            while (running() && game != null && "IN_PROGRESS".equals(game.path("status").asText())) {
+                if (playerId.equals(game.path("currentPlayer").path("id").asText())) {
+                    int number = game.get("currentNumber").asInt();
+                    int move = number % 3 == 0 ? 0 : number % 3 == 1 ? -1 : 1;
+                    send("makeMove", post(api + "/game/move",
+                            Map.of("gameId", game.get("id").asText(), "playerId", playerId, "move", move)));
+                }
+                pause();
+                JsonNode polled = send("getGame", get(api + "/game/" + game.get("id").asText()));
+                game = polled != null ? polled : game;
+            }
+        }
+    }
+
+    private void streamsClient(int client) throws InterruptedException {
+        String playerId = null;
+        while (running() && playerId == null) {
+            JsonNode created = send("createPlayer", post("/api/player/", Map.of("playerName", "Load " + client)));
+            if (created != null) {
+                playerId = created.get("playerId").asText();
+            } else {
+                pause();
+            }
+        }
+        String streamedPlayerId = playerId;
+        if (client < streamReaders && playerId != null) {
+            Thread.ofVirtual().start(() -> {
+                try {
+                    while (running()) {
+                        send("getPlayer", get("/api/player/" + streamedPlayerId));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        while (running() && playerId != null) {
+            InputStream stream = openStream(playerId);
+            if (stream == null) {
+                pause();
+                continue;
+            }
+            try (stream) {
+                int open = openStreams.incrementAndGet();
+                peakOpenStreams.accumulateAndGet(open, Math::max);
+                streams.add(stream);
+                if (!running()) {
+                    break;
+                }
+                // No game is started for these players, so nothing but the end of the stream arrives
+                while (stream.read() != -1) {
+                }
+                if (running()) {
+                    droppedStreams.increment();
+                }
+            } catch (IOException e) {
+                if (running()) {
+                    droppedStreams.increment();
+                }
+            } finally {
+                streams.remove(stream);
+                openStreams.decrementAndGet();
+            }
+        }
+    }
+
+    // The body of the player's event stream once the server answered with its headers, or null when it refused
+    private InputStream openStream(String playerId) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/player/" + playerId + "/events"))
+                .timeout(Duration.ofSeconds(60))
+                .header("Accept", "text/event-stream")
+                .GET()
+                .build();
+        long start = System.nanoTime();
+        try {
+            HttpResponse<InputStream> response = http.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            boolean ok = response.statusCode() < 400;
+            record("openStream", start, ok);
+            if (!ok) {
+                response.body().close();
+                return null;
+            }
+            return response.body();
+        } catch (IOException e) {
+            record("openStream", start, false);
+            return null;
+        }
+    }
+
+    private void closeStreams() {
+        for (InputStream stream : streams) {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                // Closing is all that is left to do with it
+            }
+        }
+    }
+
+    // The response body, empty for a response without one, or null when the request failed
+    private JsonNode send(String name, HttpRequest request) throws InterruptedException {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            boolean ok = response.statusCode() < 400;
+            record(name, start, ok);
+            if (!ok) {
+                return null;
+            }
+            return response.body().isEmpty() ? MissingNode.getInstance() : objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            record(name, start, false);
+            return null;
+        }
+    }
+
+    private void record(String name, long start, boolean ok) {
+        long end = System.nanoTime();
+        if (start < measureFrom || end > measureUntil) {
+            return;
+        }
+        latencies.computeIfAbsent(name, key -> new ConcurrentLinkedQueue<>()).add(end - start);
+        if (!ok) {
+            errors.computeIfAbsent(name, key -> new LongAdder()).increment();
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, Map<String, Object> body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(60))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private boolean running() {
+        return System.nanoTime() < measureUntil;
+    }
+
+    private void pause() throws InterruptedException {
+        Thread.sleep(pollIntervalMs);
+    }
+
+    private void report() throws IOException {
+        Map<String, Map<String, Object>> results = new LinkedHashMap<>();
+        latencies.keySet().stream().sorted().forEach(name -> {
+            long[] sorted = latencies.get(name).stream().mapToLong(Long::longValue).sorted().toArray();
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("requests", sorted.length);
+            result.put("errors", errors.containsKey(name) ? errors.get(name).sum() : 0);
+            result.put("perSecond", sorted.length / (double) duration.toSeconds());
+            result.put("p50Ms", percentile(sorted, 0.50));
+            result.put("p99Ms", percentile(sorted, 0.99));
+            result.put("maxMs", percentile(sorted, 1.0));
+            results.put(name, result);
+            System.out.printf("%-20s %8d requests %6d errors %9.1f/s   p50 %8.1f ms   p99 %8.1f ms   max %8.1f ms%n",
+                    name, sorted.length, result.get("errors"), result.get("perSecond"),
+                    result.get("p50Ms"), result.get("p99Ms"), result.get("maxMs"));
+        });
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("scenario", scenario);
+        run.put("api", api);
+        run.put("clients", clients);
+        run.put("durationSeconds", duration.toSeconds());
+        if ("streams".equals(scenario)) {
+            run.put("peakOpenStreams", peakOpenStreams.get());
+            run.put("droppedStreams", droppedStreams.sum());
+            System.out.printf("%-20s %8d open at most %6d closed by the server%n",
+                    "streams", peakOpenStreams.get(), droppedStreams.sum());
+        }
+        run.put("results", results);
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File("load-test-result.json"), run);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
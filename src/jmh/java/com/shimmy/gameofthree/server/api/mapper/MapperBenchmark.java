@@ -0,0 +1,90 @@
+package com.shimmy.gameofthree.server.api.mapper;
+
+import com.shimmy.gameofthree.server.api.dto.GameDto;
+import com.shimmy.gameofthree.server.api.dto.MoveResultDto;
+import com.shimmy.gameofthree.server.api.dto.PlayerDto;
+import com.shimmy.gameofthree.server.domain.Game;
+import com.shimmy.gameofthree.server.domain.MoveResult;
+import com.shimmy.gameofthree.server.domain.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final PlayerMapper playerMapper = new PlayerMapper();
+    private final GameMapper gameMapper = new GameMapper();
+
+    private Player player;
+    private PlayerDto playerDto;
+    private Game game;
+    private GameDto gameDto;
+    private MoveResult moveResult;
+
+    @Setup
+    public void setUp() {
+        ReflectionTestUtils.setField(gameMapper, "playerMapper", playerMapper);
+
+        Player player1 = new Player("Player One", false);
+        player1.setId(UUID.randomUUID().toString());
+        Player player2 = new Player("Player Two", false);
+        player2.setId(UUID.randomUUID().toString());
+
+        game = new Game();
+        game.setId(UUID.randomUUID().toString());
+        game.setPlayers(List.of(player1, player2));
+        game.setCurrentPlayer(player2);
+        game.setCurrentNumber(19683);
+        game.setStatus(Game.GameStatus.IN_PROGRESS);
+        game.setLastUpdated(Instant.now());
+
+        player = player1;
+        playerDto = playerMapper.toDto(player1);
+        gameDto = gameMapper.toDto(game);
+        moveResult = MoveResult.of(game);
+    }
+
+    @Benchmark
+    public GameDto gameToDto() {
+        return gameMapper.toDto(game);
+    }
+
+    @Benchmark
+    public Game gameToEntity() {
+        return gameMapper.toEntity(gameDto);
+    }
+
+    @Benchmark
+    public MoveResultDto moveResultToDto() {
+        return gameMapper.toDto(moveResult);
+    }
+
+    @Benchmark
+    public PlayerDto playerToDto() {
+        return playerMapper.toDto(player);
+    }
+
+    @Benchmark
+    public Player playerToEntity() {
+        return playerMapper.toEntity(playerDto);
+    }
+}
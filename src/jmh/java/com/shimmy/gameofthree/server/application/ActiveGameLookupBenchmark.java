@@ -0,0 +1,120 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.domain.Game;
+import com.shimmy.gameofthree.server.domain.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// The matchmaking poll's lookup of a player's game on the datasource of the active profile, for two players who
+// played a history of completed games against each other. One of them is in a game now, the other is not.
+// historyJoin is the lookup this replaced, joining the player's games through game_players, for comparison
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ActiveGameLookupBenchmark {
+
+    private static final int INSERT_BATCH_SIZE = 10_000;
+
+    @Param({"1000", "100000"})
+    private int completedGames;
+
+    private ConfigurableApplicationContext context;
+    private GameService gameService;
+    private PlayerRepository playerRepository;
+    private JdbcTemplate jdbc;
+
+    private Player playing;
+    private Player idle;
+    private Player opponent;
+    private final List<String> gameIds = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        context = ServiceNode.start();
+        gameService = context.getBean(GameService.class);
+        playerRepository = context.getBean(PlayerRepository.class);
+        jdbc = context.getBean(JdbcTemplate.class);
+
+        playing = playerRepository.save(new Player("Playing Player", false));
+        idle = playerRepository.save(new Player("Idle Player", false));
+        opponent = playerRepository.save(new Player("Opponent", false));
+
+        String idPrefix = "bench-" + UUID.randomUUID() + "-";
+        TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        for (int from = 0; from < completedGames; from += INSERT_BATCH_SIZE) {
+            List<Object[]> games = new ArrayList<>(INSERT_BATCH_SIZE);
+            List<Object[]> players = new ArrayList<>(2 * INSERT_BATCH_SIZE);
+            for (int i = from; i < Math.min(from + INSERT_BATCH_SIZE, completedGames); i++) {
+                String gameId = idPrefix + i;
+                gameIds.add(gameId);
+                games.add(new Object[]{gameId, 1, Game.GameStatus.COMPLETED.ordinal()});
+                players.add(new Object[]{gameId, playing.getId()});
+                players.add(new Object[]{gameId, idle.getId()});
+            }
+            transaction.executeWithoutResult(status -> {
+                jdbc.batchUpdate("insert into game (id, current_number, status) values (?, ?, ?)", games);
+                jdbc.batchUpdate("insert into game_players (game_id, player_id) values (?, ?)", players);
+            });
+        }
+
+        // Started the way matchmaking starts a game, so it is tracked like any game in progress
+        Game game = new Game();
+        game.setId(context.getBean(GameShards.class).newLocalId());
+        game.setPlayers(List.of(playing, opponent));
+        game.setCurrentPlayer(playing);
+        game.setCurrentNumber(GameServiceBenchmark.START_NUMBER);
+        game.setStatus(Game.GameStatus.IN_PROGRESS);
+        game.setLastUpdated(Instant.now());
+        Game saved = context.getBean(GameRepository.class).save(game);
+        gameIds.add(saved.getId());
+        context.getBean(PlayerService.class).setActiveGame(List.of(playing.getId(), opponent.getId()), saved.getId());
+        context.getBean(ActiveGameStore.class).track(saved);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ServiceNode.deleteGames(context, gameIds);
+        playerRepository.deleteAllById(List.of(playing.getId(), idle.getId(), opponent.getId()));
+        context.close();
+    }
+
+    @Benchmark
+    public Game activeGame() {
+        return gameService.getGameByPlayerId(playing.getId());
+    }
+
+    @Benchmark
+    public Game noActiveGame() {
+        return gameService.getGameByPlayerId(idle.getId());
+    }
+
+    @Benchmark
+    public List<String> historyJoin() {
+        return jdbc.queryForList("select g.id from game g join game_players gp on gp.game_id = g.id"
+                        + " where gp.player_id = ? and g.status = ?",
+                String.class, playing.getId(), Game.GameStatus.IN_PROGRESS.ordinal());
+    }
+}
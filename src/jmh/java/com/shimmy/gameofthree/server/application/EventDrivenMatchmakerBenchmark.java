@@ -0,0 +1,86 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.domain.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// Time to match with the event-driven matchmaker: from the second player joining the queue until their game is
+// committed and pushed, on the datasource of the active profile. Sampled, so the result reports the p99 the
+// matchmaker is meant to keep below 50 ms
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EventDrivenMatchmakerBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private MatchmakingQueue matchmakingQueue;
+    private ActiveGameStore activeGameStore;
+    private GameShards gameShards;
+    private PlayerRepository playerRepository;
+
+    private Player player1;
+    private Player player2;
+    private final List<String> matchedGameIds = Collections.synchronizedList(new ArrayList<>());
+    private volatile CountDownLatch matched;
+
+    @Setup
+    public void setUp() {
+        context = ServiceNode.start(EventDrivenMatchmaker.class);
+        matchmakingQueue = context.getBean(MatchmakingQueue.class);
+        activeGameStore = context.getBean(ActiveGameStore.class);
+        gameShards = context.getBean(GameShards.class);
+        playerRepository = context.getBean(PlayerRepository.class);
+
+        player1 = playerRepository.save(new Player("Benchmark Player 1", true));
+        player2 = playerRepository.save(new Player("Benchmark Player 2", true));
+        context.getBean(ServiceNode.Notifications.class).onStateChanged(event -> {
+            matchedGameIds.add(event.getGameId());
+            matched.countDown();
+        });
+    }
+
+    @Setup(Level.Invocation)
+    public void queueFirstPlayer() {
+        matched = new CountDownLatch(1);
+        matchmakingQueue.enqueue(player1.getId());
+    }
+
+    // The games matched so far, so they don't pile up in the store
+    @TearDown(Level.Iteration)
+    public void forgetGames() {
+        activeGameStore.forget(gameShards.ownedShards());
+    }
+
+    @TearDown
+    public void tearDown() {
+        ServiceNode.deleteGames(context, matchedGameIds);
+        playerRepository.deleteAllById(List.of(player1.getId(), player2.getId()));
+        context.close();
+    }
+
+    @Benchmark
+    public boolean timeToMatch() throws InterruptedException {
+        matchmakingQueue.enqueue(player2.getId());
+        return matched.await(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,95 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.domain.Game;
+import com.shimmy.gameofthree.server.domain.GameLogState;
+import com.shimmy.gameofthree.server.domain.Player;
+import com.shimmy.gameofthree.server.domain.event.ClientMoveEvent;
+import com.shimmy.gameofthree.server.domain.event.GameMatchmakingEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Reading back a game with a million logged moves on the datasource of the active profile. The log is
+// written through GameLog itself, so it has a snapshot every game.log.snapshot-interval entries. replay
+// starts from the latest of them, rebuild replays every entry and replaces the snapshots with one
+@State(Scope.Benchmark)
+@Fork(1)
+public class GameLogBenchmark {
+
+    private static final int MOVES = 1_000_000;
+    private static final int FLUSH_EVERY = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private GameLog gameLog;
+    private String gameId;
+
+    @Setup
+    public void setUp() {
+        context = ServiceNode.start();
+        gameLog = context.getBean(GameLog.class);
+
+        Player player1 = new Player(UUID.randomUUID().toString(), "Benchmark Player 1", false);
+        Player player2 = new Player(UUID.randomUUID().toString(), "Benchmark Player 2", false);
+        Game game = new Game();
+        game.setId(UUID.randomUUID().toString());
+        game.setPlayers(List.of(player1, player2));
+        game.setCurrentPlayer(player1);
+        game.setCurrentNumber(GameServiceBenchmark.START_NUMBER);
+        game.setStatus(Game.GameStatus.IN_PROGRESS);
+        game.setLastUpdated(Instant.now());
+        gameId = game.getId();
+
+        // Nothing else appends to this game, so the benchmark thread stands in for its mailbox
+        gameLog.start(game, new GameMatchmakingEvent(gameId, player1.getId(), player2.getId(),
+                game.getCurrentNumber(), player1.getId()));
+        for (int move = 1; move <= MOVES; move++) {
+            Player mover = game.getCurrentPlayer();
+            game.setCurrentNumber(game.getCurrentNumber() / 3);
+            game.setCurrentPlayer(mover == player1 ? player2 : player1);
+            gameLog.append(game, new ClientMoveEvent(gameId, mover.getId(), 0));
+            if (move % FLUSH_EVERY == 0) {
+                gameLog.flush();
+            }
+        }
+        gameLog.flush();
+    }
+
+    @TearDown
+    public void tearDown() {
+        ServiceNode.deleteGames(context, List.of(gameId));
+        context.close();
+    }
+
+    // What catching up a game read from its row costs
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public GameLogState replay() {
+        return gameLog.replay(gameId).orElseThrow();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public GameLogState rebuild() {
+        return gameLog.rebuild(gameId).orElseThrow();
+    }
+}
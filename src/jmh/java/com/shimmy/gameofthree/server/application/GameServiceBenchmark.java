@@ -0,0 +1,116 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.api.exception.InvalidMoveException;
+import com.shimmy.gameofthree.server.domain.Game;
+import com.shimmy.gameofthree.server.domain.MoveResult;
+import com.shimmy.gameofthree.server.domain.Player;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// A move on a game in the ActiveGameStore, validated and applied in its mailbox, with the database,
+// the game log and the SSE push left out. Games that reach 1 are reset, so every move stays valid
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameServiceBenchmark {
+
+    private static final int GAMES = 1024;
+    // 3^19, the largest power of three an int holds, so move 0 is always valid and a game lasts 19 moves
+    static final int START_NUMBER = 1162261467;
+
+    private final GameService gameService = new GameService();
+    private final ActiveGameStore activeGameStore = new ActiveGameStore();
+    private final GameMailboxes gameMailboxes = new GameMailboxes();
+    private final InactivityTimers inactivityTimers = new InactivityTimers();
+    private final List<Game> games = new ArrayList<>(GAMES);
+    private int next;
+
+    @Setup
+    public void setUp() {
+        ReflectionTestUtils.setField(inactivityTimers, "timeout", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(activeGameStore, "gameMailboxes", gameMailboxes);
+        ReflectionTestUtils.setField(activeGameStore, "inactivityTimers", inactivityTimers);
+        ReflectionTestUtils.setField(gameService, "activeGameStore", activeGameStore);
+        ReflectionTestUtils.setField(gameService, "gameMailboxes", gameMailboxes);
+        ReflectionTestUtils.setField(gameService, "gameShards", new GameShards());
+        ReflectionTestUtils.setField(gameService, "gameLog", new GameLog() {
+            @Override
+            public void append(Game game, Object event) {
+            }
+        });
+        ReflectionTestUtils.setField(gameService, "gameStateNotifier", (GameStateNotifier) event -> { });
+        ReflectionTestUtils.setField(gameService, "meterRegistry", new SimpleMeterRegistry());
+        gameService.registerMetrics();
+
+        for (int i = 0; i < GAMES; i++) {
+            Player player1 = new Player("Player " + i + "a", false);
+            player1.setId(UUID.randomUUID().toString());
+            Player player2 = new Player("Player " + i + "b", false);
+            player2.setId(UUID.randomUUID().toString());
+
+            Game game = new Game();
+            game.setId(UUID.randomUUID().toString());
+            game.setPlayers(List.of(player1, player2));
+            game.setCurrentPlayer(player1);
+            game.setCurrentNumber(START_NUMBER);
+            game.setStatus(Game.GameStatus.IN_PROGRESS);
+            game.setLastUpdated(Instant.now());
+            games.add(activeGameStore.track(game));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        gameMailboxes.destroy();
+    }
+
+    @Benchmark
+    public MoveResult makeMove() {
+        Game game = games.get(next++ & (GAMES - 1));
+        MoveResult result = gameService.makeMove(game.getId(), game.getCurrentPlayer().getId(), 0);
+        if (result.getStatus() == Game.GameStatus.COMPLETED) {
+            restart(game);
+        }
+        return result;
+    }
+
+    // A move that fails validation, the cost of a rejected move including its exception
+    @Benchmark
+    public Object makeInvalidMove() {
+        Game game = games.get(next++ & (GAMES - 1));
+        try {
+            return gameService.makeMove(game.getId(), game.getCurrentPlayer().getId(), 1);
+        } catch (InvalidMoveException e) {
+            return e;
+        }
+    }
+
+    // Runs on the benchmark thread between moves, the game's mailbox is idle by then
+    private static void restart(Game game) {
+        game.setCurrentNumber(START_NUMBER);
+        game.setCurrentPlayer(game.getWinner());
+        game.setWinner(null);
+        game.setStatus(Game.GameStatus.IN_PROGRESS);
+    }
+}
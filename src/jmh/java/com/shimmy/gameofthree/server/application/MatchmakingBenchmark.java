@@ -0,0 +1,127 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.domain.Game;
+import com.shimmy.gameofthree.server.domain.Player;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+// One matchmaking run pairing every queued player: the queue drain, the games, their outbox events
+// and tracking them as active. The repositories answer from memory, RepositoryBenchmark covers the database.
+// Each run needs a full queue, so it is refilled before every invocation
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatchmakingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int queuedPlayers;
+
+    private final GameService gameService = new GameService();
+    private final PlayerService playerService = new PlayerService();
+    private final MatchmakingQueue matchmakingQueue = new MatchmakingQueue();
+    private final GameMailboxes gameMailboxes = new GameMailboxes();
+    private final List<Player> players = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        Map<String, Player> playersById = new HashMap<>();
+        for (int i = 0; i < queuedPlayers; i++) {
+            Player player = new Player("Player " + i, true);
+            player.setId(UUID.randomUUID().toString());
+            players.add(player);
+            playersById.put(player.getId(), player);
+        }
+
+        PlayerRepository playerRepository = mock(PlayerRepository.class, withSettings().stubOnly());
+        when(playerRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            List<Player> found = new ArrayList<>();
+            invocation.<Iterable<String>>getArgument(0).forEach(id -> found.add(playersById.get(id)));
+            return found;
+        });
+        when(playerRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        GameRepository gameRepository = mock(GameRepository.class, withSettings().stubOnly());
+        when(gameRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        OutboxEventRepository outboxEventRepository = mock(OutboxEventRepository.class, withSettings().stubOnly());
+        GameEventOutbox gameEventOutbox = new GameEventOutbox();
+        ReflectionTestUtils.setField(gameEventOutbox, "outboxEventRepository", outboxEventRepository);
+
+        GameShards gameShards = new GameShards();
+        ReflectionTestUtils.setField(playerService, "playerRepository", playerRepository);
+        ReflectionTestUtils.setField(playerService, "matchmakingQueue", matchmakingQueue);
+        ReflectionTestUtils.setField(playerService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(playerService, "cacheManager", new NoOpCacheManager());
+        ReflectionTestUtils.setField(playerService, "gameShards", gameShards);
+        playerService.registerMetrics();
+
+        ReflectionTestUtils.setField(gameService, "gameRepository", gameRepository);
+        ReflectionTestUtils.setField(gameService, "playerService", playerService);
+        ReflectionTestUtils.setField(gameService, "gameEventOutbox", gameEventOutbox);
+        ReflectionTestUtils.setField(gameService, "gameStateNotifier", (GameStateNotifier) event -> { });
+        ReflectionTestUtils.setField(gameService, "gameMailboxes", gameMailboxes);
+        ReflectionTestUtils.setField(gameService, "gameShards", gameShards);
+        ReflectionTestUtils.setField(gameService, "gameLog", new GameLog() {
+            @Override
+            public void append(Game game, Object event) {
+            }
+        });
+        ReflectionTestUtils.setField(gameService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(gameService, "cacheManager", new NoOpCacheManager());
+        ReflectionTestUtils.setField(gameService, "maxGamesPerTick", queuedPlayers / 2);
+        gameService.registerMetrics();
+    }
+
+    // A fresh store per run, so games matched by earlier runs don't pile up in it
+    @Setup(Level.Invocation)
+    public void fillQueue() {
+        InactivityTimers inactivityTimers = new InactivityTimers();
+        ReflectionTestUtils.setField(inactivityTimers, "timeout", Duration.ofMinutes(1));
+        ActiveGameStore activeGameStore = new ActiveGameStore();
+        ReflectionTestUtils.setField(activeGameStore, "gameMailboxes", gameMailboxes);
+        ReflectionTestUtils.setField(activeGameStore, "inactivityTimers", inactivityTimers);
+        ReflectionTestUtils.setField(gameService, "activeGameStore", activeGameStore);
+
+        players.forEach(player -> matchmakingQueue.enqueue(player.getId()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        gameMailboxes.destroy();
+    }
+
+    @Benchmark
+    public int pairQueuedPlayers() {
+        gameService.gameMatchmaking();
+        return matchmakingQueue.size();
+    }
+}
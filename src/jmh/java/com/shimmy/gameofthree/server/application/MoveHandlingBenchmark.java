@@ -0,0 +1,130 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.api.dto.GameDto;
+import com.shimmy.gameofthree.server.api.dto.MoveResultDto;
+import com.shimmy.gameofthree.server.api.mapper.GameMapper;
+import com.shimmy.gameofthree.server.api.mapper.PlayerMapper;
+import com.shimmy.gameofthree.server.domain.Game;
+import com.shimmy.gameofthree.server.domain.Player;
+import com.shimmy.gameofthree.server.domain.event.GameMatchmakingEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// A move on a game started in the database, up to the body POST /api/game/move answers with. Before the
+// move result, the response read the game again in a transaction of its own, with its players, and mapped
+// the whole GameDto. A game that ends is replaced by a new one before the next invocation
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoveHandlingBenchmark {
+
+    private static final int GAMES = 256;
+
+    private ConfigurableApplicationContext context;
+    private GameService gameService;
+    private GameRepository gameRepository;
+    private PlayerRepository playerRepository;
+    private ActiveGameStore activeGameStore;
+    private GameMailboxes gameMailboxes;
+    private GameLog gameLog;
+    private GameMapper gameMapper;
+    private TransactionTemplate readOnlyTransaction;
+
+    private Player player1;
+    private Player player2;
+    private final List<Game> games = new ArrayList<>(GAMES);
+    private final List<String> savedGameIds = new ArrayList<>();
+    private int next;
+    private Game game;
+
+    @Setup
+    public void setUp() {
+        context = ServiceNode.start(GameMapper.class, PlayerMapper.class);
+        gameService = context.getBean(GameService.class);
+        gameRepository = context.getBean(GameRepository.class);
+        playerRepository = context.getBean(PlayerRepository.class);
+        activeGameStore = context.getBean(ActiveGameStore.class);
+        gameMailboxes = context.getBean(GameMailboxes.class);
+        gameLog = context.getBean(GameLog.class);
+        gameMapper = context.getBean(GameMapper.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        player1 = playerRepository.save(new Player("Benchmark Player 1", false));
+        player2 = playerRepository.save(new Player("Benchmark Player 2", false));
+        for (int i = 0; i < GAMES; i++) {
+            games.add(startGame());
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void nextGame() {
+        int index = next++ & (GAMES - 1);
+        if (games.get(index).getStatus() != Game.GameStatus.IN_PROGRESS) {
+            games.set(index, startGame());
+        }
+        game = games.get(index);
+    }
+
+    // The scheduled log flush does not run on a ServiceNode
+    @TearDown(Level.Iteration)
+    public void flushLog() {
+        gameLog.flush();
+    }
+
+    @TearDown
+    public void tearDown() {
+        ServiceNode.deleteGames(context, savedGameIds);
+        playerRepository.deleteAllById(List.of(player1.getId(), player2.getId()));
+        context.close();
+    }
+
+    @Benchmark
+    public GameDto makeMoveAndReadGame() {
+        gameService.makeMove(game.getId(), game.getCurrentPlayer().getId(), 0);
+        return readOnlyTransaction.execute(status ->
+                gameMapper.toDto(gameRepository.findWithPlayersById(game.getId()).orElseThrow()));
+    }
+
+    @Benchmark
+    public MoveResultDto makeMove() {
+        return gameMapper.toDto(gameService.makeMove(game.getId(), game.getCurrentPlayer().getId(), 0));
+    }
+
+    // A game row like matchmaking inserts it, tracked and logged the way a committed match is
+    private Game startGame() {
+        Game newGame = new Game();
+        newGame.setPlayers(List.of(player1, player2));
+        newGame.setCurrentPlayer(player1);
+        newGame.setCurrentNumber(GameServiceBenchmark.START_NUMBER);
+        newGame.setStatus(Game.GameStatus.IN_PROGRESS);
+        newGame.setLastUpdated(Instant.now());
+        Game saved = gameRepository.save(newGame);
+        savedGameIds.add(saved.getId());
+        Game tracked = activeGameStore.track(saved);
+        gameMailboxes.run(tracked.getId(), () -> gameLog.start(tracked, new GameMatchmakingEvent(tracked.getId(),
+                player1.getId(), player2.getId(), tracked.getCurrentNumber(), player1.getId())));
+        return tracked;
+    }
+}
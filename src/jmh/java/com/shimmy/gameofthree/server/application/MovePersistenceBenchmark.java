@@ -0,0 +1,128 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.domain.Game;
+import com.shimmy.gameofthree.server.domain.MoveResult;
+import com.shimmy.gameofthree.server.domain.Player;
+import com.shimmy.gameofthree.server.domain.event.GameMatchmakingEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Moves per second through GameService.makeMove on each persistence backend, counting the writes that make them
+// durable. A move is persisted by its game log entry, so every movesPerCommit moves the log is flushed in one
+// transaction, together with the games that ended. 1 commits each move on its own, 100 is a log flush of 100
+// moves. postgres needs a server at POSTGRES_URL, -p profile=sqlite,h2 leaves it out
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 8, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MovePersistenceBenchmark {
+
+    private static final int GAMES = 256;
+
+    @Param({"sqlite", "h2", "postgres"})
+    private String profile;
+
+    @Param({"1", "100"})
+    private int movesPerCommit;
+
+    private ConfigurableApplicationContext context;
+    private GameService gameService;
+    private GameRepository gameRepository;
+    private PlayerRepository playerRepository;
+    private ActiveGameStore activeGameStore;
+    private GameMailboxes gameMailboxes;
+    private GameLog gameLog;
+
+    private Player player1;
+    private Player player2;
+    private final List<Game> games = new ArrayList<>(GAMES);
+    private final List<String> savedGameIds = new ArrayList<>();
+    private int next;
+    private long moves;
+    private Game game;
+
+    @Setup
+    public void setUp() {
+        context = ServiceNode.start(profile);
+        gameService = context.getBean(GameService.class);
+        gameRepository = context.getBean(GameRepository.class);
+        playerRepository = context.getBean(PlayerRepository.class);
+        activeGameStore = context.getBean(ActiveGameStore.class);
+        gameMailboxes = context.getBean(GameMailboxes.class);
+        gameLog = context.getBean(GameLog.class);
+
+        player1 = playerRepository.save(new Player("Benchmark Player 1", false));
+        player2 = playerRepository.save(new Player("Benchmark Player 2", false));
+        for (int i = 0; i < GAMES; i++) {
+            games.add(startGame());
+        }
+        commit();
+    }
+
+    @Setup(Level.Invocation)
+    public void nextGame() {
+        int index = next++ & (GAMES - 1);
+        if (games.get(index).getStatus() != Game.GameStatus.IN_PROGRESS) {
+            games.set(index, startGame());
+        }
+        game = games.get(index);
+    }
+
+    @TearDown
+    public void tearDown() {
+        commit();
+        ServiceNode.deleteGames(context, savedGameIds);
+        playerRepository.deleteAllById(List.of(player1.getId(), player2.getId()));
+        context.close();
+    }
+
+    @Benchmark
+    public MoveResult makeMove() {
+        MoveResult result = gameService.makeMove(game.getId(), game.getCurrentPlayer().getId(), 0);
+        if (++moves % movesPerCommit == 0) {
+            commit();
+        }
+        return result;
+    }
+
+    // What the scheduled flushes of a server write
+    private void commit() {
+        gameLog.flush();
+        activeGameStore.flush();
+    }
+
+    // A game row like matchmaking inserts it, tracked and logged the way a committed match is
+    private Game startGame() {
+        Game newGame = new Game();
+        newGame.setPlayers(List.of(player1, player2));
+        newGame.setCurrentPlayer(player1);
+        newGame.setCurrentNumber(GameServiceBenchmark.START_NUMBER);
+        newGame.setStatus(Game.GameStatus.IN_PROGRESS);
+        newGame.setLastUpdated(Instant.now());
+        Game saved = gameRepository.save(newGame);
+        savedGameIds.add(saved.getId());
+        Game tracked = activeGameStore.track(saved);
+        gameMailboxes.run(tracked.getId(), () -> gameLog.start(tracked, new GameMatchmakingEvent(tracked.getId(),
+                player1.getId(), player2.getId(), tracked.getCurrentNumber(), player1.getId())));
+        return tracked;
+    }
+}
@@ -0,0 +1,126 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.config.SqliteDataSource;
+import com.shimmy.gameofthree.server.domain.Game;
+import com.shimmy.gameofthree.server.domain.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Repository calls on the datasource of the active profile, sqlite unless -Dspring.profiles.active says
+// otherwise, with the application's own datasource and JPA settings. Only the persistence layer is started.
+// The profile runs benchmarks in target/, so file databases are created there, on postgres the rows this
+// benchmark inserted are deleted again when it ends
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    private static final int DELETE_BATCH_SIZE = 500;
+
+    private ConfigurableApplicationContext context;
+    private GameRepository gameRepository;
+    private PlayerRepository playerRepository;
+    private TransactionTemplate transactionTemplate;
+
+    private Player player1;
+    private Player player2;
+    private Game game;
+    private final List<String> savedGameIds = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(Persistence.class)
+                .web(WebApplicationType.NONE)
+                .run();
+        gameRepository = context.getBean(GameRepository.class);
+        playerRepository = context.getBean(PlayerRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        player1 = playerRepository.save(new Player("Benchmark Player 1", false));
+        player2 = playerRepository.save(new Player("Benchmark Player 2", false));
+        game = saveGame();
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (int from = 0; from < savedGameIds.size(); from += DELETE_BATCH_SIZE) {
+            List<String> ids = savedGameIds.subList(from, Math.min(from + DELETE_BATCH_SIZE, savedGameIds.size()));
+            transactionTemplate.executeWithoutResult(status -> gameRepository.deleteByIdIn(ids));
+        }
+        playerRepository.deleteAllById(List.of(player1.getId(), player2.getId()));
+        context.close();
+    }
+
+    // A new game with its two players, as matchmaking inserts it
+    @Benchmark
+    public Game saveGame() {
+        Game newGame = new Game();
+        newGame.setPlayers(List.of(player1, player2));
+        newGame.setCurrentPlayer(player1);
+        newGame.setCurrentNumber(59049);
+        newGame.setStatus(Game.GameStatus.IN_PROGRESS);
+        newGame.setLastUpdated(Instant.now());
+        Game saved = gameRepository.save(newGame);
+        savedGameIds.add(saved.getId());
+        return saved;
+    }
+
+    @Benchmark
+    public Game findGameWithPlayers() {
+        return gameRepository.findWithPlayersById(game.getId()).orElseThrow();
+    }
+
+    @Benchmark
+    public int updateGameState() {
+        return transactionTemplate.execute(status -> gameRepository.updateState(game.getId(), 19683, player2,
+                Game.GameStatus.IN_PROGRESS, Instant.now(), null));
+    }
+
+    @Benchmark
+    public Player findPlayer() {
+        return playerRepository.findById(player1.getId()).orElseThrow();
+    }
+
+    @Benchmark
+    public Player savePlayer() {
+        player1.setIsLookingForGame(!player1.getIsLookingForGame());
+        return player1 = playerRepository.save(player1);
+    }
+
+    // The datasource, JPA and repositories of the application without its services, jobs or Kafka
+    @SpringBootConfiguration
+    @EnableAutoConfiguration(exclude = KafkaAutoConfiguration.class)
+    @EntityScan(basePackageClasses = Game.class)
+    @EnableJpaRepositories(basePackageClasses = GameRepository.class)
+    @Import(SqliteDataSource.class)
+    static class Persistence {
+    }
+}
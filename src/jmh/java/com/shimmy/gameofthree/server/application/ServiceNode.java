@@ -0,0 +1,97 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.config.SqliteDataSource;
+import com.shimmy.gameofthree.server.domain.Game;
+import com.shimmy.gameofthree.server.domain.event.GameStateChangedEvent;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// The game and player services on the datasource of the active profile, with their transactions and caches
+// but without the web layer, Kafka, the SSE push or the scheduled jobs. Benchmarks add the components they
+// measure on top, and watch the state changes the services push through the Notifications bean
+@SpringBootConfiguration
+@EnableAutoConfiguration(exclude = KafkaAutoConfiguration.class)
+@EnableCaching
+@EntityScan(basePackageClasses = Game.class)
+@EnableJpaRepositories(basePackageClasses = GameRepository.class)
+@Import({SqliteDataSource.class, GameService.class, PlayerService.class, MatchmakingQueue.class, ActiveGameStore.class,
+        GameMailboxes.class, InactivityTimers.class, GameShards.class, BlockingCalls.class, GameEventOutbox.class,
+        GameLog.class})
+class ServiceNode {
+
+    private static final int DELETE_BATCH_SIZE = 500;
+
+    static ConfigurableApplicationContext start(Class<?>... components) {
+        return builder(components).run();
+    }
+
+    // On the given persistence profile instead of the one -Dspring.profiles.active or the default selects
+    static ConfigurableApplicationContext start(String profile, Class<?>... components) {
+        return builder(components).profiles(profile).run();
+    }
+
+    // With key=value properties that take precedence over the profile's own, like command line arguments
+    static ConfigurableApplicationContext start(String profile, List<String> properties, Class<?>... components) {
+        return builder(components).profiles(profile)
+                .run(properties.stream().map(property -> "--" + property).toArray(String[]::new));
+    }
+
+    private static SpringApplicationBuilder builder(Class<?>... components) {
+        return new SpringApplicationBuilder(ServiceNode.class)
+                .sources(components)
+                .web(WebApplicationType.NONE);
+    }
+
+    // Deletes the games a benchmark created together with their outbox events and log, so a shared postgres
+    // keeps nothing a server's relay would publish
+    static void deleteGames(ConfigurableApplicationContext context, List<String> gameIds) {
+        context.getBean(GameLog.class).flush();
+        NamedParameterJdbcTemplate jdbc = context.getBean(NamedParameterJdbcTemplate.class);
+        TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        for (int from = 0; from < gameIds.size(); from += DELETE_BATCH_SIZE) {
+            Map<String, List<String>> ids =
+                    Map.of("ids", gameIds.subList(from, Math.min(from + DELETE_BATCH_SIZE, gameIds.size())));
+            transaction.executeWithoutResult(status -> {
+                jdbc.update("delete from game_event_outbox where game_id in (:ids)", ids);
+                jdbc.update("delete from game_log where game_id in (:ids)", ids);
+                jdbc.update("delete from game_snapshot where game_id in (:ids)", ids);
+                jdbc.update("delete from game_players where game_id in (:ids)", ids);
+                jdbc.update("delete from game where id in (:ids)", ids);
+            });
+        }
+    }
+
+    @Bean
+    Notifications notifications() {
+        return new Notifications();
+    }
+
+    static class Notifications implements GameStateNotifier {
+        private volatile Consumer<GameStateChangedEvent> listener = event -> { };
+
+        void onStateChanged(Consumer<GameStateChangedEvent> listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void notifyPlayers(GameStateChangedEvent event) {
+            listener.accept(event);
+        }
+    }
+}
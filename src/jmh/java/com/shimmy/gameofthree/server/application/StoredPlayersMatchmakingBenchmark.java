@@ -0,0 +1,108 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.domain.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// One matchmaking run pairing the same number of queued players next to a growing number of stored players
+// that are not looking for a game, on the datasource of the active profile. Matchmaking drains the queue and
+// loads only the queued players, so the time per run should not grow with storedPlayers
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StoredPlayersMatchmakingBenchmark {
+
+    private static final int QUEUED_PLAYERS = 100;
+    private static final int INSERT_BATCH_SIZE = 10_000;
+
+    @Param({"10000", "100000", "1000000"})
+    private int storedPlayers;
+
+    private ConfigurableApplicationContext context;
+    private GameService gameService;
+    private MatchmakingQueue matchmakingQueue;
+    private ActiveGameStore activeGameStore;
+    private GameShards gameShards;
+    private GameLog gameLog;
+    private JdbcTemplate jdbc;
+
+    // Every player row this benchmark inserts has an id starting with it, so they are deleted in one statement
+    private final String idPrefix = "bench-" + UUID.randomUUID() + "-";
+    private final List<String> queuedPlayerIds = new ArrayList<>(QUEUED_PLAYERS);
+    private final List<String> matchedGameIds = Collections.synchronizedList(new ArrayList<>());
+
+    @Setup
+    public void setUp() {
+        context = ServiceNode.start();
+        gameService = context.getBean(GameService.class);
+        matchmakingQueue = context.getBean(MatchmakingQueue.class);
+        activeGameStore = context.getBean(ActiveGameStore.class);
+        gameShards = context.getBean(GameShards.class);
+        gameLog = context.getBean(GameLog.class);
+        jdbc = context.getBean(JdbcTemplate.class);
+
+        TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        for (int from = 0; from < storedPlayers; from += INSERT_BATCH_SIZE) {
+            List<Object[]> rows = new ArrayList<>(INSERT_BATCH_SIZE);
+            for (int i = from; i < Math.min(from + INSERT_BATCH_SIZE, storedPlayers); i++) {
+                rows.add(new Object[]{idPrefix + i, "Stored Player " + i, false});
+            }
+            transaction.executeWithoutResult(status ->
+                    jdbc.batchUpdate("insert into player (id, name, is_looking_for_game) values (?, ?, ?)", rows));
+        }
+        PlayerRepository playerRepository = context.getBean(PlayerRepository.class);
+        for (int i = 0; i < QUEUED_PLAYERS; i++) {
+            queuedPlayerIds.add(playerRepository.save(new Player(idPrefix + "queued-" + i, "Queued Player " + i, true)).getId());
+        }
+        context.getBean(ServiceNode.Notifications.class).onStateChanged(event -> matchedGameIds.add(event.getGameId()));
+    }
+
+    @Setup(Level.Invocation)
+    public void fillQueue() {
+        queuedPlayerIds.forEach(matchmakingQueue::enqueue);
+    }
+
+    // The games matched so far, so they don't pile up in the store or the log buffer
+    @TearDown(Level.Iteration)
+    public void forgetGames() {
+        activeGameStore.forget(gameShards.ownedShards());
+        gameLog.flush();
+    }
+
+    @TearDown
+    public void tearDown() {
+        ServiceNode.deleteGames(context, List.copyOf(matchedGameIds));
+        jdbc.update("delete from player where id like ?", idPrefix + "%");
+        context.close();
+    }
+
+    @Benchmark
+    public int pairQueuedPlayers() {
+        gameService.gameMatchmaking();
+        return matchmakingQueue.size();
+    }
+}
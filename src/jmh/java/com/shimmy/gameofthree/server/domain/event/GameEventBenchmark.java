@@ -0,0 +1,80 @@
+package com.shimmy.gameofthree.server.domain.event;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.shimmy.gameofthree.server.domain.Game;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// The binary GameEventCodec used on the topic and in the outbox, next to Jackson JSON, which is what
+// SSE pushes and what the topic carried before the codec. GameEvent has no JSON creator, so JSON is
+// only read back as a tree the way the client parses it
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameEventBenchmark {
+
+    @Param({"client_move", "game_state_changed"})
+    private String payload;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private GameEvent<?> event;
+    private byte[] binary;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        String gameId = UUID.randomUUID().toString();
+        String player1Id = UUID.randomUUID().toString();
+        String player2Id = UUID.randomUUID().toString();
+        Object data = switch (payload) {
+            case "client_move" -> new ClientMoveEvent(gameId, player1Id, -1);
+            case "game_state_changed" -> new GameStateChangedEvent(gameId, List.of(player1Id, player2Id), 9,
+                    player2Id, Game.GameStatus.IN_PROGRESS, null, Instant.now());
+            default -> throw new IllegalArgumentException("Unknown payload " + payload);
+        };
+        event = new GameEvent<>(UUID.randomUUID().toString(), gameId, payload, data);
+        binary = GameEventCodec.encode(event);
+        json = objectMapper.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return GameEventCodec.encode(event);
+    }
+
+    @Benchmark
+    public GameEvent<?> decode() {
+        return GameEventCodec.decode(binary);
+    }
+
+    @Benchmark
+    public byte[] writeJson() throws IOException {
+        return objectMapper.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public JsonNode readJson() throws IOException {
+        return objectMapper.readTree(json);
+    }
+}
@@ -0,0 +1,81 @@
+package com.shimmy.gameofthree.server.api;
+
+import com.shimmy.gameofthree.server.api.dto.GameDto;
+import com.shimmy.gameofthree.server.api.dto.MakeMoveRequestDto;
+import com.shimmy.gameofthree.server.api.dto.MakeMoveResponseDto;
+import com.shimmy.gameofthree.server.api.mapper.GameMapper;
+import com.shimmy.gameofthree.server.application.BlockingCalls;
+import com.shimmy.gameofthree.server.application.GameService;
+import com.shimmy.gameofthree.server.application.MoveIngestion;
+import com.shimmy.gameofthree.server.application.MoveIngestionMode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
+
+// GameApi with the request thread released while a move waits for its game's mailbox or the broker and while
+// anything else waits for the database. Reads of active games wait for their game's mailbox the same way. Only
+// served with game.api.async=true, under load on few cores the sync endpoints keep better move latency and throughput
+@RestController
+@RequestMapping("/api/async/game")
+@ConditionalOnProperty(name = "game.api.async", havingValue = "true")
+public class AsyncGameApi {
+    @Autowired
+    GameService gameService;
+
+    @Autowired
+    GameMapper gameMapper;
+
+    @Autowired
+    MoveIngestion moveIngestion;
+
+    @Autowired
+    ShardRouting shardRouting;
+
+    @Autowired
+    BlockingCalls blockingCalls;
+
+    @Value("${game.moves.ingestion:sync}")
+    MoveIngestionMode moveIngestionMode;
+
+    @PostMapping("/move")
+    public CompletableFuture<ResponseEntity<MakeMoveResponseDto>> makeMove(@RequestBody MakeMoveRequestDto request) {
+        if (moveIngestionMode == MoveIngestionMode.KAFKA) {
+            return moveIngestion.submitAsync(request.getGameId(), request.getPlayerId(), request.getMove())
+                    .thenApply(eventId -> ResponseEntity.status(HttpStatus.ACCEPTED)
+                            .body(new MakeMoveResponseDto("Move accepted", null)));
+        }
+        shardRouting.requireLocal(request.getGameId());
+        return gameService.makeMoveAsync(request.getGameId(), request.getPlayerId(), request.getMove())
+                .thenApply(result -> ResponseEntity.ok(
+                        new MakeMoveResponseDto("Move processed successfully", gameMapper.toDto(result))));
+    }
+
+    @GetMapping("/matchmaking")
+    @ResponseStatus(HttpStatus.OK)
+    public CompletableFuture<GameDto> getMatchmakingGame(@RequestParam String playerId) {
+        shardRouting.requireLocal(playerId);
+        return gameService.findActiveGameByPlayerId(playerId)
+                .map(snapshot -> snapshot.thenCompose(game -> game != null
+                        ? CompletableFuture.completedFuture(gameMapper.toDto(game))
+                        : loadGameByPlayerId(playerId)))
+                .orElseGet(() -> loadGameByPlayerId(playerId));
+    }
+
+    @GetMapping("/{gameId}")
+    @ResponseStatus(HttpStatus.OK)
+    public CompletableFuture<GameDto> getGame(@PathVariable String gameId) {
+        shardRouting.requireLocal(gameId);
+        return gameService.findActiveGame(gameId)
+                .map(snapshot -> snapshot.thenApply(gameMapper::toDto))
+                .orElseGet(() -> blockingCalls.supply(() -> gameMapper.toDto(gameService.getGame(gameId))));
+    }
+
+    private CompletableFuture<GameDto> loadGameByPlayerId(String playerId) {
+        return blockingCalls.supply(() -> gameMapper.toDto(gameService.getGameByPlayerId(playerId)));
+    }
+}
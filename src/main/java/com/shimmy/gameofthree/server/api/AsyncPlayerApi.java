@@ -0,0 +1,58 @@
+package com.shimmy.gameofthree.server.api;
+
+import com.shimmy.gameofthree.server.api.dto.CreatePlayerRequestDto;
+import com.shimmy.gameofthree.server.api.dto.CreatePlayerResponseDto;
+import com.shimmy.gameofthree.server.api.dto.PlayerDto;
+import com.shimmy.gameofthree.server.api.dto.PlayerEnterMatchmakingRequestDto;
+import com.shimmy.gameofthree.server.api.mapper.PlayerMapper;
+import com.shimmy.gameofthree.server.application.BlockingCalls;
+import com.shimmy.gameofthree.server.application.PlayerService;
+import com.shimmy.gameofthree.server.domain.Player;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
+
+// The PlayerApi writes with the database work on a blocking call instead of the request thread,
+// only served with game.api.async=true like AsyncGameApi
+@Slf4j
+@RestController
+@RequestMapping("/api/async/player")
+@ConditionalOnProperty(name = "game.api.async", havingValue = "true")
+public class AsyncPlayerApi {
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private PlayerMapper playerMapper;
+
+    @Autowired
+    private ShardRouting shardRouting;
+
+    @Autowired
+    private BlockingCalls blockingCalls;
+
+    @PostMapping("/")
+    @ResponseStatus(HttpStatus.CREATED)
+    public CompletableFuture<CreatePlayerResponseDto> createPlayer(@RequestBody CreatePlayerRequestDto request) {
+        String playerName = request.getPlayerName();
+        log.info("Creating player with name (JSON): {}", playerName);
+        return blockingCalls.supply(() -> new CreatePlayerResponseDto(playerService.createPlayer(playerName).getId()));
+    }
+
+    @PostMapping("/matchmaking")
+    @ResponseStatus(HttpStatus.OK)
+    public CompletableFuture<PlayerDto> enterMatchmaking(@RequestBody PlayerEnterMatchmakingRequestDto request) {
+        log.info("Player {} entering matchmaking", request.getPlayerId());
+        shardRouting.requireLocal(request.getPlayerId());
+        return blockingCalls.supply(() -> {
+            Player player = playerService.getPlayer(request.getPlayerId());
+            Player updatedPlayer = playerService.setPlayerIsLookingForGame(player.getId(), true);
+            log.info("Player {} marked as looking for game", request.getPlayerId());
+            return playerMapper.toDto(updatedPlayer);
+        });
+    }
+}
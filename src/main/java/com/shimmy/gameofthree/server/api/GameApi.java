@@ -1,36 +1,66 @@
-package com.shimmy.gameofthree.server.api;
-
-import com.shimmy.gameofthree.server.api.dto.GameDto;
-import com.shimmy.gameofthree.server.api.dto.MakeMoveRequestDto;
-import com.shimmy.gameofthree.server.api.dto.MakeMoveResponseDto;
-import com.shimmy.gameofthree.server.api.mapper.GameMapper;
-import com.shimmy.gameofthree.server.application.GameService;
-import com.shimmy.gameofthree.server.domain.Game;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatus;
-import org.springframework.web.bind.annotation.*;
-
-@RestController
-@RequestMapping("/api/game")
-public class GameApi {
-    @Autowired
-    GameService gameService;
-
-    @Autowired
-    GameMapper gameMapper;
-
-    @PostMapping("/move")
-    @ResponseStatus(HttpStatus.OK)
-    public MakeMoveResponseDto makeMove(@RequestBody MakeMoveRequestDto request) {
-        gameService.makeMove(request.getGameId(), request.getPlayerId(), request.getMove());
-        Game updatedGame = gameService.getGame(request.getGameId());
-        return new MakeMoveResponseDto("Move processed successfully", gameMapper.toDto(updatedGame));
-    }
-
-    @GetMapping("/{gameId}")
-    @ResponseStatus(HttpStatus.OK)
-    public GameDto getGame(@PathVariable String gameId) {
-        Game game = gameService.getGame(gameId);
-        return gameMapper.toDto(game);
-    }
-}
+package com.shimmy.gameofthree.server.api;
+
+import com.shimmy.gameofthree.server.api.dto.GameDto;
+import com.shimmy.gameofthree.server.api.dto.MakeMoveRequestDto;
+import com.shimmy.gameofthree.server.api.dto.MakeMoveResponseDto;
+import com.shimmy.gameofthree.server.api.mapper.GameMapper;
+import com.shimmy.gameofthree.server.application.GameService;
+import com.shimmy.gameofthree.server.application.MoveIngestion;
+import com.shimmy.gameofthree.server.application.MoveIngestionMode;
+import com.shimmy.gameofthree.server.domain.Game;
+import com.shimmy.gameofthree.server.domain.MoveResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/game")
+public class GameApi {
+    @Autowired
+    GameService gameService;
+
+    @Autowired
+    GameMapper gameMapper;
+
+    @Autowired
+    MoveIngestion moveIngestion;
+
+    @Autowired
+    ShardRouting shardRouting;
+
+    @Value("${game.moves.ingestion:sync}")
+    MoveIngestionMode moveIngestionMode;
+
+    // In kafka mode the move is only queued, 202 carries no result and it arrives over the SSE stream instead.
+    // The topic partition routes it to the owning node, a sync move is redirected there instead
+    @PostMapping("/move")
+    public ResponseEntity<MakeMoveResponseDto> makeMove(@RequestBody MakeMoveRequestDto request) {
+        if (moveIngestionMode == MoveIngestionMode.KAFKA) {
+            moveIngestion.submit(request.getGameId(), request.getPlayerId(), request.getMove());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(new MakeMoveResponseDto("Move accepted", null));
+        }
+        shardRouting.requireLocal(request.getGameId());
+        MoveResult result = gameService.makeMove(request.getGameId(), request.getPlayerId(), request.getMove());
+        return ResponseEntity.ok(new MakeMoveResponseDto("Move processed successfully", gameMapper.toDto(result)));
+    }
+
+    // Read by the client when it opens the matchmaking screen or its event stream reconnects, the match itself
+    // arrives over SSE. The body stays empty until the player has a game
+    @GetMapping("/matchmaking")
+    @ResponseStatus(HttpStatus.OK)
+    public GameDto getMatchmakingGame(@RequestParam String playerId) {
+        shardRouting.requireLocal(playerId);
+        Game game = gameService.getGameByPlayerId(playerId);
+        return gameMapper.toDto(game);
+    }
+
+    @GetMapping("/{gameId}")
+    @ResponseStatus(HttpStatus.OK)
+    public GameDto getGame(@PathVariable String gameId) {
+        shardRouting.requireLocal(gameId);
+        Game game = gameService.getGame(gameId);
+        return gameMapper.toDto(game);
+    }
+}
@@ -1,51 +1,70 @@
-package com.shimmy.gameofthree.server.api;
-
-import com.shimmy.gameofthree.server.api.dto.CreatePlayerRequestDto;
-import com.shimmy.gameofthree.server.api.dto.CreatePlayerResponseDto;
-import com.shimmy.gameofthree.server.api.dto.PlayerDto;
-import com.shimmy.gameofthree.server.api.dto.PlayerEnterMatchmakingRequestDto;
-import com.shimmy.gameofthree.server.api.mapper.PlayerMapper;
-import com.shimmy.gameofthree.server.application.PlayerService;
-import com.shimmy.gameofthree.server.domain.Player;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatus;
-import org.springframework.web.bind.annotation.*;
-
-@Slf4j
-@RestController
-@RequestMapping("/api/player")
-public class PlayerApi {
-    @Autowired
-    private PlayerService playerService;
-
-    @Autowired
-    private PlayerMapper playerMapper;
-
-    @PostMapping("/")
-    @ResponseStatus(HttpStatus.CREATED)
-    public CreatePlayerResponseDto createPlayer(@RequestBody CreatePlayerRequestDto request) {
-        String playerName = request.getPlayerName();
-        log.info("Creating player with name (JSON): {}", playerName);
-        Player player = playerService.createPlayer(playerName);
-        return new CreatePlayerResponseDto(player.getId());
-    }
-
-    @PostMapping("/matchmaking")
-    @ResponseStatus(HttpStatus.OK)
-    public PlayerDto enterMatchmaking(@RequestBody PlayerEnterMatchmakingRequestDto request) {
-        log.info("Player {} entering matchmaking", request.getPlayerId());
-        Player player = playerService.getPlayer(request.getPlayerId());
-        Player updatedPlayer = playerService.setPlayerIsLookingForGame(player.getId(), true);
-        log.info("Player {} marked as looking for game", request.getPlayerId());
-        return playerMapper.toDto(updatedPlayer);
-    }
-
-    @GetMapping("/{playerId}")
-    @ResponseStatus(HttpStatus.OK)
-    public PlayerDto getPlayer(@PathVariable String playerId) {
-        log.info("Retrieving player with ID: {}", playerId);
-        Player player = playerService.getPlayer(playerId);
-        return playerMapper.toDto(player);
-    }
-}
+package com.shimmy.gameofthree.server.api;
+
+import com.shimmy.gameofthree.server.api.dto.CreatePlayerRequestDto;
+import com.shimmy.gameofthree.server.api.dto.CreatePlayerResponseDto;
+import com.shimmy.gameofthree.server.api.dto.PlayerDto;
+import com.shimmy.gameofthree.server.api.dto.PlayerEnterMatchmakingRequestDto;
+import com.shimmy.gameofthree.server.api.mapper.PlayerMapper;
+import com.shimmy.gameofthree.server.application.PlayerService;
+import com.shimmy.gameofthree.server.domain.Player;
+import com.shimmy.gameofthree.server.infrastructure.push.SseGameStateNotifier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/player")
+public class PlayerApi {
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private PlayerMapper playerMapper;
+
+    @Autowired
+    private SseGameStateNotifier gameStateNotifier;
+
+    @Autowired
+    private ShardRouting shardRouting;
+
+    @PostMapping("/")
+    @ResponseStatus(HttpStatus.CREATED)
+    public CreatePlayerResponseDto createPlayer(@RequestBody CreatePlayerRequestDto request) {
+        String playerName = request.getPlayerName();
+        log.info("Creating player with name (JSON): {}", playerName);
+        Player player = playerService.createPlayer(playerName);
+        return new CreatePlayerResponseDto(player.getId());
+    }
+
+    @PostMapping("/matchmaking")
+    @ResponseStatus(HttpStatus.OK)
+    public PlayerDto enterMatchmaking(@RequestBody PlayerEnterMatchmakingRequestDto request) {
+        log.info("Player {} entering matchmaking", request.getPlayerId());
+        // The player is queued, matched and notified on the node that owns them
+        shardRouting.requireLocal(request.getPlayerId());
+        Player player = playerService.getPlayer(request.getPlayerId());
+        Player updatedPlayer = playerService.setPlayerIsLookingForGame(player.getId(), true);
+        log.info("Player {} marked as looking for game", request.getPlayerId());
+        return playerMapper.toDto(updatedPlayer);
+    }
+
+    @GetMapping("/{playerId}")
+    @ResponseStatus(HttpStatus.OK)
+    public PlayerDto getPlayer(@PathVariable String playerId) {
+        log.info("Retrieving player with ID: {}", playerId);
+        Player player = playerService.getPlayer(playerId);
+        return playerMapper.toDto(player);
+    }
+
+    @GetMapping(path = "/{playerId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToGameUpdates(@PathVariable String playerId) {
+        log.info("Player {} subscribing to game updates", playerId);
+        shardRouting.requireLocal(playerId);
+        Player player = playerService.getPlayer(playerId);
+        return gameStateNotifier.subscribe(player.getId());
+    }
+}
@@ -0,0 +1,31 @@
+package com.shimmy.gameofthree.server.api;
+
+import com.shimmy.gameofthree.server.api.exception.NotOwnerException;
+import com.shimmy.gameofthree.server.application.GameShards;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+
+// Requests about a game or player owned by another node are redirected there with a 307, which keeps
+// the method and body, so a client that follows redirects never needs to know the cluster layout
+@Component
+public class ShardRouting {
+    @Autowired
+    private GameShards gameShards;
+
+    public void requireLocal(String id) {
+        if (id == null) {
+            return;
+        }
+        gameShards.ownerUrl(id).ifPresent(ownerUrl -> {
+            UriComponents request = ServletUriComponentsBuilder.fromCurrentRequest().build();
+            throw new NotOwnerException(UriComponentsBuilder.fromUriString(ownerUrl)
+                    .path(request.getPath())
+                    .query(request.getQuery())
+                    .build(true)
+                    .toUri());
+        });
+    }
+}
@@ -9,5 +9,5 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class MakeMoveResponseDto {
     private String message;
-    private GameDto game;
+    private MoveResultDto result;
 }
@@ -0,0 +1,19 @@
+package com.shimmy.gameofthree.server.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MoveResultDto {
+    private String gameId;
+    private Integer currentNumber;
+    private String currentPlayerId;
+    private GameDto.GameStatusDto status;
+    private String winnerId;
+    private Instant lastUpdated;
+}
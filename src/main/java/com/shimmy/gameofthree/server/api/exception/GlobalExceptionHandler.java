@@ -5,6 +5,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -44,6 +45,24 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
+    @ExceptionHandler(MoveNotAcceptedException.class)
+    public ResponseEntity<Map<String, Object>> handleMoveNotAcceptedException(MoveNotAcceptedException ex) {
+        log.error("Move not accepted: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+    }
+
+    @ExceptionHandler(AsyncRequestTimeoutException.class)
+    public ResponseEntity<Map<String, Object>> handleAsyncRequestTimeoutException(AsyncRequestTimeoutException ex) {
+        log.error("Request timed out waiting for its result");
+        return buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, "The request timed out, please retry.");
+    }
+
+    @ExceptionHandler(NotOwnerException.class)
+    public ResponseEntity<Void> handleNotOwnerException(NotOwnerException ex) {
+        log.debug("Redirecting to {}", ex.getLocation());
+        return ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT).location(ex.getLocation()).build();
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGenericException(Exception ex) {
         log.error("Unexpected error occurred: {}", ex.getMessage(), ex);
@@ -0,0 +1,11 @@
+package com.shimmy.gameofthree.server.api.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class MoveNotAcceptedException extends RuntimeException {
+    public MoveNotAcceptedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,16 @@
+package com.shimmy.gameofthree.server.api.exception;
+
+import lombok.Getter;
+
+import java.net.URI;
+
+// The requested game or player is owned by another node, location is the same request on that node
+@Getter
+public class NotOwnerException extends RuntimeException {
+    private final URI location;
+
+    public NotOwnerException(URI location) {
+        super("Owned by " + location.getAuthority());
+        this.location = location;
+    }
+}
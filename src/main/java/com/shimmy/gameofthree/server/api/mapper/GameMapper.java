@@ -1,8 +1,10 @@
 package com.shimmy.gameofthree.server.api.mapper;
 
 import com.shimmy.gameofthree.server.api.dto.GameDto;
+import com.shimmy.gameofthree.server.api.dto.MoveResultDto;
 import com.shimmy.gameofthree.server.api.dto.PlayerDto;
 import com.shimmy.gameofthree.server.domain.Game;
+import com.shimmy.gameofthree.server.domain.MoveResult;
 import com.shimmy.gameofthree.server.domain.Player;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -44,6 +46,25 @@ public class GameMapper {
                 winnerDto);
     }
 
+    // Only ids and scalars, nothing of the game's player graph is read to answer a move
+    public MoveResultDto toDto(MoveResult result) {
+        if (result == null) {
+            return null;
+        }
+
+        GameDto.GameStatusDto statusDto = result.getStatus() != null
+                ? GameDto.GameStatusDto.valueOf(result.getStatus().name())
+                : null;
+
+        return new MoveResultDto(
+                result.getGameId(),
+                result.getCurrentNumber(),
+                result.getCurrentPlayerId(),
+                statusDto,
+                result.getWinnerId(),
+                result.getLastUpdated());
+    }
+
     public Game toEntity(GameDto gameDto) {
         if (gameDto == null) {
             return null;
@@ -0,0 +1,219 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.domain.Game;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+// Authoritative in-memory state of games in progress. Moves mutate these games directly and are persisted
+// by the GameLog, a write-behind flush writes the final state of ended games in a single transaction.
+@Slf4j
+@Component
+public class ActiveGameStore {
+    @Autowired
+    private GameRepository gameRepository;
+    @Autowired
+    private PlayerRepository playerRepository;
+    @Autowired
+    private GameMailboxes gameMailboxes;
+    @Autowired
+    private InactivityTimers inactivityTimers;
+    @Autowired
+    private GameShards gameShards;
+    @Autowired
+    private GameLog gameLog;
+
+    private final Map<String, Game> games = new ConcurrentHashMap<>();
+    private final Set<String> dirtyGameIds = ConcurrentHashMap.newKeySet();
+    // In-memory side of Player.activeGameId, lets a matchmaking poll find the player's game without a query
+    private final Map<String, String> gameIdsByPlayerId = new ConcurrentHashMap<>();
+
+    // The tracked instance, only the game's mailbox may read or change it. Anything else reads a snapshot
+    public Optional<Game> get(String gameId) {
+        return Optional.ofNullable(games.get(gameId));
+    }
+
+    public Optional<Game> snapshot(String gameId) {
+        return get(gameId).map(this::snapshot);
+    }
+
+    // Copy of a tracked game taken in its mailbox, so it is never halfway through a move
+    public Game snapshot(Game game) {
+        return gameMailboxes.call(game.getId(), () -> copyOf(game));
+    }
+
+    // Snapshot completing once the game's mailbox gets to it, the caller does not wait behind queued moves
+    public Optional<CompletableFuture<Game>> snapshotAsync(String gameId) {
+        return get(gameId).map(game -> gameMailboxes.submit(gameId, () -> copyOf(game)));
+    }
+
+    public Optional<String> findGameIdByPlayerId(String playerId) {
+        return Optional.ofNullable(gameIdsByPlayerId.get(playerId));
+    }
+
+    public boolean contains(String gameId) {
+        return games.containsKey(gameId);
+    }
+
+    public int size() {
+        return games.size();
+    }
+
+    // Starts tracking a persisted game and returns the tracked instance, which is never
+    // attached to a persistence context. The game's players must already be loaded, see Game.WITH_PLAYERS
+    public Game track(Game game) {
+        boolean[] added = {false};
+        Game tracked = games.computeIfAbsent(game.getId(), id -> {
+            added[0] = true;
+            return copyOf(game);
+        });
+        // Only a game that was not tracked yet is armed here, later moves re-arm it through markDirty
+        if (added[0] && tracked.getStatus() == Game.GameStatus.IN_PROGRESS) {
+            inactivityTimers.arm(tracked.getId(), tracked.getLastUpdated());
+            tracked.getPlayers().forEach(player -> gameIdsByPlayerId.put(player.getId(), tracked.getId()));
+        }
+        return tracked;
+    }
+
+    // Starts tracking a game in progress read from its row, which is behind by every move since the game
+    // started. A game whose log shows it ended is marked dirty, so the next flush writes its final state
+    public Game trackPersisted(Game game) {
+        Game tracked = track(gameLog.catchUp(copyOf(game)));
+        if (tracked.getStatus() != Game.GameStatus.IN_PROGRESS) {
+            markDirty(tracked);
+        }
+        return tracked;
+    }
+
+    // Must run in the game's mailbox. Moves are in the game log already, only an ended game needs its row written
+    public void markDirty(Game game) {
+        if (game.getStatus() == Game.GameStatus.IN_PROGRESS) {
+            inactivityTimers.arm(game.getId(), game.getLastUpdated());
+        } else {
+            dirtyGameIds.add(game.getId());
+            inactivityTimers.cancel(game.getId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${game.store.flush-interval-ms:500}")
+    @Transactional
+    public int flush() {
+        if (dirtyGameIds.isEmpty()) {
+            return 0;
+        }
+        // Snapshots are taken inside each game's mailbox so they never see a half-applied move
+        List<CompletableFuture<Game>> pendingSnapshots = new ArrayList<>(dirtyGameIds.size());
+        for (String gameId : List.copyOf(dirtyGameIds)) {
+            dirtyGameIds.remove(gameId);
+            Game game = games.get(gameId);
+            if (game != null) {
+                pendingSnapshots.add(gameMailboxes.submit(gameId, () -> copyOf(game)));
+            }
+        }
+        List<Game> snapshots = pendingSnapshots.stream().map(CompletableFuture::join).toList();
+        try {
+            for (Game snapshot : snapshots) {
+                gameRepository.updateState(
+                        snapshot.getId(),
+                        snapshot.getCurrentNumber(),
+                        snapshot.getCurrentPlayer(),
+                        snapshot.getStatus(),
+                        snapshot.getLastUpdated(),
+                        snapshot.getWinner());
+            }
+            List<String> completedGameIds = snapshots.stream()
+                    .filter(snapshot -> snapshot.getStatus() == Game.GameStatus.COMPLETED)
+                    .map(Game::getId)
+                    .toList();
+            if (!completedGameIds.isEmpty()) {
+                playerRepository.clearActiveGameIdByGameIdIn(completedGameIds);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to flush {} games, retrying on next flush: {}", snapshots.size(), e.getMessage());
+            snapshots.forEach(snapshot -> dirtyGameIds.add(snapshot.getId()));
+            throw e;
+        }
+        // Completed games are no longer active once their final state is written
+        for (Game snapshot : snapshots) {
+            if (snapshot.getStatus() == Game.GameStatus.COMPLETED && !dirtyGameIds.contains(snapshot.getId())) {
+                games.remove(snapshot.getId());
+                snapshot.getPlayers().forEach(player -> gameIdsByPlayerId.remove(player.getId(), snapshot.getId()));
+            }
+        }
+        log.debug("Flushed {} games, {} games active", snapshots.size(), games.size());
+        return snapshots.size();
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    @Transactional
+    public void flushOnShutdown() {
+        log.info("Flushed {} games before shutdown", flush());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void restore() {
+        restore(gameShards::isLocal, "owned by this node");
+    }
+
+    // Games of shards owned by other nodes are restored there
+    @Transactional(readOnly = true)
+    public void restore(Set<Integer> shards) {
+        restore(gameId -> shards.contains(gameShards.shardOf(gameId)), "of shards " + shards);
+    }
+
+    private void restore(Predicate<String> restored, String description) {
+        List<Game> inProgressGames = gameRepository.findWithPlayersByStatus(Game.GameStatus.IN_PROGRESS).stream()
+                .filter(game -> restored.test(game.getId()))
+                .toList();
+        inProgressGames.forEach(this::trackPersisted);
+        log.info("Restored {} games in progress {} into the active game store", inProgressGames.size(), description);
+    }
+
+    // Stops tracking the games of shards another node took over, without writing them. Changes since
+    // the last flush are lost, the same as if this node had crashed
+    public void forget(Set<Integer> shards) {
+        Predicate<String> ofShards = gameId -> shards.contains(gameShards.shardOf(gameId));
+        int forgotten = 0;
+        for (Game game : List.copyOf(games.values())) {
+            if (!ofShards.test(game.getId())) {
+                continue;
+            }
+            games.remove(game.getId());
+            dirtyGameIds.remove(game.getId());
+            inactivityTimers.cancel(game.getId());
+            game.getPlayers().forEach(player -> gameIdsByPlayerId.remove(player.getId(), game.getId()));
+            forgotten++;
+        }
+        gameLog.forget(ofShards);
+        log.info("Forgot {} games of shards {}", forgotten, shards);
+    }
+
+    // Detached copy of the game's current state, later moves don't change it
+    static Game copyOf(Game game) {
+        Game copy = new Game();
+        copy.setId(game.getId());
+        copy.setPlayers(game.getPlayers() != null ? new ArrayList<>(game.getPlayers()) : null);
+        copy.setCurrentPlayer(game.getCurrentPlayer());
+        copy.setCurrentNumber(game.getCurrentNumber());
+        copy.setStatus(game.getStatus());
+        copy.setLastUpdated(game.getLastUpdated());
+        copy.setWinner(game.getWinner());
+        copy.setPersisted(game.isPersisted());
+        return copy;
+    }
+}
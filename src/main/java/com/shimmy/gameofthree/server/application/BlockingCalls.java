@@ -0,0 +1,53 @@
+package com.shimmy.gameofthree.server.application;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+// Runs blocking calls, in practice JDBC, on virtual threads for async endpoints, so waiting on the
+// database never holds a request thread. There is no non-blocking driver for SQLite to use instead.
+// At most game.api.max-blocking-calls run at once, the rest queue in arrival order instead of all
+// competing for the connection pool and the CPU.
+@Component
+public class BlockingCalls implements DisposableBean {
+    @Value("${game.api.max-blocking-calls:64}")
+    private int maxBlockingCalls;
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("blocking-call-", 0).factory());
+    private Semaphore permits;
+
+    @PostConstruct
+    void init() {
+        permits = new Semaphore(maxBlockingCalls, true);
+    }
+
+    public <T> CompletableFuture<T> supply(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            try {
+                return call.get();
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    @Override
+    public void destroy() {
+        executor.close();
+    }
+}
@@ -0,0 +1,42 @@
+package com.shimmy.gameofthree.server.application;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+
+// Read-through caches configured through spring.cache.*, spring.cache.type=none turns them off. They hold
+// immutable snapshots, never entities
+public final class Caches {
+    public static final String PLAYERS = "players";
+    // Only completed games, games in progress are served by the ActiveGameStore
+    public static final String GAMES = "games";
+
+    private Caches() {
+    }
+
+    // Null on a miss or when the cache is turned off
+    static <T> T get(CacheManager cacheManager, String cacheName, Object key, Class<T> type) {
+        Cache cache = cacheManager.getCache(cacheName);
+        return cache != null ? cache.get(key, type) : null;
+    }
+
+    // Values must be immutable, every caller that hits them shares the instance
+    static void put(CacheManager cacheManager, String cacheName, Object key, Object value) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.put(key, value);
+        }
+    }
+
+    // Runs once the surrounding transaction committed, evicting earlier would let a concurrent read cache the
+    // old row again before the change is visible
+    static void evict(CacheManager cacheManager, String cacheName, Collection<?> keys) {
+        TransactionCallbacks.afterCommit(() -> {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                keys.forEach(cache::evict);
+            }
+        });
+    }
+}
@@ -0,0 +1,86 @@
+package com.shimmy.gameofthree.server.application;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+
+// Runs matchmaking on a dedicated thread whenever a player joins the queue,
+// instead of waiting for the next scheduled tick.
+@Slf4j
+@Component
+public class EventDrivenMatchmaker implements SmartLifecycle {
+    @Autowired
+    private MatchmakingQueue matchmakingQueue;
+    @Autowired
+    private GameService gameService;
+
+    @Value("${game.matchmaking.mode:both}")
+    private MatchmakingMode matchmakingMode;
+
+    private final Semaphore signal = new Semaphore(0);
+    private volatile Thread worker;
+
+    @Override
+    public void start() {
+        if (!matchmakingMode.isEventDriven()) {
+            log.info("Event-driven matchmaking disabled, mode: {}", matchmakingMode);
+            return;
+        }
+        matchmakingQueue.addEnqueueListener(this::signal);
+        worker = Thread.ofPlatform().name("matchmaker").daemon().unstarted(this::run);
+        worker.start();
+        log.info("Event-driven matchmaking started, mode: {}", matchmakingMode);
+    }
+
+    @Override
+    public void stop() {
+        Thread current = worker;
+        worker = null;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return worker != null;
+    }
+
+    void signal() {
+        if (signal.availablePermits() == 0) {
+            signal.release();
+        }
+    }
+
+    private void run() {
+        while (worker == Thread.currentThread()) {
+            try {
+                signal.acquire();
+                signal.drainPermits();
+                matchQueuedPlayers();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Event-driven matchmaking failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void matchQueuedPlayers() {
+        int queued = matchmakingQueue.size();
+        while (queued >= 2) {
+            gameService.gameMatchmaking();
+            int remaining = matchmakingQueue.size();
+            if (remaining >= queued) {
+                // No progress, e.g. queued players were deleted; wait for the next signal
+                return;
+            }
+            queued = remaining;
+        }
+    }
+}
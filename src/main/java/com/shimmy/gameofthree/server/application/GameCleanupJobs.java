@@ -0,0 +1,148 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.domain.Game;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+// Housekeeping jobs, kept out of GameService so they never run inside a request's transaction.
+// Work is done in chunks of game.cleanup.batch-size, each chunk in its own short transaction.
+@Slf4j
+@Component
+public class GameCleanupJobs {
+    static final String COMPLETED_GAMES_LEASE = "cleanup-completed-games";
+
+    @Autowired
+    private GameRepository gameRepository;
+    @Autowired
+    private GameService gameService;
+    @Autowired
+    private ActiveGameStore activeGameStore;
+    @Autowired
+    private InactivityTimers inactivityTimers;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private Leases leases;
+
+    @Value("${game.cleanup.batch-size:500}")
+    private int batchSize;
+
+    private Counter completedGamesDeleted;
+    private Counter inactiveGamesEnded;
+    private Timer completedGamesDuration;
+    private Timer inactiveGamesDuration;
+
+    @PostConstruct
+    void init() {
+        registerMetrics();
+        inactivityTimers.addExpiryListener(this::completeInactiveGames);
+    }
+
+    void registerMetrics() {
+        completedGamesDeleted = Counter.builder("game.cleanup.rows")
+                .description("Games processed by the cleanup jobs")
+                .tag("job", "completed")
+                .register(meterRegistry);
+        inactiveGamesEnded = Counter.builder("game.cleanup.rows")
+                .description("Games processed by the cleanup jobs")
+                .tag("job", "inactive")
+                .register(meterRegistry);
+        completedGamesDuration = Timer.builder("game.cleanup.duration")
+                .description("Time taken by a cleanup job run")
+                .tag("job", "completed")
+                .register(meterRegistry);
+        inactiveGamesDuration = Timer.builder("game.cleanup.duration")
+                .description("Time taken by a cleanup job run")
+                .tag("job", "inactive")
+                .register(meterRegistry);
+    }
+
+    // Completed games of every shard are deleted by whichever node holds the lease. Inactive games need
+    // no lease, only the node owning a game tracks it and arms its timer
+    @Scheduled(fixedRate = 3600000) // runs every hour
+    void cleanUpCompletedGames() {
+        if (!leases.holds(COMPLETED_GAMES_LEASE)) {
+            log.debug("Cleanup of completed games runs on another node");
+            return;
+        }
+        log.info("Running cleanup for completed games");
+        int deleted = completedGamesDuration.record(this::deleteCompletedGames);
+        log.info("Cleanup of completed games finished, deleted {} games", deleted);
+    }
+
+    // Called by the InactivityTimers as soon as games pass their inactivity deadline
+    void completeInactiveGames(List<String> expiredGameIds) {
+        log.info("Ending {} inactive games", expiredGameIds.size());
+        int ended = inactiveGamesDuration.record(() -> endInactiveGames(expiredGameIds));
+        log.info("Ended {} inactive games", ended);
+    }
+
+    private int deleteCompletedGames() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int deleted = 0;
+        while (true) {
+            Integer chunk = transaction.execute(status -> {
+                List<String> gameIds = gameRepository.findIdsByStatus(
+                        Game.GameStatus.COMPLETED, PageRequest.of(0, batchSize));
+                if (gameIds.isEmpty()) {
+                    return 0;
+                }
+                int deletedGames = gameRepository.deleteByIdIn(gameIds);
+                Caches.evict(cacheManager, Caches.GAMES, gameIds);
+                return deletedGames;
+            });
+            if (chunk == null || chunk == 0) {
+                return deleted;
+            }
+            deleted += chunk;
+            completedGamesDeleted.increment(chunk);
+            log.debug("Deleted {} completed games", chunk);
+            if (chunk < batchSize) {
+                return deleted;
+            }
+        }
+    }
+
+    // Games in progress all live in the ActiveGameStore, so ending them needs no query; the
+    // write-behind flush persists the ended games together
+    private int endInactiveGames(List<String> expiredGameIds) {
+        Map<Duration, List<Game>> gamesByTimeout = expiredGameIds.stream()
+                .map(activeGameStore::get)
+                .flatMap(Optional::stream)
+                .collect(Collectors.groupingBy(game -> inactivityTimers.timeoutFor(game.getId())));
+        int ended = 0;
+        for (Map.Entry<Duration, List<Game>> entry : gamesByTimeout.entrySet()) {
+            Instant threshold = Instant.now().minus(entry.getKey());
+            List<Game> games = entry.getValue();
+            for (int from = 0; from < games.size(); from += batchSize) {
+                List<Game> chunk = games.subList(from, Math.min(from + batchSize, games.size()));
+                int chunkEnded = gameService.endInactiveGames(chunk, threshold);
+                ended += chunkEnded;
+                inactiveGamesEnded.increment(chunkEnded);
+            }
+        }
+        return ended;
+    }
+}
@@ -0,0 +1,40 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.domain.OutboxEvent;
+import com.shimmy.gameofthree.server.domain.event.GameEvent;
+import com.shimmy.gameofthree.server.domain.event.GameEventCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// Events are stored with the state change that caused them and only published by the OutboxRelay
+// once that change is committed, so a rolled back transaction never leaks an event
+@Component
+public class GameEventOutbox {
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(List<? extends GameEvent<?>> events) {
+        Instant now = Instant.now();
+        List<OutboxEvent> outboxEvents = new ArrayList<>(events.size());
+        for (GameEvent<?> event : events) {
+            outboxEvents.add(new OutboxEvent(event.getId(), event.getGameId(), event.getType(),
+                    GameEventCodec.encode(event), now));
+        }
+        outboxEventRepository.saveAll(outboxEvents);
+    }
+
+    GameEvent<?> toGameEvent(OutboxEvent outboxEvent) {
+        try {
+            return GameEventCodec.decode(outboxEvent.getPayload());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Unreadable outbox event " + outboxEvent.getEventId(), e);
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.domain.Game;
+import com.shimmy.gameofthree.server.domain.GameLogEntry;
+import com.shimmy.gameofthree.server.domain.GameLogState;
+import com.shimmy.gameofthree.server.domain.GameSnapshot;
+import com.shimmy.gameofthree.server.domain.Player;
+import com.shimmy.gameofthree.server.domain.event.GameEvent;
+import com.shimmy.gameofthree.server.domain.event.GameEventCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+// Append-only history of every game: its matchmaking, each accepted move and how it ended. Entries
+// are buffered and inserted in batches like the ActiveGameStore flush, a move never waits on the
+// database. Every game.log.snapshot-interval entries, and when the game ends, a snapshot of its
+// state is stored too, so replaying a game only reads the entries after its latest snapshot. The log is
+// where moves are persisted, the game row is only written when a game starts and when it ends.
+@Slf4j
+@Component
+public class GameLog {
+    @Autowired
+    private GameLogEntryRepository gameLogEntryRepository;
+    @Autowired
+    private GameSnapshotRepository gameSnapshotRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${game.log.snapshot-interval:20}")
+    private int snapshotInterval;
+    @Value("${game.log.rebuild-batch-size:500}")
+    private int rebuildBatchSize;
+
+    // Last sequence of each game still in progress
+    private final Map<String, Long> lastSequences = new ConcurrentHashMap<>();
+    private final Queue<GameLogEntry> pendingEntries = new ConcurrentLinkedQueue<>();
+    private final Queue<GameSnapshot> pendingSnapshots = new ConcurrentLinkedQueue<>();
+
+    private Counter appended;
+    private Counter snapshotsTaken;
+
+    @PostConstruct
+    void registerMetrics() {
+        appended = Counter.builder("game.log.appended")
+                .description("Events appended to the game log")
+                .register(meterRegistry);
+        snapshotsTaken = Counter.builder("game.log.snapshots")
+                .description("Game snapshots taken")
+                .register(meterRegistry);
+        Gauge.builder("game.log.pending", pendingEntries, Queue::size)
+                .description("Game log entries waiting for the next flush")
+                .register(meterRegistry);
+    }
+
+    // First entry of a game that was just created, there is nothing logged yet to continue from
+    public void start(Game game, Object event) {
+        lastSequences.put(game.getId(), 0L);
+        append(game, event);
+    }
+
+    // Must run in the game's mailbox, the game must already be in the state the event leads to
+    public void append(Game game, Object event) {
+        String gameId = game.getId();
+        // Only a game restored or taken over since its last entry has to look its sequence up, the mailbox
+        // makes this the only writer of the game's sequence
+        if (!lastSequences.containsKey(gameId)) {
+            lastSequences.put(gameId, lastPersistedSequence(gameId));
+        }
+        long sequence = lastSequences.merge(gameId, 1L, Long::sum);
+        // The game id is the row's own column, the envelope only needs the payload
+        byte[] payload = GameEventCodec.encode(new GameEvent<>(null, null, null, event));
+        pendingEntries.add(new GameLogEntry(gameId, sequence, payload, game.getLastUpdated()));
+        appended.increment();
+
+        boolean ended = game.getStatus() == Game.GameStatus.COMPLETED;
+        if (ended || sequence % snapshotInterval == 0) {
+            pendingSnapshots.add(GameSnapshot.of(game, sequence));
+            snapshotsTaken.increment();
+        }
+        if (ended) {
+            lastSequences.remove(gameId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${game.log.flush-interval-ms:200}")
+    public int flush() {
+        List<GameLogEntry> entries = drain(pendingEntries);
+        List<GameSnapshot> snapshots = drain(pendingSnapshots);
+        if (entries.isEmpty() && snapshots.isEmpty()) {
+            return 0;
+        }
+        try {
+            save(entries, snapshots);
+        } catch (DataIntegrityViolationException e) {
+            // Another node continued a game this one kept writing after losing its shard, only that game's
+            // entries conflict, the others are saved on their own
+            return flushEachGame(entries, snapshots);
+        } catch (RuntimeException e) {
+            log.error("Failed to flush {} game log entries, retrying on next flush: {}", entries.size(), e.getMessage());
+            pendingEntries.addAll(entries);
+            pendingSnapshots.addAll(snapshots);
+            throw e;
+        }
+        log.debug("Flushed {} game log entries and {} snapshots", entries.size(), snapshots.size());
+        return entries.size();
+    }
+
+    private int flushEachGame(List<GameLogEntry> entries, List<GameSnapshot> snapshots) {
+        Map<String, List<GameLogEntry>> entriesByGame = entries.stream()
+                .collect(Collectors.groupingBy(GameLogEntry::getGameId, LinkedHashMap::new, Collectors.toList()));
+        Map<String, List<GameSnapshot>> snapshotsByGame = snapshots.stream()
+                .collect(Collectors.groupingBy(GameSnapshot::getGameId, LinkedHashMap::new, Collectors.toList()));
+        Set<String> gameIds = new LinkedHashSet<>(entriesByGame.keySet());
+        gameIds.addAll(snapshotsByGame.keySet());
+
+        int flushed = 0;
+        Iterator<String> remaining = gameIds.iterator();
+        while (remaining.hasNext()) {
+            String gameId = remaining.next();
+            List<GameLogEntry> gameEntries = entriesByGame.getOrDefault(gameId, List.of());
+            List<GameSnapshot> gameSnapshots = snapshotsByGame.getOrDefault(gameId, List.of());
+            try {
+                save(gameEntries, gameSnapshots);
+                flushed += gameEntries.size();
+            } catch (DataIntegrityViolationException e) {
+                // The new owner's entries are the game's history, retrying these would fail forever
+                log.warn("Dropped {} game log entries of game {}, another node continued its log", gameEntries.size(), gameId);
+                lastSequences.remove(gameId);
+            } catch (RuntimeException e) {
+                log.error("Failed to flush game log entries of game {}, retrying on next flush: {}", gameId, e.getMessage());
+                pendingEntries.addAll(gameEntries);
+                pendingSnapshots.addAll(gameSnapshots);
+                remaining.forEachRemaining(unsaved -> {
+                    pendingEntries.addAll(entriesByGame.getOrDefault(unsaved, List.of()));
+                    pendingSnapshots.addAll(snapshotsByGame.getOrDefault(unsaved, List.of()));
+                });
+                throw e;
+            }
+        }
+        log.debug("Flushed {} game log entries of {} games one game at a time", flushed, gameIds.size());
+        return flushed;
+    }
+
+    private void save(List<GameLogEntry> entries, List<GameSnapshot> snapshots) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            gameLogEntryRepository.saveAll(entries);
+            gameSnapshotRepository.saveAll(snapshots);
+        });
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void flushOnShutdown() {
+        log.info("Flushed {} game log entries before shutdown", flush());
+    }
+
+    // Latest snapshot plus the entries after it, empty when the game was never logged
+    public Optional<GameLogState> replay(String gameId) {
+        flush();
+        return readOnly().execute(status -> read(gameId));
+    }
+
+    // Brings a game read from its row up to the state its log leads to and returns it. Entries still
+    // buffered are not flushed, on the node that buffered them the game is active and never read from its row
+    public Game catchUp(Game game) {
+        readOnly().execute(status -> read(game.getId())).ifPresent(state -> {
+            game.setCurrentNumber(state.getCurrentNumber());
+            game.setCurrentPlayer(playerOf(game, state.getCurrentPlayerId()));
+            game.setStatus(state.getStatus());
+            game.setWinner(playerOf(game, state.getWinnerId()));
+            game.setLastUpdated(state.getLastUpdated());
+        });
+        return game;
+    }
+
+    // Drops the sequences of games this node stopped owning, their new owner continues the log. Covers games
+    // logged here but no longer tracked, their next entry here would otherwise reuse a stale sequence
+    public void forget(Predicate<String> gameIds) {
+        lastSequences.keySet().removeIf(gameIds);
+    }
+
+    // Replays the whole log, ignoring the snapshots, and replaces them with one of the rebuilt state
+    public Optional<GameLogState> rebuild(String gameId) {
+        flush();
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            GameLogState state = applyTail(GameLogState.empty(gameId));
+            if (state.getSequence() == 0) {
+                return Optional.<GameLogState>empty();
+            }
+            gameSnapshotRepository.deleteByGameId(gameId);
+            gameSnapshotRepository.save(GameSnapshot.of(state));
+            return Optional.of(state);
+        });
+    }
+
+    // Rebuilds every logged game, each in its own transaction, and returns how many were rebuilt
+    public int rebuildAll() {
+        int rebuilt = 0;
+        String after = "";
+        while (true) {
+            String from = after;
+            List<String> gameIds = readOnly().execute(
+                    status -> gameLogEntryRepository.findGameIdsAfter(from, Limit.of(rebuildBatchSize)));
+            if (gameIds == null || gameIds.isEmpty()) {
+                break;
+            }
+            for (String gameId : gameIds) {
+                if (rebuild(gameId).isPresent()) {
+                    rebuilt++;
+                }
+            }
+            after = gameIds.getLast();
+        }
+        log.info("Rebuilt {} games from the game log", rebuilt);
+        return rebuilt;
+    }
+
+    private Optional<GameLogState> read(String gameId) {
+        GameLogState state = gameSnapshotRepository.findFirstByGameIdOrderBySequenceDesc(gameId)
+                .map(GameSnapshot::toState)
+                .orElseGet(() -> GameLogState.empty(gameId));
+        return Optional.of(applyTail(state)).filter(replayed -> replayed.getSequence() > 0);
+    }
+
+    private GameLogState applyTail(GameLogState state) {
+        for (GameLogEntry entry : gameLogEntryRepository
+                .findByGameIdAndSequenceGreaterThanOrderBySequenceAsc(state.getGameId(), state.getSequence())) {
+            state = state.apply(entry.getSequence(), GameEventCodec.decode(entry.getPayload()).getData(), entry.getCreatedAt());
+        }
+        return state;
+    }
+
+    private long lastPersistedSequence(String gameId) {
+        Long last = gameLogEntryRepository.findMaxSequenceByGameId(gameId);
+        return last != null ? last : 0;
+    }
+
+    private static Player playerOf(Game game, String playerId) {
+        return playerId == null ? null : game.getPlayers().stream()
+                .filter(player -> player.getId().equals(playerId))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private TransactionTemplate readOnly() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction;
+    }
+
+    private static <T> List<T> drain(Queue<T> queue) {
+        List<T> drained = new ArrayList<>();
+        T next;
+        while ((next = queue.poll()) != null) {
+            drained.add(next);
+        }
+        return drained;
+    }
+}
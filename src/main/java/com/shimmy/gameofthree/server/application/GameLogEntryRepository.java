@@ -0,0 +1,24 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.domain.GameLogEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface GameLogEntryRepository extends CrudRepository<GameLogEntry, String> {
+
+    // The tail of a game's log, served by uk_game_log_game_sequence
+    List<GameLogEntry> findByGameIdAndSequenceGreaterThanOrderBySequenceAsc(String gameId, long sequence);
+
+    @Query("select max(e.sequence) from GameLogEntry e where e.gameId = :gameId")
+    Long findMaxSequenceByGameId(@Param("gameId") String gameId);
+
+    // Keyset pagination over every logged game, pass the last id of the previous page or "" for the first one
+    @Query("select distinct e.gameId from GameLogEntry e where e.gameId > :after order by e.gameId")
+    List<String> findGameIdsAfter(@Param("after") String after, Limit limit);
+}
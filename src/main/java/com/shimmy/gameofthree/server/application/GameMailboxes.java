@@ -0,0 +1,78 @@
+package com.shimmy.gameofthree.server.application;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+// Single-writer mailbox per game. Tasks for one game run strictly one after another in
+// submission order, tasks for different games run in parallel on virtual threads.
+@Component
+public class GameMailboxes implements DisposableBean {
+    private static final ThreadLocal<String> CURRENT_GAME = new ThreadLocal<>();
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    // Last task queued for each game; a game without pending tasks has no entry
+    private final Map<String, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+
+    public <T> CompletableFuture<T> submit(String gameId, Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        CompletableFuture<Void> tail = tails.compute(gameId, (id, previous) ->
+                (previous != null ? previous : CompletableFuture.<Void>completedFuture(null))
+                        .thenRunAsync(() -> runInMailbox(gameId, task, result), executor));
+        tail.whenComplete((ignored, error) -> tails.remove(gameId, tail));
+        return result;
+    }
+
+    // Runs the task in the game's mailbox and waits for its result, rethrowing its exception
+    public <T> T call(String gameId, Supplier<T> task) {
+        // Already running in this game's mailbox, queuing behind ourselves would never complete
+        if (gameId.equals(CURRENT_GAME.get())) {
+            return task.get();
+        }
+        try {
+            return submit(gameId, task).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public void run(String gameId, Runnable task) {
+        call(gameId, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public int activeMailboxes() {
+        return tails.size();
+    }
+
+    @Override
+    public void destroy() {
+        executor.close();
+    }
+
+    private static <T> void runInMailbox(String gameId, Supplier<T> task, CompletableFuture<T> result) {
+        CURRENT_GAME.set(gameId);
+        try {
+            result.complete(task.get());
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        } finally {
+            CURRENT_GAME.remove();
+        }
+    }
+}
@@ -1,7 +1,10 @@
-package com.shimmy.gameofthree.server.application;
-
-import com.shimmy.gameofthree.server.domain.event.GameEvent;
-
-public interface GamePublisher {
-    void emit(GameEvent event);
-}
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.domain.event.GameEvent;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface GamePublisher {
+    // Completes once the broker acknowledged the event, never blocks the caller
+    CompletableFuture<Void> emit(GameEvent event);
+}
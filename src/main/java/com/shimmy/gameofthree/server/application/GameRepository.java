@@ -1,20 +1,45 @@
-package com.shimmy.gameofthree.server.application;
-
-import com.shimmy.gameofthree.server.domain.Game;
-import com.shimmy.gameofthree.server.domain.Player;
-import org.springframework.data.repository.CrudRepository;
-import org.springframework.stereotype.Repository;
-
-import java.time.Instant;
-import java.util.List;
-import java.util.Optional;
-
-@Repository
-public interface GameRepository extends CrudRepository<Game, String> {
-
-    Optional<Game> findByPlayersContaining(Player player);
-
-    List<Game> findByStatus(Game.GameStatus gameStatus);
-
-    List<Game> findByLastUpdatedBefore(Instant threshold);
-}
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.domain.Game;
+import com.shimmy.gameofthree.server.domain.Player;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface GameRepository extends CrudRepository<Game, String> {
+
+    @EntityGraph(Game.WITH_PLAYERS)
+    Optional<Game> findWithPlayersById(String id);
+
+    @EntityGraph(Game.WITH_PLAYERS)
+    List<Game> findWithPlayersByStatus(Game.GameStatus gameStatus);
+
+    @Query("select g.id from Game g where g.status = :status")
+    List<String> findIdsByStatus(@Param("status") Game.GameStatus status, Pageable pageable);
+
+    // Hibernate also clears the game_players rows of the deleted games
+    @Modifying
+    @Query("delete from Game g where g.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<String> ids);
+
+    // Writes the mutable state of a game without touching its player list
+    @Modifying
+    @Query("update Game g set g.currentNumber = :currentNumber, g.currentPlayer = :currentPlayer, g.status = :status, "
+            + "g.lastUpdated = :lastUpdated, g.winner = :winner where g.id = :id")
+    int updateState(@Param("id") String id,
+                    @Param("currentNumber") int currentNumber,
+                    @Param("currentPlayer") Player currentPlayer,
+                    @Param("status") Game.GameStatus status,
+                    @Param("lastUpdated") Instant lastUpdated,
+                    @Param("winner") Player winner);
+}
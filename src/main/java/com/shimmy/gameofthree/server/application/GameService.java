@@ -1,263 +1,445 @@
-package com.shimmy.gameofthree.server.application;
-
-import com.shimmy.gameofthree.server.api.exception.GameNotFoundException;
-import com.shimmy.gameofthree.server.api.exception.InvalidGameStateException;
-import com.shimmy.gameofthree.server.api.exception.InvalidMoveException;
-import com.shimmy.gameofthree.server.domain.Game;
-import com.shimmy.gameofthree.server.domain.Player;
-import com.shimmy.gameofthree.server.domain.event.GameEvent;
-import com.shimmy.gameofthree.server.domain.event.GameMatchmakingEvent;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
-import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-
-import java.time.Instant;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
-
-@Slf4j
-@Service
-@Transactional
-public class GameService {
-    @Autowired
-    private GameRepository gameRepository;
-    @Autowired
-    private PlayerService playerService;
-    @Autowired
-    private GamePublisher gameEventPublisher;
-
-    Game createGame() {
-        log.info("Creating a new game");
-        Game game = new Game();
-        game = gameRepository.save(game);
-        log.info("Game created with ID: {}", game.getId());
-        return game;
-    }
-
-    void addPlayer(String gameId, String playerId) {
-        log.info("Adding player {} to game {}", playerId, gameId);
-        Game game = getGame(gameId);
-        Player player = playerService.getPlayer(playerId);
-
-        // Initialize players list if null
-        if (game.getPlayers() == null) {
-            game.setPlayers(new ArrayList<>());
-        }
-
-        if (game.getPlayers().contains(player)) {
-            log.info("Player {} is already in the game {}", playerId, gameId);
-            return;
-        }
-        game.getPlayers().add(player);
-        game = gameRepository.save(game);
-        log.info("Player {} added to game {}. Current players: {}", playerId, gameId, game.getPlayers());
-    }
-
-    public void startGame(String gameId) {
-        log.info("Starting game with ID: {}", gameId);
-        Game game = getGame(gameId);
-        if (game.getPlayers().size() < 2) {
-            log.error("Cannot start game {}: not enough players", gameId);
-            throw new InvalidGameStateException("Game cannot start with less than 2 players.");
-        }
-        game.setStatus(Game.GameStatus.IN_PROGRESS);
-        game.setLastUpdated(Instant.now());
-        game.setCurrentPlayer(game.getPlayers().get(new Random().nextInt(game.getPlayers().size())));
-        gameRepository.save(game);
-        log.info("Game {} started. Current player: {}", gameId, game.getCurrentPlayer());
-    }
-
-    void endGame(String gameId, String winnerId) {
-        log.info("Ending game with ID: {}. Winner: {}", gameId, winnerId);
-        Game game = getGame(gameId);
-        Player winner = playerService.getPlayer(winnerId);
-
-        if (game.getStatus() != Game.GameStatus.IN_PROGRESS) {
-            log.error("Game {} is not in progress. Current status: {}", game.getId(), game.getStatus());
-            throw new InvalidGameStateException("Game is not currently in progress.");
-        }
-        if (game.getPlayers() == null || !game.getPlayers().contains(winner)) {
-            log.error("Winner {} is not a player in game {}", winnerId, gameId);
-            throw new InvalidGameStateException("Winner must be a player in the game.");
-        }
-        game.setStatus(Game.GameStatus.COMPLETED);
-        game.setCurrentPlayer(null);
-        game.setWinner(winner);
-        gameRepository.save(game);
-        log.info("Game {} ended. Winner: {}. Current status: {}", gameId, winnerId, game.getStatus());
-    }
-
-    public void makeMove(String gameId, String playerId, int move) {
-        log.info("Player {} making move: {} in game {}", playerId, move, gameId);
-
-        Game game = getGame(gameId);
-        Player player = playerService.getPlayer(playerId);
-
-        if (game.getStatus() != Game.GameStatus.IN_PROGRESS) {
-            log.error("Game {} is not in progress. Current status: {}", game.getId(), game.getStatus());
-            throw new InvalidGameStateException("Game is not currently in progress.");
-        }
-        if (!game.getCurrentPlayer().equals(player)) {
-            log.error("It's not player {}'s turn. Current player: {}", playerId, game.getCurrentPlayer());
-            throw new InvalidGameStateException("It's not your turn to play.");
-        }
-        if (move != 1 && move != 0 && move != -1) {
-            log.error("Invalid move: {}. Player {} can only move -1, 0, or 1.", move, playerId);
-            throw new InvalidMoveException("Invalid move. Player can only move -1, 0, or 1.");
-        }
-
-        // Calculate the number after adding the move
-        int numberAfterMove = game.getCurrentNumber() + move;
-
-        // Validate that the number is divisible by 3 after the move
-        if (numberAfterMove % 3 != 0) {
-            log.error("Invalid move: {}. Number {} + {} = {} is not divisible by 3.",
-                    move, game.getCurrentNumber(), move, numberAfterMove);
-            throw new InvalidMoveException("Move must result in a number divisible by 3.");
-        }
-
-        // Process the move: divide by 3
-        int newNumber = numberAfterMove / 3;
-        game.setCurrentNumber(newNumber);
-        game.setLastUpdated(Instant.now());
-
-        log.info("Move processed: {} + {} = {} ÷ 3 = {}",
-                game.getCurrentNumber() - newNumber * 3 + move, move, numberAfterMove, newNumber);
-
-        // Check if game is won (number reaches 1)
-        if (newNumber == 1) {
-            game.setStatus(Game.GameStatus.COMPLETED);
-            game.setCurrentPlayer(null);
-            gameRepository.save(game);
-
-            log.info("Game {} ended. Winner: {}. Final number: {}", gameId, playerId, newNumber);
-        } else {
-            // Switch to next player
-            game.setCurrentPlayer(
-                    game.getPlayers().stream()
-                            .filter(p -> !p.getId().equals(playerId))
-                            .findFirst()
-                            .orElseThrow(() -> new InvalidGameStateException("No other player found")));
-            game = gameRepository.save(game);
-            log.info("Move processed. New number: {}. Next turn: {}", newNumber, game.getCurrentPlayer().getName());
-        }
-    }
-
-    public Game getGameByPlayerId(String playerId) {
-        log.info("Fetching game state for player ID: {}", playerId);
-        Player player = playerService.getPlayer(playerId);
-        Game game = gameRepository.findByPlayersContaining(player)
-                .orElseThrow(() -> new GameNotFoundException("No game found for player ID: " + playerId));
-        if (game.getStatus() == Game.GameStatus.COMPLETED) {
-            return null; // Game is completed, return null
-        }
-
-        log.info("Game state for player {}: {}", playerId, game);
-        return game;
-    }
-
-    public Game getGame(String gameId) {
-        log.info("Fetching game by ID: {}", gameId);
-        Game game = gameRepository.findById(gameId)
-                .orElseThrow(() -> new GameNotFoundException("Game not found with ID: " + gameId));
-        log.info("Game found: {}", game);
-        return game;
-    }
-
-    @Scheduled(fixedRate = 5000) // Runs every five seconds
-    public void gameMatchmaking() {
-        List<Player> playersLookingForGame = playerService.getPlayersLookingForGame();
-        log.info("Found {} players looking for a game", playersLookingForGame.size());
-        if (playersLookingForGame.size() < 2) {
-            log.info("Not enough players for matchmaking. Current count: {}", playersLookingForGame.size());
-            return;
-        }
-
-        // Create game and set up initial state
-        Game game = createGame();
-        Player player1 = playersLookingForGame.get(0);
-        Player player2 = playersLookingForGame.get(1);
-
-        // Set up game state
-        game.setPlayers(List.of(player1, player2));
-        game.setStatus(Game.GameStatus.IN_PROGRESS);
-        Player currentPlayer = playersLookingForGame.get(new Random().nextInt(2));
-        game.setCurrentPlayer(currentPlayer);
-        int initialNumber = new Random().nextInt(91) + 10; // Random number between 10-100
-        game.setCurrentNumber(initialNumber);
-        game.setLastUpdated(Instant.now());
-
-        // Save game state
-        gameRepository.save(game);
-
-        // Emit matchmaking event
-       GameMatchmakingEvent gameMatchmakingEvent = new GameMatchmakingEvent(
-               game.getId(),
-               player1.getId(),
-               player2.getId(),
-               initialNumber,
-               currentPlayer.getId()
-       );
-        gameEventPublisher.emit(new GameEvent<>(
-                java.util.UUID.randomUUID().toString(),
-                game.getId(),
-                GameMatchmakingEvent.class.getSimpleName(),
-                gameMatchmakingEvent
-        ));
-
-        // Update players' status
-        player1.setIsLookingForGame(false);
-        player2.setIsLookingForGame(false);
-        playerService.updatePlayer(player1);
-        playerService.updatePlayer(player2);
-
-        log.info("Game {} created and started between players {} and {}",
-                game.getId(), player1.getName(), player2.getName());
-    }
-
-    @Scheduled(fixedRate = 3600000) // runs every hour
-    void cleanUpCompletedGames() {
-        log.info("Running cleanup for completed games");
-        List<Game> completedGames = gameRepository.findByStatus(Game.GameStatus.COMPLETED);
-        log.info("Found {} completed games to clean up", completedGames.size());
-        for (Game game : completedGames) {
-            log.info("Deleting completed game with ID: {}", game.getId());
-            gameRepository.delete(game);
-        }
-        log.info("Cleanup of completed games finished");
-    }
-
-    @Scheduled(fixedRate = 10000)
-    void completeInactiveGames() {
-        log.info("Running cleanup for inactive games");
-        Instant threshold = Instant.now().minusSeconds(60); // Games inactive for more than 60 seconds
-        List<Game> inactiveGames = gameRepository.findByLastUpdatedBefore(threshold);
-        log.info("Found {} inactive games to delete", inactiveGames.size());
-        for (Game game : inactiveGames) {
-            log.info("Ending inactive game with ID: {}", game.getId());
-            Player winner = game.getPlayers().stream()
-                    .filter(p -> !p.getId().equals(game.getCurrentPlayer().getId()))
-                    .findFirst()
-                    .orElseThrow(() -> new InvalidGameStateException("No other player found"));
-            endGame(game.getId(), winner.getId());
-        }
-        log.info("Cleanup of inactive games finished");
-    }
-
-    void deleteGame(String gameId) {
-        log.info("Deleting game with ID: {}", gameId);
-        Game game = gameRepository.findById(gameId)
-                .orElseThrow(() -> new GameNotFoundException("Game not found"));
-
-        if (game.getStatus() == Game.GameStatus.IN_PROGRESS) {
-            log.error("Cannot delete game {}: it is currently in progress", gameId);
-            throw new InvalidGameStateException("Cannot delete a game that is in progress.");
-        }
-
-        gameRepository.delete(game);
-        log.info("Game {} deleted successfully", gameId);
-    }
-}
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.api.exception.GameNotFoundException;
+import com.shimmy.gameofthree.server.api.exception.InvalidGameStateException;
+import com.shimmy.gameofthree.server.api.exception.InvalidMoveException;
+import com.shimmy.gameofthree.server.domain.CompletedGame;
+import com.shimmy.gameofthree.server.domain.Game;
+import com.shimmy.gameofthree.server.domain.MoveResult;
+import com.shimmy.gameofthree.server.domain.Player;
+import com.shimmy.gameofthree.server.domain.event.ClientMoveEvent;
+import com.shimmy.gameofthree.server.domain.event.GameEndedEvent;
+import com.shimmy.gameofthree.server.domain.event.GameEvent;
+import com.shimmy.gameofthree.server.domain.event.GameMatchmakingEvent;
+import com.shimmy.gameofthree.server.domain.event.GameStateChangedEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+// Moves and the other tasks run in a game's mailbox run on its thread, outside any transaction. They only change
+// the tracked game, the ActiveGameStore writes it behind in a transaction of its own
+@Slf4j
+@Service
+public class GameService {
+    @Autowired
+    private GameRepository gameRepository;
+    @Autowired
+    private PlayerService playerService;
+    @Autowired
+    private GameEventOutbox gameEventOutbox;
+    @Autowired
+    private GameStateNotifier gameStateNotifier;
+    @Autowired
+    private ActiveGameStore activeGameStore;
+    @Autowired
+    private GameMailboxes gameMailboxes;
+    @Autowired
+    private GameLog gameLog;
+    @Autowired
+    private GameShards gameShards;
+    @Autowired
+    private BlockingCalls blockingCalls;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Value("${game.matchmaking.max-games-per-tick:500}")
+    private int maxGamesPerTick;
+    @Value("${game.matchmaking.mode:both}")
+    private MatchmakingMode matchmakingMode;
+
+    private DistributionSummary gamesPerTick;
+
+    @PostConstruct
+    void registerMetrics() {
+        gamesPerTick = DistributionSummary.builder("matchmaking.games.per.tick")
+                .description("Games created by a single matchmaking run")
+                .register(meterRegistry);
+    }
+
+    @Transactional
+    Game createGame() {
+        log.info("Creating a new game");
+        Game game = new Game();
+        game.setId(gameShards.newLocalId());
+        game = gameRepository.save(game);
+        log.info("Game created with ID: {}", game.getId());
+        return game;
+    }
+
+    @Transactional
+    void addPlayer(String gameId, String playerId) {
+        log.info("Adding player {} to game {}", playerId, gameId);
+        Game game = loadGame(gameId);
+        Player player = playerService.getPlayer(playerId);
+
+        // Initialize players list if null
+        if (game.getPlayers() == null) {
+            game.setPlayers(new ArrayList<>());
+        }
+
+        if (game.getPlayers().contains(player)) {
+            log.info("Player {} is already in the game {}", playerId, gameId);
+            return;
+        }
+        game.getPlayers().add(player);
+        game = gameRepository.save(game);
+        log.info("Player {} added to game {}. Current players: {}", playerId, gameId, game.getPlayers());
+    }
+
+    @Transactional
+    public void startGame(String gameId) {
+        log.info("Starting game with ID: {}", gameId);
+        Game game = loadGame(gameId);
+        if (game.getPlayers().size() < 2) {
+            log.error("Cannot start game {}: not enough players", gameId);
+            throw new InvalidGameStateException("Game cannot start with less than 2 players.");
+        }
+        game.setStatus(Game.GameStatus.IN_PROGRESS);
+        game.setLastUpdated(Instant.now());
+        game.setCurrentPlayer(game.getPlayers().get(new Random().nextInt(game.getPlayers().size())));
+        saveGame(game);
+        playerService.setActiveGame(game.getPlayers().stream().map(Player::getId).toList(), gameId);
+        GameMatchmakingEvent started = new GameMatchmakingEvent(gameId, game.getPlayers().get(0).getId(),
+                game.getPlayers().get(1).getId(), game.getCurrentNumber(), game.getCurrentPlayer().getId());
+        TransactionCallbacks.afterCommit(() -> startLog(game, started));
+        log.info("Game {} started. Current player: {}", gameId, game.getCurrentPlayer());
+    }
+
+    @Transactional
+    void endGame(String gameId, String winnerId) {
+        log.info("Ending game with ID: {}. Winner: {}", gameId, winnerId);
+        Game game = loadGame(gameId);
+        Player winner = playerService.getPlayer(winnerId);
+
+        gameMailboxes.run(gameId, () -> finishGame(game, winner));
+        log.info("Game {} ended. Winner: {}. Current status: {}", gameId, winnerId, game.getStatus());
+    }
+
+    // Active games live in the ActiveGameStore, so a move normally touches no database at all.
+    // Moves on one game are serialized through its mailbox instead of locking the game.
+    // Returns the state this move left the game in, so callers need not read the game again
+    public MoveResult makeMove(String gameId, String playerId, int move) {
+        log.info("Player {} making move: {} in game {}", playerId, move, gameId);
+
+        Game game = loadGame(gameId);
+        return gameMailboxes.call(gameId, () -> applyMove(game, playerId, move));
+    }
+
+    // Same as makeMove without blocking the caller, only a game that is not active yet is loaded on a blocking call
+    public CompletableFuture<MoveResult> makeMoveAsync(String gameId, String playerId, int move) {
+        log.info("Player {} making move: {} in game {}", playerId, move, gameId);
+
+        CompletableFuture<Game> game = activeGameStore.get(gameId)
+                .map(CompletableFuture::completedFuture)
+                .orElseGet(() -> blockingCalls.supply(() -> loadGame(gameId)));
+        return game.thenCompose(loaded -> gameMailboxes.submit(gameId, () -> applyMove(loaded, playerId, move)));
+    }
+
+    // Must run in the game's mailbox
+    private void finishGame(Game game, Player winner) {
+        if (game.getStatus() != Game.GameStatus.IN_PROGRESS) {
+            log.error("Game {} is not in progress. Current status: {}", game.getId(), game.getStatus());
+            throw new InvalidGameStateException("Game is not currently in progress.");
+        }
+        if (game.getPlayers() == null || !game.getPlayers().contains(winner)) {
+            log.error("Winner {} is not a player in game {}", winner.getId(), game.getId());
+            throw new InvalidGameStateException("Winner must be a player in the game.");
+        }
+        game.setStatus(Game.GameStatus.COMPLETED);
+        game.setCurrentPlayer(null);
+        game.setWinner(winner);
+        saveGame(game);
+        gameLog.append(game, new GameEndedEvent(game.getId(), winner.getId()));
+        notifyPlayers(game);
+    }
+
+    // Must run in the game's mailbox
+    private MoveResult applyMove(Game game, String playerId, int move) {
+        if (game.getStatus() != Game.GameStatus.IN_PROGRESS) {
+            log.error("Game {} is not in progress. Current status: {}", game.getId(), game.getStatus());
+            throw new InvalidGameStateException("Game is not currently in progress.");
+        }
+        if (game.getCurrentPlayer() == null || !game.getCurrentPlayer().getId().equals(playerId)) {
+            log.error("It's not player {}'s turn. Current player: {}", playerId, game.getCurrentPlayer());
+            throw new InvalidGameStateException("It's not your turn to play.");
+        }
+        if (move != 1 && move != 0 && move != -1) {
+            log.error("Invalid move: {}. Player {} can only move -1, 0, or 1.", move, playerId);
+            throw new InvalidMoveException("Invalid move. Player can only move -1, 0, or 1.");
+        }
+
+        // Calculate the number after adding the move
+        int numberAfterMove = game.getCurrentNumber() + move;
+
+        // Validate that the number is divisible by 3 after the move
+        if (numberAfterMove % 3 != 0) {
+            log.error("Invalid move: {}. Number {} + {} = {} is not divisible by 3.",
+                    move, game.getCurrentNumber(), move, numberAfterMove);
+            throw new InvalidMoveException("Move must result in a number divisible by 3.");
+        }
+
+        // Process the move: divide by 3
+        int newNumber = numberAfterMove / 3;
+        game.setCurrentNumber(newNumber);
+        game.setLastUpdated(Instant.now());
+
+        log.info("Move processed: {} + {} = {} ÷ 3 = {}",
+                game.getCurrentNumber() - newNumber * 3 + move, move, numberAfterMove, newNumber);
+
+        // Check if game is won (number reaches 1)
+        if (newNumber == 1) {
+            game.setStatus(Game.GameStatus.COMPLETED);
+            game.setWinner(game.getCurrentPlayer());
+            game.setCurrentPlayer(null);
+            saveGame(game);
+            notifyPlayers(game);
+
+            log.info("Game {} ended. Winner: {}. Final number: {}", game.getId(), playerId, newNumber);
+        } else {
+            // Switch to next player
+            game.setCurrentPlayer(
+                    game.getPlayers().stream()
+                            .filter(p -> !p.getId().equals(playerId))
+                            .findFirst()
+                            .orElseThrow(() -> new InvalidGameStateException("No other player found")));
+            saveGame(game);
+            notifyPlayers(game);
+            log.info("Move processed. New number: {}. Next turn: {}", newNumber, game.getCurrentPlayer().getName());
+        }
+        gameLog.append(game, new ClientMoveEvent(game.getId(), playerId, move));
+        return MoveResult.of(game);
+    }
+
+    // The game's snapshot if this node has it active in memory, empty if answering needs the database
+    public Optional<CompletableFuture<Game>> findActiveGame(String gameId) {
+        return activeGameStore.snapshotAsync(gameId);
+    }
+
+    // The snapshot of the player's game if this node has it active in memory, empty if answering needs the
+    // database. It completes with null when the game turns out to have ended, which the database answers too
+    public Optional<CompletableFuture<Game>> findActiveGameByPlayerId(String playerId) {
+        return activeGameStore.findGameIdByPlayerId(playerId)
+                .flatMap(activeGameStore::snapshotAsync)
+                .map(snapshot -> snapshot.thenApply(game -> game.getStatus() == Game.GameStatus.IN_PROGRESS ? game : null));
+    }
+
+    // Returns the player's game in progress, or null while they have none. Players in an active game are
+    // answered from the ActiveGameStore, anyone else costs a single primary key lookup of the player
+    @Transactional(readOnly = true)
+    public Game getGameByPlayerId(String playerId) {
+        log.info("Fetching game state for player ID: {}", playerId);
+        String gameId = activeGameStore.findGameIdByPlayerId(playerId)
+                .orElseGet(() -> playerService.getPlayer(playerId).getActiveGameId());
+        if (gameId == null) {
+            return null;
+        }
+        Game game = getGame(gameId);
+        if (game.getStatus() == Game.GameStatus.COMPLETED) {
+            return null; // Game is completed, return null
+        }
+
+        log.info("Game state for player {}: {}", playerId, game);
+        return game;
+    }
+
+    // Active games are served from the ActiveGameStore as a snapshot, anything else is loaded with its players
+    // in one query. Completed games no longer change, so they are kept in the games cache. A cache hit needs no
+    // connection, a miss is read in the repository's own read-only transaction
+    public Game getGame(String gameId) {
+        CompletedGame cached = Caches.get(cacheManager, Caches.GAMES, gameId, CompletedGame.class);
+        if (cached != null) {
+            return cached.toGame();
+        }
+        Game game = loadGame(gameId);
+        if (activeGameStore.contains(gameId)) {
+            return activeGameStore.snapshot(game);
+        }
+        if (game.getStatus() == Game.GameStatus.COMPLETED) {
+            Caches.put(cacheManager, Caches.GAMES, gameId, CompletedGame.of(game));
+        }
+        return game;
+    }
+
+    // The tracked instance for active games, which callers must only use in the game's mailbox
+    private Game loadGame(String gameId) {
+        log.info("Fetching game by ID: {}", gameId);
+        Optional<Game> activeGame = activeGameStore.get(gameId);
+        if (activeGame.isPresent()) {
+            return activeGame.get();
+        }
+        Game game = gameRepository.findWithPlayersById(gameId)
+                .orElseThrow(() -> new GameNotFoundException("Game not found with ID: " + gameId));
+        // Only the owning node keeps a game in progress in memory, anywhere else it is caught up from its log
+        if (game.getStatus() == Game.GameStatus.IN_PROGRESS) {
+            game = gameShards.isLocal(gameId) ? activeGameStore.trackPersisted(game) : gameLog.catchUp(game);
+        }
+        log.info("Game found: {}", game);
+        return game;
+    }
+
+    @Scheduled(fixedRate = 5000) // Runs every five seconds
+    @Transactional
+    void scheduledGameMatchmaking() {
+        if (matchmakingMode.isScheduled()) {
+            gameMatchmaking();
+        }
+    }
+
+    @Transactional
+    public void gameMatchmaking() {
+        List<Player> playersLookingForGame = playerService.pollPlayersLookingForGame(maxGamesPerTick);
+        if (playersLookingForGame.size() < 2) {
+            log.info("Not enough players for matchmaking. Current count: {}", playerService.getMatchmakingQueueSize());
+            gamesPerTick.record(0);
+            return;
+        }
+
+        // Pair players in queue order and set up the initial state of each game. Queued players are owned by
+        // this node, so their games get ids this node owns as well
+        Random random = new Random();
+        List<Game> games = new ArrayList<>(playersLookingForGame.size() / 2);
+        for (int i = 0; i + 1 < playersLookingForGame.size(); i += 2) {
+            Player player1 = playersLookingForGame.get(i);
+            Player player2 = playersLookingForGame.get(i + 1);
+
+            Game game = new Game();
+            game.setId(gameShards.newLocalId());
+            game.setPlayers(List.of(player1, player2));
+            game.setStatus(Game.GameStatus.IN_PROGRESS);
+            game.setCurrentPlayer(random.nextBoolean() ? player1 : player2);
+            game.setCurrentNumber(random.nextInt(91) + 10); // Random number between 10-100
+            game.setLastUpdated(Instant.now());
+            games.add(game);
+        }
+
+        // Save all games and players' status in one batch each
+        List<Game> savedGames = new ArrayList<>(games.size());
+        gameRepository.saveAll(games).forEach(savedGames::add);
+        savedGames.forEach(game -> game.getPlayers().forEach(player -> player.setActiveGameId(game.getId())));
+        playerService.setPlayersIsLookingForGame(playersLookingForGame, false);
+        TransactionCallbacks.afterCommit(() -> savedGames.forEach(activeGameStore::track));
+
+        // Matchmaking events go to the outbox in the same transaction as the games, the OutboxRelay publishes them
+        List<GameEvent<GameMatchmakingEvent>> events = new ArrayList<>(savedGames.size());
+        for (Game game : savedGames) {
+            Player player1 = game.getPlayers().get(0);
+            Player player2 = game.getPlayers().get(1);
+            GameMatchmakingEvent gameMatchmakingEvent = new GameMatchmakingEvent(
+                    game.getId(),
+                    player1.getId(),
+                    player2.getId(),
+                    game.getCurrentNumber(),
+                    game.getCurrentPlayer().getId()
+            );
+            TransactionCallbacks.afterCommit(() -> startLog(game, gameMatchmakingEvent));
+            events.add(new GameEvent<>(
+                    java.util.UUID.randomUUID().toString(),
+                    game.getId(),
+                    GameMatchmakingEvent.class.getSimpleName(),
+                    gameMatchmakingEvent
+            ));
+            notifyPlayers(game);
+            log.info("Game {} created and started between players {} and {}",
+                    game.getId(), player1.getName(), player2.getName());
+        }
+
+        gameEventOutbox.append(events);
+
+        gamesPerTick.record(savedGames.size());
+        log.info("Matchmaking tick created {} games, {} players still queued",
+                savedGames.size(), playerService.getMatchmakingQueueSize());
+    }
+
+    // Ends the given games if they are still inactive once their mailbox runs them, returns how many ended
+    int endInactiveGames(List<Game> inactiveGames, Instant threshold) {
+        List<CompletableFuture<Boolean>> results = new ArrayList<>(inactiveGames.size());
+        for (Game game : inactiveGames) {
+            results.add(gameMailboxes.submit(game.getId(), () -> {
+                // Skip games that received a move since they were found
+                if (game.getStatus() != Game.GameStatus.IN_PROGRESS || game.getLastUpdated().isAfter(threshold)) {
+                    return false;
+                }
+                log.info("Ending inactive game with ID: {}", game.getId());
+                Player winner = game.getPlayers().stream()
+                        .filter(p -> !p.getId().equals(game.getCurrentPlayer().getId()))
+                        .findFirst()
+                        .orElseThrow(() -> new InvalidGameStateException("No other player found"));
+                finishGame(game, winner);
+                return true;
+            }));
+        }
+        int ended = 0;
+        for (int i = 0; i < results.size(); i++) {
+            try {
+                if (results.get(i).join()) {
+                    ended++;
+                }
+            } catch (CompletionException e) {
+                log.error("Failed to end inactive game {}: {}", inactiveGames.get(i).getId(), e.getCause().getMessage());
+            }
+        }
+        return ended;
+    }
+
+    // Writes through the ActiveGameStore for tracked games, directly to the repository otherwise. Mailbox work
+    // runs outside a transaction, so tracking may happen right away and is left to the node owning the game
+    private void saveGame(Game game) {
+        if (activeGameStore.contains(game.getId())) {
+            activeGameStore.markDirty(game);
+            return;
+        }
+        Game savedGame = gameRepository.save(game);
+        Caches.evict(cacheManager, Caches.GAMES, List.of(savedGame.getId()));
+        if (savedGame.getStatus() == Game.GameStatus.IN_PROGRESS && gameShards.isLocal(savedGame.getId())) {
+            TransactionCallbacks.afterCommit(() -> activeGameStore.track(savedGame));
+        } else if (savedGame.getStatus() == Game.GameStatus.COMPLETED) {
+            playerService.clearActiveGame(savedGame.getId());
+        }
+    }
+
+    // Queued in the game's mailbox once the game is committed, so the first entry is appended before any move
+    private void startLog(Game game, GameMatchmakingEvent event) {
+        gameMailboxes.submit(game.getId(), () -> {
+            gameLog.start(game, event);
+            return null;
+        });
+    }
+
+    private void notifyPlayers(Game game) {
+        GameStateChangedEvent event = GameStateChangedEvent.of(game);
+        TransactionCallbacks.afterCommit(() -> gameStateNotifier.notifyPlayers(event));
+    }
+
+    @Transactional
+    void deleteGame(String gameId) {
+        log.info("Deleting game with ID: {}", gameId);
+        Game game = gameRepository.findById(gameId)
+                .orElseThrow(() -> new GameNotFoundException("Game not found"));
+
+        if (game.getStatus() == Game.GameStatus.IN_PROGRESS) {
+            log.error("Cannot delete game {}: it is currently in progress", gameId);
+            throw new InvalidGameStateException("Cannot delete a game that is in progress.");
+        }
+
+        gameRepository.delete(game);
+        Caches.evict(cacheManager, Caches.GAMES, List.of(gameId));
+        log.info("Game {} deleted successfully", gameId);
+    }
+}
@@ -0,0 +1,147 @@
+package com.shimmy.gameofthree.server.application;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.utils.Utils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// Splits games and players across the nodes of a cluster. An id hashes to one of the shards the same
+// way Kafka's default partitioner picks the partition of a key, so a shard is a partition of the
+// game-events topic. Shard s prefers node s % node count in the order of game.cluster.nodes, ShardLeases
+// moves a shard to another node while its preferred node is down.
+// A player, their place in the matchmaking queue and the games matched from it all live on one node.
+// Without game.cluster.nodes this is a single node that owns everything.
+@Slf4j
+@Component
+public class GameShards {
+    @Value("${game.cluster.node-id:}")
+    private String nodeId;
+    // Comma separated node-id=base-url pairs, the same list in the same order on every node
+    @Value("${game.cluster.nodes:}")
+    private List<String> nodes;
+    @Value("${kafka.game-topic.partitions:3}")
+    private int shardCount;
+
+    private final Map<String, String> urlsByNodeId = new LinkedHashMap<>();
+    private List<String> nodeIds = List.of();
+    private int nodeIndex;
+    // Node currently owning each shard
+    private volatile String[] owners = new String[0];
+
+    @PostConstruct
+    void init() {
+        urlsByNodeId.clear();
+        for (String node : nodes) {
+            if (node.isBlank()) {
+                continue;
+            }
+            String[] idAndUrl = node.split("=", 2);
+            if (idAndUrl.length != 2) {
+                throw new IllegalStateException("Expected node-id=base-url in game.cluster.nodes, got " + node);
+            }
+            urlsByNodeId.put(idAndUrl[0].trim(), idAndUrl[1].trim());
+        }
+        nodeIds = new ArrayList<>(urlsByNodeId.keySet());
+        if (!isClustered()) {
+            return;
+        }
+        nodeIndex = nodeIds.indexOf(nodeId);
+        if (nodeIndex < 0) {
+            throw new IllegalStateException("game.cluster.node-id " + nodeId + " is not one of " + nodeIds);
+        }
+        if (shardCount < nodeIds.size()) {
+            log.warn("Only {} shards for {} nodes, some nodes will own no games", shardCount, nodeIds.size());
+        }
+        owners = IntStream.range(0, shardCount).mapToObj(this::preferredOwner).toArray(String[]::new);
+        log.info("Node {} prefers shards {} of {}", nodeId, preferredShards(), shardCount);
+    }
+
+    public boolean isClustered() {
+        return !nodeIds.isEmpty();
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public List<String> nodeIds() {
+        return nodeIds;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public int shardOf(String id) {
+        return Utils.toPositive(Utils.murmur2(id.getBytes(StandardCharsets.UTF_8))) % shardCount;
+    }
+
+    public boolean isLocal(String id) {
+        return !isClustered() || nodeId.equals(owners[shardOf(id)]);
+    }
+
+    // Base URL of the node owning the id, empty when this node owns it
+    public Optional<String> ownerUrl(String id) {
+        if (isLocal(id)) {
+            return Optional.empty();
+        }
+        return Optional.of(urlsByNodeId.get(owners[shardOf(id)]));
+    }
+
+    public String preferredOwner(int shard) {
+        return nodeIds.get(shard % nodeIds.size());
+    }
+
+    // The shards this node consumes from the game-events topic, fixed for the lifetime of the node
+    public List<Integer> preferredShards() {
+        return IntStream.range(0, shardCount)
+                .filter(shard -> !isClustered() || shard % nodeIds.size() == nodeIndex)
+                .boxed()
+                .toList();
+    }
+
+    public Set<Integer> ownedShards() {
+        String[] current = owners;
+        return IntStream.range(0, shardCount)
+                .filter(shard -> !isClustered() || nodeId.equals(current[shard]))
+                .boxed()
+                .collect(Collectors.toSet());
+    }
+
+    // Called by ShardLeases with the node holding each shard's lease, shards nobody holds stay with
+    // their preferred node. Ids of unknown nodes are ignored
+    void updateOwners(Map<Integer, String> leaseOwners) {
+        owners = IntStream.range(0, shardCount)
+                .mapToObj(shard -> {
+                    String owner = leaseOwners.get(shard);
+                    return owner != null && urlsByNodeId.containsKey(owner) ? owner : preferredOwner(shard);
+                })
+                .toArray(String[]::new);
+    }
+
+    // A random id that hashes to this node, so games matched here are also owned here. Takes as many
+    // attempts as there are nodes on average
+    public String newLocalId() {
+        if (isClustered() && ownedShards().isEmpty()) {
+            throw new IllegalStateException("Node " + nodeId + " owns no shards");
+        }
+        while (true) {
+            String id = UUID.randomUUID().toString();
+            if (isLocal(id)) {
+                return id;
+            }
+        }
+    }
+}
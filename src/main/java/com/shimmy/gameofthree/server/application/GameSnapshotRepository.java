@@ -0,0 +1,20 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.domain.GameSnapshot;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface GameSnapshotRepository extends CrudRepository<GameSnapshot, String> {
+
+    Optional<GameSnapshot> findFirstByGameIdOrderBySequenceDesc(String gameId);
+
+    @Modifying
+    @Query("delete from GameSnapshot s where s.gameId = :gameId")
+    int deleteByGameId(@Param("gameId") String gameId);
+}
@@ -0,0 +1,12 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.domain.event.GameStateChangedEvent;
+import com.shimmy.gameofthree.server.domain.event.MoveRejectedEvent;
+
+public interface GameStateNotifier {
+    void notifyPlayers(GameStateChangedEvent event);
+
+    // Only moves ingested through Kafka are rejected after the request returned
+    default void notifyMoveRejected(MoveRejectedEvent event) {
+    }
+}
@@ -0,0 +1,152 @@
+package com.shimmy.gameofthree.server.application;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// One inactivity deadline per game in progress. A move only moves the game's deadline forward,
+// which is O(1); the queued entry is re-queued at the new deadline when it comes due, so the
+// queue holds at most one entry per game and expiry fires as soon as the deadline passes.
+@Slf4j
+@Component
+public class InactivityTimers implements SmartLifecycle {
+    @Value("${game.inactivity.timeout:60s}")
+    private Duration timeout;
+
+    private final DelayQueue<Deadline> queue = new DelayQueue<>();
+    private final Map<String, Deadline> deadlines = new ConcurrentHashMap<>();
+    private final List<Consumer<List<String>>> expiryListeners = new CopyOnWriteArrayList<>();
+    private volatile Thread worker;
+
+    public void addExpiryListener(Consumer<List<String>> listener) {
+        expiryListeners.add(listener);
+    }
+
+    // There are no game modes yet, so every game shares the configured timeout
+    public Duration timeoutFor(String gameId) {
+        return timeout;
+    }
+
+    public void arm(String gameId, Instant lastUpdated) {
+        Instant deadline = lastUpdated.plus(timeoutFor(gameId));
+        deadlines.compute(gameId, (id, current) -> {
+            if (current != null && !deadline.isBefore(current.queuedDeadline)) {
+                current.deadline = deadline;
+                return current;
+            }
+            Deadline queued = new Deadline(id, deadline);
+            queue.put(queued);
+            return queued;
+        });
+    }
+
+    public void cancel(String gameId) {
+        deadlines.remove(gameId);
+    }
+
+    public int size() {
+        return deadlines.size();
+    }
+
+    // Blocks until at least one game has expired and returns all games expired by then
+    List<String> takeExpired() throws InterruptedException {
+        List<String> expired = new ArrayList<>();
+        while (expired.isEmpty()) {
+            handle(queue.take(), expired);
+            Deadline next;
+            while ((next = queue.poll()) != null) {
+                handle(next, expired);
+            }
+        }
+        return expired;
+    }
+
+    private void handle(Deadline entry, List<String> expired) {
+        deadlines.computeIfPresent(entry.gameId, (id, current) -> {
+            if (current != entry) {
+                // Cancelled and armed again since this entry was queued
+                return current;
+            }
+            if (!entry.deadline.isAfter(Instant.now())) {
+                expired.add(id);
+                return null;
+            }
+            Deadline requeued = new Deadline(id, entry.deadline);
+            queue.put(requeued);
+            return requeued;
+        });
+    }
+
+    @Override
+    public void start() {
+        worker = Thread.ofPlatform().name("inactivity-timers").daemon().unstarted(this::run);
+        worker.start();
+        log.info("Inactivity timers started, timeout: {}", timeout);
+    }
+
+    @Override
+    public void stop() {
+        Thread current = worker;
+        worker = null;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return worker != null;
+    }
+
+    private void run() {
+        while (worker == Thread.currentThread()) {
+            try {
+                List<String> expired = takeExpired();
+                log.debug("{} games expired", expired.size());
+                expiryListeners.forEach(listener -> listener.accept(expired));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Handling expired games failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private static final class Deadline implements Delayed {
+        private final String gameId;
+        // Position in the queue, fixed once queued
+        private final Instant queuedDeadline;
+        // Latest deadline, moved forward by every move
+        private volatile Instant deadline;
+
+        private Deadline(String gameId, Instant deadline) {
+            this.gameId = gameId;
+            this.queuedDeadline = deadline;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Duration.between(Instant.now(), queuedDeadline));
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return queuedDeadline.compareTo(((Deadline) other).queuedDeadline);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.domain.Lease;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface LeaseRepository extends CrudRepository<Lease, String> {
+
+    // Renews a lease held by the owner or takes over an expired one, a single conditional update so
+    // two nodes racing for the same lease can never both succeed
+    @Modifying
+    @Query("update Lease l set l.owner = :owner, l.expiresAt = :expiresAt " +
+            "where l.name = :name and (l.owner = :owner or l.expiresAt < :now)")
+    int acquire(@Param("name") String name, @Param("owner") String owner,
+                @Param("now") Instant now, @Param("expiresAt") Instant expiresAt);
+
+    // Plain insert rather than save, which would merge into a row another node inserted meanwhile
+    @Modifying
+    @Query(value = "insert into lease (name, owner, expires_at) values (:name, :owner, :expiresAt)", nativeQuery = true)
+    int insert(@Param("name") String name, @Param("owner") String owner, @Param("expiresAt") Instant expiresAt);
+
+    @Modifying
+    @Query("update Lease l set l.expiresAt = :now where l.name = :name and l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") Instant now);
+
+    List<Lease> findByNameStartingWithAndExpiresAtAfter(String prefix, Instant now);
+}
@@ -0,0 +1,173 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.domain.Lease;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+// Named leases kept in the lease table, so nodes sharing the database agree on who runs what without
+// any other coordination service. A lease is valid for game.leases.ttl from the moment it was asked for
+// and renewed every game.leases.renew-interval-ms, a node that stops renewing loses it to the next node
+// asking once it expired. The nodes' clocks must agree to well within the ttl. A node counts a lease as
+// held for one renew interval less than its row says, so it stops acting on it before anyone can take it over.
+@Slf4j
+@Component
+public class Leases {
+    @Autowired
+    private LeaseRepository leaseRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${game.cluster.node-id:}")
+    private String nodeId;
+    @Value("${game.leases.ttl:15s}")
+    private Duration ttl;
+    @Value("${game.leases.renew-interval-ms:5000}")
+    private long renewIntervalMs;
+
+    private String owner;
+    private TransactionTemplate transaction;
+    // Until when each lease this node asked for is held, Instant.MIN once it is not
+    private final Map<String, Instant> heldUntil = new ConcurrentHashMap<>();
+    // Leases renewed by the scheduler, see holds
+    private final Set<String> renewed = ConcurrentHashMap.newKeySet();
+    // Held across database calls, a monitor would pin a virtual thread to its carrier for that long
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @PostConstruct
+    void init() {
+        if (renewIntervalMs >= ttl.toMillis()) {
+            throw new IllegalStateException("game.leases.renew-interval-ms must be shorter than game.leases.ttl");
+        }
+        // Without a node id every process is an owner of its own, so replicas still exclude each other
+        owner = nodeId == null || nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Gauge.builder("game.leases.held", this, Leases::heldCount)
+                .description("Leases currently held by this node")
+                .register(meterRegistry);
+    }
+
+    public String owner() {
+        return owner;
+    }
+
+    public Duration ttl() {
+        return ttl;
+    }
+
+    // For jobs that should run on one node at a time: the first call asks for the lease, from then on
+    // the scheduler keeps renewing it, or keeps trying to take it over, and this only reads memory
+    public boolean holds(String name) {
+        if (renewed.add(name)) {
+            acquire(name);
+        }
+        return isHeld(name);
+    }
+
+    public boolean isHeld(String name) {
+        return heldUntil.getOrDefault(name, Instant.MIN).isAfter(Instant.now());
+    }
+
+    // Takes the lease if it is free or expired, or renews it if this node holds it
+    public boolean acquire(String name) {
+        lock.lock();
+        try {
+            Instant now = Instant.now();
+            boolean wasHeld = isHeld(name);
+            boolean acquired = tryAcquire(name, now);
+            heldUntil.put(name, acquired ? now.plus(ttl).minusMillis(renewIntervalMs) : Instant.MIN);
+            String result = acquired ? (wasHeld ? "renewed" : "acquired") : (wasHeld ? "lost" : "denied");
+            meterRegistry.counter("game.leases.acquisitions", "lease", name, "result", result).increment();
+            if (acquired != wasHeld) {
+                log.info("Lease {} {} by {}", name, result, owner);
+            }
+            return acquired;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(String name) {
+        lock.lock();
+        try {
+            renewed.remove(name);
+            if (heldUntil.remove(name) == null) {
+                return;
+            }
+            try {
+                transaction.executeWithoutResult(status -> leaseRepository.release(name, owner, Instant.now()));
+                log.info("Lease {} released by {}", name, owner);
+            } catch (RuntimeException e) {
+                log.warn("Failed to release lease {}, it expires on its own: {}", name, e.getMessage());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Owners of the unexpired leases whose name starts with the prefix
+    public Map<String, String> owners(String prefix) {
+        List<Lease> leases = transaction.execute(status ->
+                leaseRepository.findByNameStartingWithAndExpiresAtAfter(prefix, Instant.now()));
+        return leases.stream().collect(Collectors.toMap(Lease::getName, Lease::getOwner));
+    }
+
+    @Scheduled(fixedDelayString = "${game.leases.renew-interval-ms:5000}")
+    public void renew() {
+        renewed.forEach(this::acquire);
+    }
+
+    // Lets another node take over right away instead of after the ttl
+    @EventListener(ContextClosedEvent.class)
+    public void releaseAll() {
+        List.copyOf(heldUntil.keySet()).forEach(this::release);
+    }
+
+    private boolean tryAcquire(String name, Instant now) {
+        Instant expiresAt = now.plus(ttl);
+        try {
+            Boolean acquired = transaction.execute(status -> leaseRepository.acquire(name, owner, now, expiresAt) == 1);
+            if (Boolean.TRUE.equals(acquired) || leaseRepository.existsById(name)) {
+                return Boolean.TRUE.equals(acquired);
+            }
+            // First use of the lease, whichever node inserts the row holds it
+            transaction.executeWithoutResult(status -> leaseRepository.insert(name, owner, expiresAt));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        } catch (RuntimeException e) {
+            // Without the database nobody can be sure to hold the lease, including this node
+            log.warn("Failed to acquire lease {}: {}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    private int heldCount() {
+        Instant now = Instant.now();
+        return (int) heldUntil.values().stream().filter(until -> until.isAfter(now)).count();
+    }
+}
@@ -0,0 +1,18 @@
+package com.shimmy.gameofthree.server.application;
+
+public enum MatchmakingMode {
+    // Pair players on the fixed-rate poller only
+    SCHEDULED,
+    // Pair players as soon as two of them are queued
+    EVENT_DRIVEN,
+    // Event-driven pairing with the poller as a safety net
+    BOTH;
+
+    public boolean isScheduled() {
+        return this != EVENT_DRIVEN;
+    }
+
+    public boolean isEventDriven() {
+        return this != SCHEDULED;
+    }
+}
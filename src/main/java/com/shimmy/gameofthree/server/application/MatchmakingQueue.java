@@ -0,0 +1,94 @@
+package com.shimmy.gameofthree.server.application;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+// In-memory FIFO of player IDs waiting for a game. The isLookingForGame column
+// is only used to rebuild this queue on startup.
+@Slf4j
+@Component
+public class MatchmakingQueue {
+    private final ConcurrentLinkedDeque<String> queue = new ConcurrentLinkedDeque<>();
+    private final Map<String, Instant> queued = new ConcurrentHashMap<>();
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final List<Runnable> enqueueListeners = new CopyOnWriteArrayList<>();
+
+    public void addEnqueueListener(Runnable listener) {
+        enqueueListeners.add(listener);
+    }
+
+    public boolean enqueue(String playerId) {
+        if (queued.putIfAbsent(playerId, Instant.now()) != null) {
+            log.debug("Player {} is already queued for matchmaking", playerId);
+            return false;
+        }
+        queue.offerLast(playerId);
+        enqueueListeners.forEach(Runnable::run);
+        return true;
+    }
+
+    public void remove(String playerId) {
+        if (queued.remove(playerId) != null) {
+            queue.remove(playerId);
+        }
+    }
+
+    public boolean contains(String playerId) {
+        return queued.containsKey(playerId);
+    }
+
+    public int size() {
+        return queued.size();
+    }
+
+    // Takes up to `maxPairs` pairs of players from the head of the queue
+    public List<QueuedPlayer> pollPairs(int maxPairs) {
+        drainLock.lock();
+        try {
+            int count = Math.min(maxPairs, queued.size() / 2) * 2;
+            List<QueuedPlayer> players = new ArrayList<>(count);
+            while (players.size() < count) {
+                String playerId = queue.pollFirst();
+                if (playerId == null) {
+                    break;
+                }
+                Instant enqueuedAt = queued.remove(playerId);
+                if (enqueuedAt != null) {
+                    players.add(new QueuedPlayer(playerId, enqueuedAt));
+                }
+            }
+            if (players.size() % 2 != 0) {
+                requeue(List.of(players.removeLast()));
+            }
+            return players;
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    // Puts players back at the head of the queue, keeping their original order and enqueue time
+    public void requeue(List<QueuedPlayer> players) {
+        for (int i = players.size() - 1; i >= 0; i--) {
+            QueuedPlayer player = players.get(i);
+            if (queued.putIfAbsent(player.playerId(), player.enqueuedAt()) == null) {
+                queue.offerFirst(player.playerId());
+            }
+        }
+    }
+
+    public record QueuedPlayer(String playerId, Instant enqueuedAt) {
+        public Duration waitTime(Instant now) {
+            return Duration.between(enqueuedAt, now);
+        }
+    }
+}
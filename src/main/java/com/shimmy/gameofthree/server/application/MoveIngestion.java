@@ -0,0 +1,86 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.api.exception.InvalidMoveException;
+import com.shimmy.gameofthree.server.api.exception.MoveNotAcceptedException;
+import com.shimmy.gameofthree.server.domain.event.ClientMoveEvent;
+import com.shimmy.gameofthree.server.domain.event.GameEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Appends client moves to the game-events topic instead of applying them. The topic is keyed by
+// game id, so every move of a game lands on the partition whose consumer applies them in order,
+// and the result reaches the players through the GameStateNotifier.
+@Slf4j
+@Component
+public class MoveIngestion {
+    @Autowired
+    private GamePublisher gamePublisher;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${game.moves.ack-timeout:5s}")
+    private Duration ackTimeout;
+
+    private Counter accepted;
+
+    @PostConstruct
+    void registerMetrics() {
+        accepted = Counter.builder("game.moves.accepted")
+                .description("Client moves appended to the game-events topic")
+                .register(meterRegistry);
+    }
+
+    // Returns once the broker has the move, so an accepted move survives a restart of this instance
+    public String submit(String gameId, String playerId, int move) {
+        GameEvent<ClientMoveEvent> event = moveEvent(gameId, playerId, move);
+        try {
+            gamePublisher.emit(event).get(ackTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MoveNotAcceptedException("Interrupted while submitting the move", e);
+        } catch (ExecutionException | TimeoutException e) {
+            log.error("Move {} of player {} in game {} was not accepted: {}", move, playerId, gameId, e.getMessage());
+            throw new MoveNotAcceptedException("The move could not be accepted, please retry.", e);
+        }
+        accepted.increment();
+        log.info("Move {} of player {} in game {} accepted as {}", move, playerId, gameId, event.getId());
+        return event.getId();
+    }
+
+    // Same as submit without waiting for the broker, for the async endpoints
+    public CompletableFuture<String> submitAsync(String gameId, String playerId, int move) {
+        GameEvent<ClientMoveEvent> event = moveEvent(gameId, playerId, move);
+        return gamePublisher.emit(event)
+                .orTimeout(ackTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .handle((ignored, error) -> {
+                    if (error != null) {
+                        log.error("Move {} of player {} in game {} was not accepted: {}", move, playerId, gameId, error.getMessage());
+                        throw new MoveNotAcceptedException("The move could not be accepted, please retry.", error);
+                    }
+                    accepted.increment();
+                    log.info("Move {} of player {} in game {} accepted as {}", move, playerId, gameId, event.getId());
+                    return event.getId();
+                });
+    }
+
+    private GameEvent<ClientMoveEvent> moveEvent(String gameId, String playerId, int move) {
+        // The only check that needs no game state, everything else is up to the consumer
+        if (move != 1 && move != 0 && move != -1) {
+            throw new InvalidMoveException("Invalid move. Player can only move -1, 0, or 1.");
+        }
+        ClientMoveEvent data = new ClientMoveEvent(gameId, playerId, move);
+        return new GameEvent<>(UUID.randomUUID().toString(), gameId, data.getType(), data);
+    }
+}
@@ -0,0 +1,8 @@
+package com.shimmy.gameofthree.server.application;
+
+public enum MoveIngestionMode {
+    // POST /api/game/move applies the move before it responds
+    SYNC,
+    // POST /api/game/move appends the move to the game-events topic and the listener applies it
+    KAFKA
+}
@@ -0,0 +1,147 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.domain.OutboxEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Streams the outbox to the GamePublisher, oldest events first. A row is only deleted once the
+// broker acknowledged its event, so delivery is at-least-once. No transaction is held while
+// waiting for the broker, reading and deleting a batch are two short transactions.
+@Slf4j
+@Component
+public class OutboxRelay {
+    // Outbox rows of every node share one table, a single relay keeps events of a game in order
+    static final String LEASE = "outbox-relay";
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private GameEventOutbox gameEventOutbox;
+    @Autowired
+    private GamePublisher gamePublisher;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private Leases leases;
+
+    @Value("${game.outbox.batch-size:500}")
+    private int batchSize;
+    @Value("${game.outbox.ack-timeout:10s}")
+    private Duration ackTimeout;
+
+    private Counter relayed;
+    private Counter failed;
+    // Creation time of the oldest event the last run left behind, null when the outbox was drained
+    private volatile Instant oldestPending;
+
+    @PostConstruct
+    void registerMetrics() {
+        relayed = Counter.builder("game.outbox.relayed")
+                .description("Outbox events published and removed from the outbox")
+                .register(meterRegistry);
+        failed = Counter.builder("game.outbox.failed")
+                .description("Outbox events that could not be published, retried on the next run unless unreadable")
+                .register(meterRegistry);
+        TimeGauge.builder("game.outbox.lag", this, TimeUnit.MILLISECONDS, OutboxRelay::lagMillis)
+                .description("Age of the oldest event still waiting in the outbox")
+                .register(meterRegistry);
+    }
+
+    double lagMillis() {
+        Instant oldest = oldestPending;
+        return oldest == null ? 0 : Duration.between(oldest, Instant.now()).toMillis();
+    }
+
+    // Keeps relaying full batches until the outbox is drained, so lag stays bounded by the poll interval under load
+    @Scheduled(fixedDelayString = "${game.outbox.poll-interval-ms:100}")
+    public int relay() {
+        if (!leases.holds(LEASE)) {
+            return 0;
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        TransactionTemplate readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        int total = 0;
+        while (true) {
+            List<OutboxEvent> batch = readTransaction.execute(
+                    status -> outboxEventRepository.findByOrderByCreatedAtAsc(Limit.of(batchSize)));
+            if (batch == null || batch.isEmpty()) {
+                oldestPending = null;
+                return total;
+            }
+            oldestPending = batch.getFirst().getCreatedAt();
+
+            Outcome outcome = publish(batch);
+            if (!outcome.doneIds().isEmpty()) {
+                transaction.executeWithoutResult(status -> outboxEventRepository.deleteByIdIn(outcome.doneIds()));
+            }
+            relayed.increment(outcome.published());
+            total += outcome.published();
+            if (outcome.doneIds().size() < batch.size()) {
+                // Retry the failed events on the next run instead of spinning on a broken broker
+                failed.increment(batch.size() - outcome.doneIds().size());
+                return total;
+            }
+            if (batch.size() < batchSize) {
+                oldestPending = null;
+                return total;
+            }
+        }
+    }
+
+    private Outcome publish(List<OutboxEvent> batch) {
+        List<CompletableFuture<Void>> acks = new ArrayList<>(batch.size());
+        List<String> unreadableIds = new ArrayList<>();
+        for (OutboxEvent outboxEvent : batch) {
+            try {
+                acks.add(gamePublisher.emit(gameEventOutbox.toGameEvent(outboxEvent)));
+            } catch (IllegalStateException e) {
+                // Retrying cannot fix it, drop the row so it does not block the outbox
+                log.error("Dropping outbox event {}: {}", outboxEvent.getEventId(), e.getMessage());
+                failed.increment();
+                acks.add(null);
+                unreadableIds.add(outboxEvent.getId());
+            }
+        }
+        try {
+            CompletableFuture.allOf(acks.stream().filter(Objects::nonNull).toArray(CompletableFuture[]::new))
+                    .get(ackTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Not all of {} outbox events were acknowledged: {}", batch.size(), e.getMessage());
+        }
+        List<String> doneIds = new ArrayList<>(unreadableIds);
+        for (int i = 0; i < batch.size(); i++) {
+            CompletableFuture<Void> ack = acks.get(i);
+            if (ack != null && ack.isDone() && !ack.isCompletedExceptionally()) {
+                doneIds.add(batch.get(i).getId());
+            }
+        }
+        return new Outcome(doneIds, doneIds.size() - unreadableIds.size());
+    }
+
+    // doneIds are the rows to remove from the outbox: the acknowledged events and the unreadable ones
+    private record Outcome(List<String> doneIds, int published) {
+    }
+}
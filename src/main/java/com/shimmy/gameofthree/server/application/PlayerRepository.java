@@ -1,12 +1,25 @@
-package com.shimmy.gameofthree.server.application;
-
-import com.shimmy.gameofthree.server.domain.Player;
-import org.springframework.data.repository.CrudRepository;
-import org.springframework.stereotype.Repository;
-
-import java.util.List;
-
-@Repository
-public interface PlayerRepository extends CrudRepository<Player, String> {
-    List<Player> findByIsLookingForGameTrue();
-}
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.domain.Player;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PlayerRepository extends CrudRepository<Player, String> {
+    List<Player> findByIsLookingForGameTrue();
+
+    @Modifying
+    @Query("update Player p set p.activeGameId = :gameId where p.id in :playerIds")
+    int setActiveGameId(@Param("playerIds") Collection<String> playerIds, @Param("gameId") String gameId);
+
+    // Served by idx_player_active_game
+    @Modifying
+    @Query("update Player p set p.activeGameId = null where p.activeGameId in :gameIds")
+    int clearActiveGameIdByGameIdIn(@Param("gameIds") Collection<String> gameIds);
+}
@@ -1,91 +1,244 @@
-package com.shimmy.gameofthree.server.application;
-
-import com.shimmy.gameofthree.server.api.exception.InvalidPlayerDataException;
-import com.shimmy.gameofthree.server.api.exception.PlayerNotFoundException;
-import com.shimmy.gameofthree.server.domain.Player;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-
-@Slf4j
-@Service
-@Transactional
-public class PlayerService {
-    @Autowired
-    private PlayerRepository playerRepository;
-
-    public Player createPlayer(String playerName) {
-        log.info("Creating player with name: {}", playerName);
-        if (playerName == null || playerName.isEmpty() || playerName.length() > 32) {
-            log.error("Invalid player name: {}", playerName);
-            throw new InvalidPlayerDataException("Player name must be between 1 and 32 characters.");
-        }
-        Player player = new Player(playerName, false);
-        return playerRepository.save(player);
-    }
-
-    public Player getPlayer(String playerId) {
-        log.info("Retrieving player with ID: {}", playerId);
-        if (playerId == null || playerId.isEmpty()) {
-            log.error("Invalid player ID: {}", playerId);
-            throw new InvalidPlayerDataException("Player ID cannot be null or empty.");
-        }
-
-        return playerRepository.findById(playerId)
-                .orElseThrow(() -> new PlayerNotFoundException("Player not found with ID: " + playerId));
-    }
-
-    public Player updatePlayer(Player player) {
-        // TODO should I do validation like that?
-        log.info("Updating player with ID: {}", player.getId());
-        Player existingPlayer = getPlayer(player.getId());
-
-        if (player.getName() != null && !player.getName().isEmpty() && player.getName().length() <= 32) {
-            existingPlayer.setName(player.getName());
-        } else {
-            log.error("Invalid player name: {}", player.getName());
-            throw new InvalidPlayerDataException("Player name must be between 1 and 32 characters.");
-        }
-
-        if (player.getIsLookingForGame() != null) {
-            existingPlayer.setIsLookingForGame(player.getIsLookingForGame());
-        }
-
-        return playerRepository.save(existingPlayer);
-    }
-
-    public Player setPlayerIsLookingForGame(String playerId, boolean isLookingForGame) {
-        log.info("Updating player with ID: {}", playerId);
-        Player player = playerRepository.findById(playerId)
-                .orElseThrow(() -> new PlayerNotFoundException("Player not found with ID: " + playerId));
-        player.setIsLookingForGame(isLookingForGame);
-        return playerRepository.save(player);
-    }
-
-    public List<Player> getPlayersLookingForGame() {
-        log.info("Retrieving players looking for a game");
-        List<Player> players = new ArrayList<>();
-        for (Player player : playerRepository.findAll()) {
-            if (Boolean.TRUE.equals(player.getIsLookingForGame())) {
-                players.add(player);
-            }
-        }
-        return players;
-    }
-
-    public void deletePlayer(String playerId) {
-        log.info("Deleting player with ID: {}", playerId);
-        if (playerId == null || playerId.isEmpty()) {
-            log.error("Invalid player ID: {}", playerId);
-            throw new InvalidPlayerDataException("Player ID cannot be null or empty.");
-        }
-
-        playerRepository.deleteById(playerId);
-        log.info("Player with ID: {} deleted successfully", playerId);
-    }
-}
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.api.exception.InvalidPlayerDataException;
+import com.shimmy.gameofthree.server.api.exception.PlayerNotFoundException;
+import com.shimmy.gameofthree.server.application.MatchmakingQueue.QueuedPlayer;
+import com.shimmy.gameofthree.server.domain.Player;
+import com.shimmy.gameofthree.server.domain.PlayerSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+@Slf4j
+@Service
+@Transactional
+public class PlayerService {
+    @Autowired
+    private PlayerRepository playerRepository;
+    @Autowired
+    private MatchmakingQueue matchmakingQueue;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private GameShards gameShards;
+
+    private Timer queueWaitTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        meterRegistry.gauge("matchmaking.queue.size", matchmakingQueue, MatchmakingQueue::size);
+        queueWaitTimer = Timer.builder("matchmaking.queue.wait")
+                .description("Time a player spent in the matchmaking queue before being paired")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    public Player createPlayer(String playerName) {
+        log.info("Creating player with name: {}", playerName);
+        if (playerName == null || playerName.isEmpty() || playerName.length() > 32) {
+            log.error("Invalid player name: {}", playerName);
+            throw new InvalidPlayerDataException("Player name must be between 1 and 32 characters.");
+        }
+        Player player = new Player(playerName, false);
+        return playerRepository.save(player);
+    }
+
+    // Cached players may carry a stale activeGameId, it can only point to a game that has since completed.
+    // A cache hit needs no connection, a miss is read in the repository's own read-only transaction
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Player getPlayer(String playerId) {
+        log.info("Retrieving player with ID: {}", playerId);
+        if (playerId == null || playerId.isEmpty()) {
+            log.error("Invalid player ID: {}", playerId);
+            throw new InvalidPlayerDataException("Player ID cannot be null or empty.");
+        }
+
+        PlayerSnapshot cached = Caches.get(cacheManager, Caches.PLAYERS, playerId, PlayerSnapshot.class);
+        if (cached != null) {
+            return cached.toPlayer();
+        }
+        Player player = findPlayer(playerId);
+        Caches.put(cacheManager, Caches.PLAYERS, playerId, PlayerSnapshot.of(player));
+        return player;
+    }
+
+    public Player updatePlayer(Player player) {
+        // TODO should I do validation like that?
+        log.info("Updating player with ID: {}", player.getId());
+        if (player.getId() == null || player.getId().isEmpty()) {
+            log.error("Invalid player ID: {}", player.getId());
+            throw new InvalidPlayerDataException("Player ID cannot be null or empty.");
+        }
+        // Changes are made to the current row, never to a possibly stale cached copy
+        Player existingPlayer = findPlayer(player.getId());
+
+        if (player.getName() != null && !player.getName().isEmpty() && player.getName().length() <= 32) {
+            existingPlayer.setName(player.getName());
+        } else {
+            log.error("Invalid player name: {}", player.getName());
+            throw new InvalidPlayerDataException("Player name must be between 1 and 32 characters.");
+        }
+
+        if (player.getIsLookingForGame() != null) {
+            existingPlayer.setIsLookingForGame(player.getIsLookingForGame());
+            syncMatchmakingQueue(existingPlayer.getId(), player.getIsLookingForGame());
+        }
+
+        Player savedPlayer = playerRepository.save(existingPlayer);
+        Caches.evict(cacheManager, Caches.PLAYERS, List.of(savedPlayer.getId()));
+        return savedPlayer;
+    }
+
+    public Player setPlayerIsLookingForGame(String playerId, boolean isLookingForGame) {
+        log.info("Updating player with ID: {}", playerId);
+        Player player = findPlayer(playerId);
+        player.setIsLookingForGame(isLookingForGame);
+        Player savedPlayer = playerRepository.save(player);
+        Caches.evict(cacheManager, Caches.PLAYERS, List.of(playerId));
+        syncMatchmakingQueue(playerId, isLookingForGame);
+        return savedPlayer;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Player> getPlayersLookingForGame() {
+        log.info("Retrieving players looking for a game");
+        return playerRepository.findByIsLookingForGameTrue();
+    }
+
+    // Takes up to `maxPairs` pairs of players off the matchmaking queue, in queue order
+    public List<Player> pollPlayersLookingForGame(int maxPairs) {
+        List<QueuedPlayer> queuedPlayers = matchmakingQueue.pollPairs(maxPairs);
+        if (queuedPlayers.isEmpty()) {
+            return List.of();
+        }
+        // Hand the players back to the queue if the caller's transaction rolls back
+        TransactionCallbacks.afterRollback(() -> matchmakingQueue.requeue(queuedPlayers));
+
+        List<String> playerIds = queuedPlayers.stream().map(QueuedPlayer::playerId).toList();
+        Map<String, Player> playersById = StreamSupport.stream(playerRepository.findAllById(playerIds).spliterator(), false)
+                .collect(Collectors.toMap(Player::getId, Function.identity()));
+        Instant now = Instant.now();
+        List<Player> players = new ArrayList<>(queuedPlayers.size());
+        List<QueuedPlayer> paired = new ArrayList<>(queuedPlayers.size());
+        for (QueuedPlayer queuedPlayer : queuedPlayers) {
+            Player player = playersById.get(queuedPlayer.playerId());
+            if (player == null) {
+                log.warn("Queued player {} no longer exists, dropping from matchmaking", queuedPlayer.playerId());
+                continue;
+            }
+            players.add(player);
+            paired.add(queuedPlayer);
+        }
+        if (players.size() % 2 != 0) {
+            // A deleted player left someone without an opponent; keep their place in the queue
+            players.removeLast();
+            matchmakingQueue.requeue(List.of(paired.removeLast()));
+        }
+        for (QueuedPlayer queuedPlayer : paired) {
+            Duration waitTime = queuedPlayer.waitTime(now);
+            queueWaitTimer.record(waitTime);
+            log.info("Player {} waited {} ms in the matchmaking queue", queuedPlayer.playerId(), waitTime.toMillis());
+        }
+        return players;
+    }
+
+    public List<Player> setPlayersIsLookingForGame(List<Player> players, boolean isLookingForGame) {
+        log.info("Updating {} players, isLookingForGame={}", players.size(), isLookingForGame);
+        players.forEach(player -> player.setIsLookingForGame(isLookingForGame));
+        List<Player> savedPlayers = new ArrayList<>();
+        playerRepository.saveAll(players).forEach(savedPlayers::add);
+        Caches.evict(cacheManager, Caches.PLAYERS, players.stream().map(Player::getId).toList());
+        players.forEach(player -> syncMatchmakingQueue(player.getId(), isLookingForGame));
+        return savedPlayers;
+    }
+
+    public void setActiveGame(List<String> playerIds, String gameId) {
+        log.info("Players {} are now playing game {}", playerIds, gameId);
+        playerRepository.setActiveGameId(playerIds, gameId);
+        Caches.evict(cacheManager, Caches.PLAYERS, playerIds);
+    }
+
+    public void clearActiveGame(String gameId) {
+        playerRepository.clearActiveGameIdByGameIdIn(List.of(gameId));
+    }
+
+    public int getMatchmakingQueueSize() {
+        return matchmakingQueue.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void restoreMatchmakingQueue() {
+        // Each node only queues and matches the players it owns
+        List<Player> players = getPlayersLookingForGame().stream()
+                .filter(player -> gameShards.isLocal(player.getId()))
+                .toList();
+        players.forEach(player -> matchmakingQueue.enqueue(player.getId()));
+        log.info("Restored {} players into the matchmaking queue", players.size());
+    }
+
+    // For shards this node took over from another node
+    @Transactional(readOnly = true)
+    public void restoreMatchmakingQueue(Set<Integer> shards) {
+        List<Player> players = playersLookingForGame(shards);
+        players.forEach(player -> matchmakingQueue.enqueue(player.getId()));
+        log.info("Restored {} players of shards {} into the matchmaking queue", players.size(), shards);
+    }
+
+    @Transactional(readOnly = true)
+    public void forgetMatchmakingQueue(Set<Integer> shards) {
+        playersLookingForGame(shards).forEach(player -> matchmakingQueue.remove(player.getId()));
+    }
+
+    private List<Player> playersLookingForGame(Set<Integer> shards) {
+        return getPlayersLookingForGame().stream()
+                .filter(player -> shards.contains(gameShards.shardOf(player.getId())))
+                .toList();
+    }
+
+    public void deletePlayer(String playerId) {
+        log.info("Deleting player with ID: {}", playerId);
+        if (playerId == null || playerId.isEmpty()) {
+            log.error("Invalid player ID: {}", playerId);
+            throw new InvalidPlayerDataException("Player ID cannot be null or empty.");
+        }
+
+        playerRepository.deleteById(playerId);
+        Caches.evict(cacheManager, Caches.PLAYERS, List.of(playerId));
+        TransactionCallbacks.afterCommit(() -> matchmakingQueue.remove(playerId));
+        log.info("Player with ID: {} deleted successfully", playerId);
+    }
+
+    private Player findPlayer(String playerId) {
+        return playerRepository.findById(playerId)
+                .orElseThrow(() -> new PlayerNotFoundException("Player not found with ID: " + playerId));
+    }
+
+    private void syncMatchmakingQueue(String playerId, boolean isLookingForGame) {
+        if (isLookingForGame) {
+            TransactionCallbacks.afterCommit(() -> matchmakingQueue.enqueue(playerId));
+        } else {
+            matchmakingQueue.remove(playerId);
+        }
+    }
+}
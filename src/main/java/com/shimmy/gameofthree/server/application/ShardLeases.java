@@ -0,0 +1,160 @@
+package com.shimmy.gameofthree.server.application;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+// One lease per shard, so every shard is owned by exactly one node of the cluster. A node leases its
+// preferred shards and, once it has been up for a ttl, any shard whose preferred node holds no node-<id>
+// lease; that is how the shards of a node that stopped renewing fail over. When the preferred node is
+// back, the node covering for it writes the shard's games and game log, then releases the lease so it can
+// be taken back.
+@Slf4j
+@Component
+public class ShardLeases {
+    static final String SHARD_PREFIX = "shard-";
+    static final String NODE_PREFIX = "node-";
+
+    @Autowired
+    private GameShards gameShards;
+    @Autowired
+    private Leases leases;
+    @Autowired
+    private ActiveGameStore activeGameStore;
+    @Autowired
+    private PlayerService playerService;
+    @Autowired
+    private GameLog gameLog;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Instant startedAt = Instant.MAX;
+    private Set<Integer> ownedShards = Set.of();
+    // A heartbeat waits on the database, a monitor would pin a virtual thread to its carrier meanwhile
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("game.shards.owned", gameShards, shards -> shards.ownedShards().size())
+                .description("Shards of the game id space owned by this node")
+                .register(meterRegistry);
+    }
+
+    // Runs before the ApplicationReadyEvent listeners restoring the owned shards' games and players
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void start() {
+        if (!gameShards.isClustered()) {
+            return;
+        }
+        lock.lock();
+        try {
+            startedAt = Instant.now();
+            ownedShards = gameShards.ownedShards();
+            heartbeat();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${game.leases.renew-interval-ms:5000}")
+    public void heartbeat() {
+        lock.lock();
+        try {
+            beat();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void beat() {
+        if (!gameShards.isClustered() || startedAt == Instant.MAX) {
+            return;
+        }
+        boolean graceOver = Instant.now().isAfter(startedAt.plus(leases.ttl()));
+        String nodeId = gameShards.nodeId();
+        leases.acquire(NODE_PREFIX + nodeId);
+        Set<String> liveNodes = new HashSet<>(leases.owners(NODE_PREFIX).values());
+        Map<String, String> holders = leases.owners(SHARD_PREFIX);
+
+        Map<Integer, String> owners = new HashMap<>();
+        Set<Integer> handedBack = new HashSet<>();
+        for (int shard = 0; shard < gameShards.shardCount(); shard++) {
+            String name = SHARD_PREFIX + shard;
+            String holder = holders.get(name);
+            String preferredOwner = gameShards.preferredOwner(shard);
+            boolean preferred = preferredOwner.equals(nodeId);
+            boolean acquired = false;
+            if (nodeId.equals(holder) || leases.isHeld(name)) {
+                if (!preferred && liveNodes.contains(preferredOwner)) {
+                    handedBack.add(shard);
+                } else {
+                    acquired = leases.acquire(name);
+                }
+            } else if (holder == null && (preferred || graceOver && !liveNodes.contains(preferredOwner))) {
+                acquired = leases.acquire(name);
+            }
+            if (acquired) {
+                owners.put(shard, nodeId);
+            } else if (holder != null && !holder.equals(nodeId)) {
+                owners.put(shard, holder);
+            }
+        }
+        // Shards handed back and shards nobody holds go to their preferred node
+        gameShards.updateOwners(owners);
+        apply(gameShards.ownedShards(), handedBack);
+    }
+
+    private void apply(Set<Integer> owned, Set<Integer> handedBack) {
+        Set<Integer> gained = new HashSet<>(owned);
+        gained.removeAll(ownedShards);
+        Set<Integer> lost = new HashSet<>(ownedShards);
+        lost.removeAll(owned);
+        ownedShards = owned;
+
+        if (!handedBack.isEmpty()) {
+            // Requests for these shards are redirected by now, write their games and their buffered moves before
+            // the preferred node loads them. It continues each game's log after the last entry it finds there
+            activeGameStore.flush();
+            activeGameStore.forget(handedBack);
+            gameLog.flush();
+            playerService.forgetMatchmakingQueue(handedBack);
+            handedBack.forEach(shard -> leases.release(SHARD_PREFIX + shard));
+            count("handed_back", handedBack.size());
+            log.info("Handed shards {} back to their preferred nodes", handedBack);
+        }
+        lost.removeAll(handedBack);
+        if (!lost.isEmpty()) {
+            // Another node took these over after this one failed to renew, whatever was not flushed is lost
+            activeGameStore.forget(lost);
+            playerService.forgetMatchmakingQueue(lost);
+            count("lost", lost.size());
+            log.warn("Lost shards {} to other nodes", lost);
+        }
+        if (!gained.isEmpty()) {
+            activeGameStore.restore(gained);
+            playerService.restoreMatchmakingQueue(gained);
+            count("gained", gained.size());
+            log.info("Took over shards {}", gained);
+        }
+    }
+
+    private void count(String change, int shards) {
+        meterRegistry.counter("game.shards.changes", "change", change).increment(shards);
+    }
+}
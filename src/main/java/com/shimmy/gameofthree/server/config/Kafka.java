@@ -1,33 +1,89 @@
-package com.shimmy.gameofthree.server.config;
-
-import org.apache.kafka.clients.consumer.ConsumerConfig;
-import org.apache.kafka.common.serialization.StringDeserializer;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
-import org.springframework.kafka.core.ConsumerFactory;
-import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
-
-import java.util.HashMap;
-import java.util.Map;
-
-public class Kafka {
-    @Value("${spring.kafka.bootstrap-servers}")
-    private String bootstrapServers;
-
-    public ConsumerFactory<String, Object> gameEventConsumerFactory() {
-        Map<String, Object> props = new HashMap<>();
-        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        props.put(ConsumerConfig.GROUP_ID_CONFIG, "game-events");
-        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
-        props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
-        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new JsonDeserializer<>(Object.class));
-    }
-
-    public ConcurrentKafkaListenerContainerFactory<String, Object> gameEventKafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(gameEventConsumerFactory());
-        return factory;
-    }
-}
+package com.shimmy.gameofthree.server.config;
+
+import com.shimmy.gameofthree.server.domain.event.GameEvent;
+import com.shimmy.gameofthree.server.infrastructure.serialization.GameEventDeserializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Slf4j
+@Configuration
+public class Kafka {
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+    @Value("${kafka.game-topic}")
+    private String gameEventsTopic;
+    @Value("${kafka.game-topic.partitions:3}")
+    private int partitions;
+    @Value("${kafka.game-topic.replicas:1}")
+    private int replicas;
+    @Value("${kafka.listener.concurrency:3}")
+    private int concurrency;
+    @Value("${kafka.listener.max-poll-records:500}")
+    private int maxPollRecords;
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // Events are keyed by game id, so the partition count bounds how many consumers can share the topic
+    @Bean
+    public NewTopic gameEventsTopic() {
+        return TopicBuilder.name(gameEventsTopic).partitions(partitions).replicas(replicas).build();
+    }
+
+    @Bean
+    public ConsumerFactory<String, GameEvent<?>> gameEventConsumerFactory(MeterRegistry meterRegistry) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, "game-events");
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        // An unreadable record arrives as a null value instead of failing every poll of its partition
+        DefaultKafkaConsumerFactory<String, GameEvent<?>> factory = new DefaultKafkaConsumerFactory<>(props,
+                new StringDeserializer(), new ErrorHandlingDeserializer<>(new GameEventDeserializer()));
+        // Exposes the client metrics, records-lag and records-lag-max among them, per consumer
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, GameEvent<?>> gameEventKafkaListenerContainerFactory(
+            ConsumerFactory<String, GameEvent<?>> gameEventConsumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, GameEvent<?>> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(gameEventConsumerFactory);
+        factory.setBatchListener(true);
+        // Consumers beyond the partition count would sit idle
+        if (concurrency > partitions) {
+            log.warn("Listener concurrency {} exceeds the {} partitions of {}, using {}",
+                    concurrency, partitions, gameEventsTopic, partitions);
+        }
+        factory.setConcurrency(Math.min(concurrency, partitions));
+        // The listener acknowledges a batch once every event in it was processed
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setMicrometerEnabled(true);
+        // Boot only switches its own container factory to virtual threads
+        if (virtualThreads) {
+            factory.getContainerProperties().setListenerTaskExecutor(new VirtualThreadTaskExecutor("game-events-"));
+        }
+        factory.setCommonErrorHandler(new DefaultErrorHandler(new FixedBackOff(1000L, 2L)));
+        return factory;
+    }
+}
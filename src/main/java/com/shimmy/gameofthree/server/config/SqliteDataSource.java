@@ -0,0 +1,89 @@
+package com.shimmy.gameofthree.server.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// SQLite allows a single writer at a time. All read-write transactions share one writer
+// connection, so they queue in the pool instead of failing with SQLITE_BUSY, while read-only
+// transactions use a separate reader pool that WAL lets run alongside the writer.
+// Writes are not queued per statement in front of the writer. Moves are group-committed already: the GameLog
+// flush inserts everything logged since the previous one in a single transaction, and the ActiveGameStore flush
+// writes the games that ended in one. A writer queue would only batch what those already batch.
+@Slf4j
+@Configuration
+@Profile("sqlite")
+public class SqliteDataSource {
+    private static final String WRITER = "writer";
+    private static final String READER = "reader";
+
+    @Value("${spring.datasource.url}")
+    private String url;
+    @Value("${game.sqlite.mmap-size:268435456}")
+    private long mmapSize;
+    @Value("${game.sqlite.reader-pool-size:4}")
+    private int readerPoolSize;
+    @Value("${game.sqlite.writer-timeout-ms:30000}")
+    private long writerTimeoutMs;
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource sqliteWriterDataSource() {
+        HikariConfig config = connectionConfig("sqlite-writer");
+        config.setMaximumPoolSize(1);
+        config.setMinimumIdle(1);
+        config.setConnectionTimeout(writerTimeoutMs);
+        // Take the write lock when the transaction begins rather than on its first write
+        config.addDataSourceProperty("transaction_mode", "IMMEDIATE");
+        return new HikariDataSource(config);
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource sqliteReaderDataSource() {
+        HikariConfig config = connectionConfig("sqlite-reader");
+        config.setMaximumPoolSize(readerPoolSize);
+        config.setMinimumIdle(1);
+        return new HikariDataSource(config);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("sqliteWriterDataSource") DataSource writer,
+                                 @Qualifier("sqliteReaderDataSource") DataSource reader) {
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource();
+        routingDataSource.setTargetDataSources(Map.of(WRITER, writer, READER, reader));
+        routingDataSource.setDefaultTargetDataSource(writer);
+        routingDataSource.afterPropertiesSet();
+        log.info("SQLite writes go through a single connection, reads through a pool of {}", readerPoolSize);
+        // Delays fetching a connection until the first statement, once the transaction's read-only flag is known
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private HikariConfig connectionConfig(String poolName) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setJdbcUrl(url);
+        config.setDriverClassName("org.sqlite.JDBC");
+        // Not supported as a connection property by the driver
+        config.setConnectionInitSql("PRAGMA mmap_size=" + mmapSize);
+        return config;
+    }
+
+    private static class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? READER : WRITER;
+        }
+    }
+}
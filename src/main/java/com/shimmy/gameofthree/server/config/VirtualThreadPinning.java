@@ -0,0 +1,94 @@
+package com.shimmy.gameofthree.server.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+// A virtual thread blocking inside a synchronized block or a native call, such as the SQLite driver's,
+// stays pinned to its carrier and holds up the virtual threads waiting for that carrier. JFR reports
+// every pinned block longer than the threshold, these are timed per frame that pinned the thread and
+// the first one of each frame is logged with its stack.
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinning implements SmartLifecycle {
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 64;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${game.virtual-threads.pinned-threshold:20ms}")
+    private Duration threshold;
+
+    private final Set<String> loggedFrames = ConcurrentHashMap.newKeySet();
+    private volatile RecordingStream recording;
+
+    @Override
+    public void start() {
+        RecordingStream stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::record);
+        stream.startAsync();
+        recording = stream;
+        log.info("Reporting virtual threads pinned for longer than {}", threshold);
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream stream = recording;
+        recording = null;
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return recording != null;
+    }
+
+    void record(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        String frame = pinnedAt(stackTrace);
+        meterRegistry.timer("game.threads.pinned", "frame", frame).record(event.getDuration());
+        if (loggedFrames.add(frame)) {
+            log.warn("Virtual thread pinned for {} ms at {}:\n\t{}", event.getDuration().toMillis(), frame,
+                    stackTrace == null ? "no stack trace" : stackTrace.getFrames().stream()
+                            .limit(LOGGED_FRAMES)
+                            .map(VirtualThreadPinning::describe)
+                            .collect(Collectors.joining("\n\t")));
+        }
+    }
+
+    // The innermost frame outside the JDK, that is the code that blocked while holding a monitor
+    static String pinnedAt(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "unknown";
+        }
+        return stackTrace.getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(VirtualThreadPinning::describe)
+                .filter(frame -> !frame.startsWith("java.") && !frame.startsWith("jdk.") && !frame.startsWith("sun."))
+                .findFirst()
+                .orElse("jdk");
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+}
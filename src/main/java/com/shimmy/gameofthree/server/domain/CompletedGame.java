@@ -0,0 +1,38 @@
+package com.shimmy.gameofthree.server.domain;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// What the games cache keeps of a completed game, each hit hands out a new detached Game built from it
+@Value
+public class CompletedGame {
+    String id;
+    List<PlayerSnapshot> players;
+    int currentNumber;
+    Instant lastUpdated;
+    PlayerSnapshot winner;
+
+    public static CompletedGame of(Game game) {
+        return new CompletedGame(
+                game.getId(),
+                game.getPlayers().stream().map(PlayerSnapshot::of).toList(),
+                game.getCurrentNumber(),
+                game.getLastUpdated(),
+                game.getWinner() != null ? PlayerSnapshot.of(game.getWinner()) : null);
+    }
+
+    public Game toGame() {
+        Game game = new Game();
+        game.setId(id);
+        game.setPlayers(new ArrayList<>(players.stream().map(PlayerSnapshot::toPlayer).toList()));
+        game.setCurrentNumber(currentNumber);
+        game.setStatus(Game.GameStatus.COMPLETED);
+        game.setLastUpdated(lastUpdated);
+        game.setWinner(winner != null ? winner.toPlayer() : null);
+        game.setPersisted(true);
+        return game;
+    }
+}
@@ -1,44 +1,72 @@
-package com.shimmy.gameofthree.server.domain;
-
-import jakarta.persistence.*;
-import lombok.Data;
-
-import java.time.Instant;
-import java.util.List;
-import java.util.UUID;
-
-@Entity
-@Data
-public class Game {
-    @Id
-    private String id;
-    @ManyToMany(fetch = FetchType.EAGER)
-    @JoinTable(
-            name = "game_players",
-            joinColumns = @JoinColumn(name = "game_id"),
-            inverseJoinColumns = @JoinColumn(name = "player_id")
-    )
-    private List<Player> players;
-    @ManyToOne(fetch = FetchType.EAGER)
-    @JoinColumn(name = "current_player_id")
-    private Player currentPlayer;
-    private int currentNumber;
-    private GameStatus status = GameStatus.WAITING_FOR_PLAYERS;
-    private Instant lastUpdated;
-    @ManyToOne(fetch = FetchType.EAGER)
-    @JoinColumn(name = "winner_id")
-    private Player winner;
-
-    @PrePersist
-    public void generateId() {
-        if (this.id == null) {
-            this.id = UUID.randomUUID().toString();
-        }
-    }
-
-    public enum GameStatus {
-        WAITING_FOR_PLAYERS,
-        IN_PROGRESS,
-        COMPLETED
-    }
-}
+package com.shimmy.gameofthree.server.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Entity
+@Data
+@Table(name = "game", indexes = @Index(name = "idx_game_status", columnList = "status"))
+// Associations are lazy, use cases that need the players load them through this graph
+@NamedEntityGraph(name = Game.WITH_PLAYERS, attributeNodes = {
+        @NamedAttributeNode("players"),
+        @NamedAttributeNode("currentPlayer"),
+        @NamedAttributeNode("winner")
+})
+public class Game implements Persistable<String> {
+    public static final String WITH_PLAYERS = "Game.withPlayers";
+
+    @Id
+    private String id;
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(
+            name = "game_players",
+            joinColumns = @JoinColumn(name = "game_id"),
+            inverseJoinColumns = @JoinColumn(name = "player_id")
+    )
+    private List<Player> players;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "current_player_id")
+    private Player currentPlayer;
+    private int currentNumber;
+    private GameStatus status = GameStatus.WAITING_FOR_PLAYERS;
+    private Instant lastUpdated;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "winner_id")
+    private Player winner;
+    // Ids may be assigned before the first save (see GameShards.newLocalId), so newness can't be told from the id
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean persisted;
+
+    @PrePersist
+    public void generateId() {
+        if (this.id == null) {
+            this.id = UUID.randomUUID().toString();
+        }
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        this.persisted = true;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    public enum GameStatus {
+        WAITING_FOR_PLAYERS,
+        IN_PROGRESS,
+        COMPLETED
+    }
+}
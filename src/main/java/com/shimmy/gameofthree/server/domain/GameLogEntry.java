@@ -0,0 +1,45 @@
+package com.shimmy.gameofthree.server.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// One event of a game's append-only log. Rows are only ever inserted, and outlive the game row itself.
+// Sequences are unique per game: the game's mailbox is their single writer, and the unique index rejects
+// the entries of a node that kept writing a game after another node took its shard over
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "game_log", indexes = @Index(name = "uk_game_log_game_sequence", columnList = "game_id, sequence", unique = true))
+public class GameLogEntry {
+    @Id
+    private String id;
+    private String gameId;
+    private long sequence;
+    // The event in the GameEventCodec binary format
+    @Column(length = 256)
+    private byte[] payload;
+    private Instant createdAt;
+
+    public GameLogEntry(String gameId, long sequence, byte[] payload, Instant createdAt) {
+        this.gameId = gameId;
+        this.sequence = sequence;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+    @PrePersist
+    public void generateId() {
+        if (this.id == null) {
+            this.id = UUID.randomUUID().toString();
+        }
+    }
+}
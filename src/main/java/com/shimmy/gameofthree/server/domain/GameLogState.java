@@ -0,0 +1,46 @@
+package com.shimmy.gameofthree.server.domain;
+
+import com.shimmy.gameofthree.server.domain.event.ClientMoveEvent;
+import com.shimmy.gameofthree.server.domain.event.GameEndedEvent;
+import com.shimmy.gameofthree.server.domain.event.GameMatchmakingEvent;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+// State of a game derived from its log. Only moves the game accepted are logged, so they are applied without checks
+@Value
+public class GameLogState {
+    String gameId;
+    long sequence;
+    List<String> playerIds;
+    int currentNumber;
+    String currentPlayerId;
+    Game.GameStatus status;
+    String winnerId;
+    Instant lastUpdated;
+
+    public static GameLogState empty(String gameId) {
+        return new GameLogState(gameId, 0, List.of(), 0, null, Game.GameStatus.WAITING_FOR_PLAYERS, null, null);
+    }
+
+    public GameLogState apply(long sequence, Object event, Instant at) {
+        return switch (event) {
+            case GameMatchmakingEvent e -> new GameLogState(gameId, sequence, List.of(e.getPlayer1Id(), e.getPlayer2Id()),
+                    e.getInitialNumber(), e.getCurrentPlayerId(), Game.GameStatus.IN_PROGRESS, null, at);
+            case ClientMoveEvent e -> {
+                int number = (currentNumber + e.getMove()) / 3;
+                yield number == 1
+                        ? new GameLogState(gameId, sequence, playerIds, number, null, Game.GameStatus.COMPLETED, e.getPlayerId(), at)
+                        : new GameLogState(gameId, sequence, playerIds, number, otherPlayer(e.getPlayerId()), status, null, at);
+            }
+            case GameEndedEvent e -> new GameLogState(gameId, sequence, playerIds, currentNumber, null,
+                    Game.GameStatus.COMPLETED, e.getWinnerId(), at);
+            default -> throw new IllegalArgumentException("Cannot apply " + event + " to game " + gameId);
+        };
+    }
+
+    private String otherPlayer(String playerId) {
+        return playerIds.stream().filter(id -> !id.equals(playerId)).findFirst().orElse(null);
+    }
+}
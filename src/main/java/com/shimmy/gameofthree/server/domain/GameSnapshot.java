@@ -0,0 +1,72 @@
+package com.shimmy.gameofthree.server.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+// A game's state after the log entry with the given sequence, so replaying only needs the entries after it
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "game_snapshot", indexes = @Index(name = "idx_game_snapshot_game_sequence", columnList = "game_id, sequence"))
+public class GameSnapshot {
+    @Id
+    private String id;
+    private String gameId;
+    private long sequence;
+    private String player1Id;
+    private String player2Id;
+    private int currentNumber;
+    private String currentPlayerId;
+    private Game.GameStatus status;
+    private String winnerId;
+    private Instant lastUpdated;
+
+    public static GameSnapshot of(Game game, long sequence) {
+        GameSnapshot snapshot = new GameSnapshot();
+        snapshot.setGameId(game.getId());
+        snapshot.setSequence(sequence);
+        snapshot.setPlayer1Id(game.getPlayers().get(0).getId());
+        snapshot.setPlayer2Id(game.getPlayers().get(1).getId());
+        snapshot.setCurrentNumber(game.getCurrentNumber());
+        snapshot.setCurrentPlayerId(game.getCurrentPlayer() != null ? game.getCurrentPlayer().getId() : null);
+        snapshot.setStatus(game.getStatus());
+        snapshot.setWinnerId(game.getWinner() != null ? game.getWinner().getId() : null);
+        snapshot.setLastUpdated(game.getLastUpdated());
+        return snapshot;
+    }
+
+    public static GameSnapshot of(GameLogState state) {
+        GameSnapshot snapshot = new GameSnapshot();
+        snapshot.setGameId(state.getGameId());
+        snapshot.setSequence(state.getSequence());
+        snapshot.setPlayer1Id(state.getPlayerIds().get(0));
+        snapshot.setPlayer2Id(state.getPlayerIds().get(1));
+        snapshot.setCurrentNumber(state.getCurrentNumber());
+        snapshot.setCurrentPlayerId(state.getCurrentPlayerId());
+        snapshot.setStatus(state.getStatus());
+        snapshot.setWinnerId(state.getWinnerId());
+        snapshot.setLastUpdated(state.getLastUpdated());
+        return snapshot;
+    }
+
+    public GameLogState toState() {
+        return new GameLogState(gameId, sequence, List.of(player1Id, player2Id), currentNumber, currentPlayerId,
+                status, winnerId, lastUpdated);
+    }
+
+    @PrePersist
+    public void generateId() {
+        if (this.id == null) {
+            this.id = UUID.randomUUID().toString();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.shimmy.gameofthree.server.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// A named piece of work owned by one node until expiresAt, see Leases
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "lease")
+public class Lease {
+    @Id
+    private String name;
+    private String owner;
+    private Instant expiresAt;
+}
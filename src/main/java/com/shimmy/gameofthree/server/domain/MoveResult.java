@@ -0,0 +1,26 @@
+package com.shimmy.gameofthree.server.domain;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+// The state a move left its game in. Taken inside the game's mailbox, so later moves don't change it
+@Value
+public class MoveResult {
+    String gameId;
+    int currentNumber;
+    String currentPlayerId;
+    Game.GameStatus status;
+    String winnerId;
+    Instant lastUpdated;
+
+    public static MoveResult of(Game game) {
+        return new MoveResult(
+                game.getId(),
+                game.getCurrentNumber(),
+                game.getCurrentPlayer() != null ? game.getCurrentPlayer().getId() : null,
+                game.getStatus(),
+                game.getWinner() != null ? game.getWinner().getId() : null,
+                game.getLastUpdated());
+    }
+}
@@ -0,0 +1,45 @@
+package com.shimmy.gameofthree.server.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// A GameEvent waiting to be published, written in the same transaction as the change that caused it
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "game_event_outbox", indexes = @Index(name = "idx_outbox_created_at", columnList = "created_at"))
+public class OutboxEvent {
+    @Id
+    private String id;
+    private String eventId;
+    private String gameId;
+    private String type;
+    // The whole event in the GameEventCodec binary format
+    @Column(length = 1024)
+    private byte[] payload;
+    private Instant createdAt;
+
+    public OutboxEvent(String eventId, String gameId, String type, byte[] payload, Instant createdAt) {
+        this.eventId = eventId;
+        this.gameId = gameId;
+        this.type = type;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+    @PrePersist
+    public void generateId() {
+        if (this.id == null) {
+            this.id = UUID.randomUUID().toString();
+        }
+    }
+}
@@ -1,35 +1,48 @@
-package com.shimmy.gameofthree.server.domain;
-
-import jakarta.persistence.Entity;
-import jakarta.persistence.Id;
-import jakarta.persistence.PrePersist;
-import jakarta.persistence.Table;
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-import java.util.UUID;
-
-@Entity
-@Data
-@AllArgsConstructor
-@NoArgsConstructor
-@Table(name = "player")
-public class Player {
-    @Id
-    private String id;
-    private String name;
-    private Boolean isLookingForGame;
-
-    public Player(String name, Boolean isLookingForGame) {
-        this.name = name;
-        this.isLookingForGame = isLookingForGame;
-    }
-
-    @PrePersist
-    public void generateId() {
-        if (this.id == null) {
-            this.id = UUID.randomUUID().toString();
-        }
-    }
-}
+package com.shimmy.gameofthree.server.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "player", indexes = {
+        @Index(name = "idx_player_looking_for_game", columnList = "is_looking_for_game"),
+        @Index(name = "idx_player_active_game", columnList = "active_game_id")
+})
+public class Player {
+    @Id
+    private String id;
+    private String name;
+    private Boolean isLookingForGame;
+    // Game the player is currently playing, cleared when that game completes. Left out of equality
+    // because games keep the player instances they were matched with
+    @EqualsAndHashCode.Exclude
+    private String activeGameId;
+
+    public Player(String name, Boolean isLookingForGame) {
+        this.name = name;
+        this.isLookingForGame = isLookingForGame;
+    }
+
+    public Player(String id, String name, Boolean isLookingForGame) {
+        this(id, name, isLookingForGame, null);
+    }
+
+    @PrePersist
+    public void generateId() {
+        if (this.id == null) {
+            this.id = UUID.randomUUID().toString();
+        }
+    }
+}
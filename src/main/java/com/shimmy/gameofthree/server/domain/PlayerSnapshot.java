@@ -0,0 +1,21 @@
+package com.shimmy.gameofthree.server.domain;
+
+import lombok.Value;
+
+// What the players cache keeps of a player. Cached entities would be shared by every caller that changes them,
+// so each hit hands out a new detached Player built from this instead
+@Value
+public class PlayerSnapshot {
+    String id;
+    String name;
+    Boolean isLookingForGame;
+    String activeGameId;
+
+    public static PlayerSnapshot of(Player player) {
+        return new PlayerSnapshot(player.getId(), player.getName(), player.getIsLookingForGame(), player.getActiveGameId());
+    }
+
+    public Player toPlayer() {
+        return new Player(id, name, isLookingForGame, activeGameId);
+    }
+}
@@ -0,0 +1,256 @@
+package com.shimmy.gameofthree.server.domain.event;
+
+import com.shimmy.gameofthree.server.domain.Game;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Compact binary form of a GameEvent, used on the Kafka topic and in the outbox.
+//
+// Version 1 layout: version byte, payload tag byte, event id, game id, then the payload's fields
+// in declaration order. Ids are 16 bytes when they are UUIDs, ints are zigzag varints and the
+// envelope type is implied by the payload tag. A new field or payload means a new version: the
+// encoder always writes the latest one and the decoder keeps reading every older one.
+public final class GameEventCodec {
+    public static final byte VERSION = 1;
+
+    private static final byte MATCHMAKING = 1;
+    private static final byte GAME_STARTED = 2;
+    private static final byte GAME_ENDED = 3;
+    private static final byte CLIENT_MOVE = 4;
+    private static final byte GAME_STATE_CHANGED = 5;
+
+    private static final byte NO_ID = 0;
+    private static final byte UUID_ID = 1;
+    private static final byte STRING_ID = 2;
+
+    private static final Game.GameStatus[] STATUSES = Game.GameStatus.values();
+
+    private GameEventCodec() {
+    }
+
+    public static byte[] encode(GameEvent<?> event) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeByte(tagOf(event.getData()));
+            writeId(out, event.getId());
+            writeId(out, event.getGameId());
+            switch (event.getData()) {
+                case GameMatchmakingEvent e -> {
+                    writeId(out, e.getGameId());
+                    writeId(out, e.getPlayer1Id());
+                    writeId(out, e.getPlayer2Id());
+                    writeNullableInt(out, e.getInitialNumber());
+                    writeId(out, e.getCurrentPlayerId());
+                }
+                case GameStartedEvent e -> {
+                    writeId(out, e.getGameId());
+                    writeIds(out, e.getPlayerIds());
+                }
+                case GameEndedEvent e -> {
+                    writeId(out, e.getGameId());
+                    writeId(out, e.getWinnerId());
+                }
+                case ClientMoveEvent e -> {
+                    writeId(out, e.getGameId());
+                    writeId(out, e.getPlayerId());
+                    writeVarInt(out, e.getMove());
+                }
+                case GameStateChangedEvent e -> {
+                    writeId(out, e.getGameId());
+                    writeIds(out, e.getPlayerIds());
+                    writeVarInt(out, e.getCurrentNumber());
+                    writeId(out, e.getCurrentPlayerId());
+                    out.writeByte(e.getStatus() == null ? -1 : e.getStatus().ordinal());
+                    writeId(out, e.getWinnerId());
+                    writeInstant(out, e.getLastUpdated());
+                }
+                default -> throw new IllegalArgumentException("No encoding for " + event.getData());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static GameEvent<?> decode(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte version = in.readByte();
+            if (version < 1 || version > VERSION) {
+                throw new IllegalArgumentException("Unsupported game event version " + version);
+            }
+            byte tag = in.readByte();
+            String eventId = readId(in);
+            String gameId = readId(in);
+            return switch (tag) {
+                case MATCHMAKING -> new GameEvent<>(eventId, gameId, GameMatchmakingEvent.class.getSimpleName(),
+                        new GameMatchmakingEvent(readId(in), readId(in), readId(in), readNullableInt(in), readId(in)));
+                case GAME_STARTED -> {
+                    GameStartedEvent e = new GameStartedEvent(readId(in), readIds(in));
+                    yield new GameEvent<>(eventId, gameId, e.getType(), e);
+                }
+                case GAME_ENDED -> {
+                    GameEndedEvent e = new GameEndedEvent(readId(in), readId(in));
+                    yield new GameEvent<>(eventId, gameId, e.getType(), e);
+                }
+                case CLIENT_MOVE -> {
+                    ClientMoveEvent e = new ClientMoveEvent(readId(in), readId(in), readVarInt(in));
+                    yield new GameEvent<>(eventId, gameId, e.getType(), e);
+                }
+                case GAME_STATE_CHANGED -> {
+                    String stateGameId = readId(in);
+                    List<String> playerIds = readIds(in);
+                    int currentNumber = readVarInt(in);
+                    String currentPlayerId = readId(in);
+                    Game.GameStatus status = readStatus(in);
+                    GameStateChangedEvent e = new GameStateChangedEvent(stateGameId, playerIds, currentNumber,
+                            currentPlayerId, status, readId(in), readInstant(in));
+                    yield new GameEvent<>(eventId, gameId, e.getType(), e);
+                }
+                default -> throw new IllegalArgumentException("Unknown game event payload " + tag);
+            };
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Truncated game event", e);
+        }
+    }
+
+    private static byte tagOf(Object data) {
+        return switch (data) {
+            case GameMatchmakingEvent e -> MATCHMAKING;
+            case GameStartedEvent e -> GAME_STARTED;
+            case GameEndedEvent e -> GAME_ENDED;
+            case ClientMoveEvent e -> CLIENT_MOVE;
+            case GameStateChangedEvent e -> GAME_STATE_CHANGED;
+            case null, default -> throw new IllegalArgumentException("No encoding for " + data);
+        };
+    }
+
+    // Ids are UUIDs as long as they are generated by the entities, anything else is kept as a string
+    private static void writeId(DataOutputStream out, String id) throws IOException {
+        if (id == null) {
+            out.writeByte(NO_ID);
+            return;
+        }
+        UUID uuid = asUuid(id);
+        if (uuid != null) {
+            out.writeByte(UUID_ID);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        } else {
+            out.writeByte(STRING_ID);
+            out.writeUTF(id);
+        }
+    }
+
+    private static String readId(DataInputStream in) throws IOException {
+        return switch (in.readByte()) {
+            case NO_ID -> null;
+            case UUID_ID -> new UUID(in.readLong(), in.readLong()).toString();
+            case STRING_ID -> in.readUTF();
+            default -> throw new IllegalArgumentException("Unknown id encoding");
+        };
+    }
+
+    private static UUID asUuid(String id) {
+        if (id.length() != 36) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(id);
+            // Only the canonical lower case form round-trips
+            return uuid.toString().equals(id) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // Statuses are written as their ordinal, -1 for none
+    private static Game.GameStatus readStatus(DataInputStream in) throws IOException {
+        byte status = in.readByte();
+        if (status < 0) {
+            return null;
+        }
+        if (status >= STATUSES.length) {
+            throw new IllegalArgumentException("Unknown game status " + status);
+        }
+        return STATUSES[status];
+    }
+
+    private static void writeIds(DataOutputStream out, List<String> ids) throws IOException {
+        writeVarInt(out, ids.size());
+        for (String id : ids) {
+            writeId(out, id);
+        }
+    }
+
+    private static List<String> readIds(DataInputStream in) throws IOException {
+        int size = readVarInt(in);
+        List<String> ids = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ids.add(readId(in));
+        }
+        return ids;
+    }
+
+    private static void writeNullableInt(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            writeVarInt(out, value);
+        }
+    }
+
+    private static Integer readNullableInt(DataInputStream in) throws IOException {
+        return in.readBoolean() ? readVarInt(in) : null;
+    }
+
+    private static void writeInstant(DataOutputStream out, Instant instant) throws IOException {
+        out.writeBoolean(instant != null);
+        if (instant != null) {
+            writeVarLong(out, instant.getEpochSecond());
+            writeVarInt(out, instant.getNano());
+        }
+    }
+
+    private static Instant readInstant(DataInputStream in) throws IOException {
+        return in.readBoolean() ? Instant.ofEpochSecond(readVarLong(in), readVarInt(in)) : null;
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        writeVarLong(out, value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        return (int) readVarLong(in);
+    }
+
+    // Zigzag, so small negative numbers such as a -1 move stay one byte
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.writeByte((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.writeByte((int) zigzag);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long zigzag = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+}
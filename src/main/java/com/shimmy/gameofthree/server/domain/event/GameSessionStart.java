@@ -1,8 +1,8 @@
-package com.shimmy.gameofthree.server.domain.event;
-
-import lombok.Value;
-
-@Value
-public class GameSessionStart {
-    String playerId;
-}
+package com.shimmy.gameofthree.server.domain.event;
+
+import lombok.Value;
+
+@Value
+public class GameSessionStart {
+    String playerId;
+}
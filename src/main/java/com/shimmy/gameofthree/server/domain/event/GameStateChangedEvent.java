@@ -0,0 +1,31 @@
+package com.shimmy.gameofthree.server.domain.event;
+
+import com.shimmy.gameofthree.server.domain.Game;
+import com.shimmy.gameofthree.server.domain.Player;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+@Value
+public class GameStateChangedEvent {
+    String gameId;
+    List<String> playerIds;
+    int currentNumber;
+    String currentPlayerId;
+    Game.GameStatus status;
+    String winnerId;
+    Instant lastUpdated;
+    String type = "game_state_changed";
+
+    public static GameStateChangedEvent of(Game game) {
+        return new GameStateChangedEvent(
+                game.getId(),
+                game.getPlayers().stream().map(Player::getId).toList(),
+                game.getCurrentNumber(),
+                game.getCurrentPlayer() != null ? game.getCurrentPlayer().getId() : null,
+                game.getStatus(),
+                game.getWinner() != null ? game.getWinner().getId() : null,
+                game.getLastUpdated());
+    }
+}
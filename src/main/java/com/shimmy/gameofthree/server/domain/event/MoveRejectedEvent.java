@@ -0,0 +1,13 @@
+package com.shimmy.gameofthree.server.domain.event;
+
+import lombok.Value;
+
+// Pushed to a player whose move was taken from the topic but not accepted by the game
+@Value
+public class MoveRejectedEvent {
+    String gameId;
+    String playerId;
+    String type = "move_rejected";
+    int move;
+    String reason;
+}
@@ -1,30 +1,124 @@
-package com.shimmy.gameofthree.server.infrastructure.listener;
-
-import com.shimmy.gameofthree.server.domain.event.GameEvent;
-import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.stereotype.Component;
-
-@Component
-public class KafkaGameListener {
-    @KafkaListener(topics = "game-events", groupId = "game-of-three-group", containerFactory = "gameEventKafkaListenerContainerFactory")
-    public void onGameEvent(GameEvent<?> event) {
-        switch (event.getType()) {
-            case "client_move" -> onClientMoveEvent(event);
-            case "game_ended" -> onGameEndedEvent(event);
-            case "game_started" -> onGameStartedEvent(event);
-            default -> System.out.println("Unknown event type: " + event.getType());
-        }
-    }
-
-    private void onClientMoveEvent(GameEvent<?> event) {
-        System.out.println("ClientMoveEvent: " + event);
-    }
-
-    private void onGameEndedEvent(GameEvent<?> event) {
-        System.out.println("GameEndedEvent: " + event);
-    }
-
-    private void onGameStartedEvent(GameEvent<?> event) {
-        System.out.println("GameStartedEvent: " + event);
-    }
-}
+package com.shimmy.gameofthree.server.infrastructure.listener;
+
+import com.shimmy.gameofthree.server.api.exception.GameNotFoundException;
+import com.shimmy.gameofthree.server.api.exception.InvalidGameStateException;
+import com.shimmy.gameofthree.server.api.exception.InvalidMoveException;
+import com.shimmy.gameofthree.server.application.GameService;
+import com.shimmy.gameofthree.server.application.GameShards;
+import com.shimmy.gameofthree.server.application.GameStateNotifier;
+import com.shimmy.gameofthree.server.domain.event.ClientMoveEvent;
+import com.shimmy.gameofthree.server.domain.event.GameEvent;
+import com.shimmy.gameofthree.server.domain.event.MoveRejectedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+// Events of one game share a key and therefore a partition, and each partition is consumed by a
+// single thread in offset order, so the moves of a game are applied in the order they were sent.
+// Partitions are the shards of GameShards, so a node is assigned exactly the partitions of the games it owns
+@Slf4j
+@Component
+public class KafkaGameListener {
+    @Autowired
+    private GameService gameService;
+    @Autowired
+    private GameStateNotifier gameStateNotifier;
+    @Autowired
+    private GameShards gameShards;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter applied;
+    private Counter rejected;
+    private Counter ignored;
+    private Counter unreadable;
+    private Timer consumeLag;
+
+    @PostConstruct
+    void registerMetrics() {
+        applied = consumed("applied");
+        rejected = consumed("rejected");
+        ignored = consumed("ignored");
+        unreadable = consumed("unreadable");
+        consumeLag = Timer.builder("game.events.consume.lag")
+                .description("Time from producing an event until the listener handled it")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    private Counter consumed(String result) {
+        return Counter.builder("game.events.consumed")
+                .description("Game events handled by the listener")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(topicPartitions = @TopicPartition(topic = "${kafka.game-topic}", partitions = "#{@gameShards.preferredShards()}"),
+            groupId = "${kafka.listener.group-id:game-of-three-group}",
+            containerFactory = "gameEventKafkaListenerContainerFactory")
+    public void onGameEvents(List<ConsumerRecord<String, GameEvent<?>>> records, Acknowledgment acknowledgment) {
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, GameEvent<?>> record = records.get(i);
+            try {
+                onGameEvent(record);
+            } catch (RuntimeException e) {
+                // The events before this one are committed, the rest of the batch is redelivered
+                throw new BatchListenerFailedException("Failed to handle game event at offset " + record.offset(), e, i);
+            }
+            if (record.timestamp() >= 0) {
+                consumeLag.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - record.timestamp())));
+            }
+        }
+        acknowledgment.acknowledge();
+    }
+
+    private void onGameEvent(ConsumerRecord<String, GameEvent<?>> record) {
+        GameEvent<?> event = record.value();
+        if (event == null) {
+            log.error("Skipping unreadable game event at {}-{}@{}", record.topic(), record.partition(), record.offset());
+            unreadable.increment();
+            return;
+        }
+        switch (event.getData()) {
+            case ClientMoveEvent move -> onClientMoveEvent(move);
+            default -> {
+                log.debug("Ignoring {} of game {}", event.getType(), event.getGameId());
+                ignored.increment();
+            }
+        }
+    }
+
+    // A move the game rejects will be rejected on every retry, so it is skipped and the player is told why.
+    // So is a move of a game whose shard another node took over, the player can resend it over HTTP
+    private void onClientMoveEvent(ClientMoveEvent move) {
+        if (!gameShards.isLocal(move.getGameId())) {
+            log.warn("Rejected move of player {} in game {} owned by another node", move.getPlayerId(), move.getGameId());
+            rejected.increment();
+            gameStateNotifier.notifyMoveRejected(new MoveRejectedEvent(move.getGameId(), move.getPlayerId(),
+                    move.getMove(), "Game is owned by another node, send the move again"));
+            return;
+        }
+        try {
+            gameService.makeMove(move.getGameId(), move.getPlayerId(), move.getMove());
+            applied.increment();
+        } catch (GameNotFoundException | InvalidGameStateException | InvalidMoveException e) {
+            log.warn("Rejected move {} of player {} in game {}: {}",
+                    move.getMove(), move.getPlayerId(), move.getGameId(), e.getMessage());
+            rejected.increment();
+            gameStateNotifier.notifyMoveRejected(
+                    new MoveRejectedEvent(move.getGameId(), move.getPlayerId(), move.getMove(), e.getMessage()));
+        }
+    }
+}
@@ -1,26 +1,180 @@
-package com.shimmy.gameofthree.server.infrastructure.publisher;
-
-import com.shimmy.gameofthree.server.application.GamePublisher;
-import com.shimmy.gameofthree.server.domain.event.GameEvent;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.stereotype.Component;
-
-@Component
-public class KafkaGamePublisher implements GamePublisher {
-    @Value("${kafka.game-topic}")
-    private String gameEventsTopic;
-
-    private final KafkaTemplate<String, GameEvent<?>> kafkaTemplate;
-
-    @Autowired
-    public KafkaGamePublisher(KafkaTemplate<String, GameEvent<?>> kafkaTemplate) {
-        this.kafkaTemplate = kafkaTemplate;
-    }
-
-    @Override
-    public void emit(GameEvent event) {
-        kafkaTemplate.send(gameEventsTopic, event.getGameId(), event);
-    }
-}
+package com.shimmy.gameofthree.server.infrastructure.publisher;
+
+import com.shimmy.gameofthree.server.application.GamePublisher;
+import com.shimmy.gameofthree.server.domain.event.GameEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// emit never blocks the caller: events go into a bounded buffer that a dedicated sender thread
+// drains into the producer, which batches them per linger.ms and batch.size. When the buffer is
+// full, because the broker is down or too slow, new events are rejected with a failed future.
+@Slf4j
+@Component
+public class KafkaGamePublisher implements GamePublisher, SmartLifecycle {
+    @Value("${kafka.game-topic}")
+    private String gameEventsTopic;
+    @Value("${game.publisher.buffer-size:65536}")
+    private int bufferSize;
+    @Value("${game.publisher.drain-batch-size:500}")
+    private int drainBatchSize;
+    @Value("${game.publisher.shutdown-timeout:10s}")
+    private Duration shutdownTimeout;
+
+    private final KafkaTemplate<String, GameEvent<?>> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private BlockingQueue<PendingEvent> buffer;
+    private volatile boolean running;
+    private Thread sender;
+
+    private Counter published;
+    private Counter droppedBufferFull;
+    private Counter failedSend;
+    private Timer publishLatency;
+
+    @Autowired
+    public KafkaGamePublisher(KafkaTemplate<String, GameEvent<?>> kafkaTemplate, MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        buffer = new ArrayBlockingQueue<>(bufferSize);
+        Gauge.builder("game.events.buffer.size", buffer, BlockingQueue::size)
+                .description("Game events waiting to be handed to the Kafka producer")
+                .register(meterRegistry);
+        published = Counter.builder("game.events.published")
+                .description("Game events acknowledged by Kafka")
+                .register(meterRegistry);
+        droppedBufferFull = failures("buffer_full");
+        failedSend = failures("send");
+        publishLatency = Timer.builder("game.events.publish.latency")
+                .description("Time from emit until Kafka acknowledged the event")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    private Counter failures(String reason) {
+        return Counter.builder("game.events.failed")
+                .description("Game events that never reached Kafka")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public CompletableFuture<Void> emit(GameEvent event) {
+        PendingEvent pending = new PendingEvent(event, System.nanoTime(), new CompletableFuture<>());
+        if (!buffer.offer(pending)) {
+            droppedBufferFull.increment();
+            log.warn("Game event buffer full, dropping {} of game {}", event.getType(), event.getGameId());
+            return CompletableFuture.failedFuture(new IllegalStateException("Game event buffer full"));
+        }
+        return pending.delivered();
+    }
+
+    public int bufferedEvents() {
+        return buffer.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        sender = Thread.ofPlatform().name("game-event-publisher").daemon().unstarted(this::run);
+        sender.start();
+        log.info("Game event publisher started, buffer size: {}", bufferSize);
+    }
+
+    // Sends whatever is still buffered before the producer is closed
+    @Override
+    public void stop() {
+        running = false;
+        Thread current = sender;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (current.isAlive()) {
+            log.warn("Game event publisher did not drain within {}, {} events left", shutdownTimeout, buffer.size());
+        }
+        sender = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        List<PendingEvent> batch = new ArrayList<>(drainBatchSize);
+        while (running) {
+            try {
+                PendingEvent first = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, drainBatchSize - 1);
+                send(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Publishing {} game events failed: {}", batch.size(), e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+        buffer.drainTo(batch);
+        send(batch);
+        kafkaTemplate.flush();
+    }
+
+    private void send(List<PendingEvent> batch) {
+        for (PendingEvent pending : batch) {
+            GameEvent<?> event = pending.event();
+            try {
+                kafkaTemplate.send(gameEventsTopic, event.getGameId(), event).whenComplete((result, e) -> {
+                    if (e != null) {
+                        failedSend.increment();
+                        log.error("Failed to publish {} of game {}: {}", event.getType(), event.getGameId(), e.getMessage());
+                        pending.delivered().completeExceptionally(e);
+                        return;
+                    }
+                    published.increment();
+                    publishLatency.record(System.nanoTime() - pending.emittedAt(), TimeUnit.NANOSECONDS);
+                    pending.delivered().complete(null);
+                });
+            } catch (RuntimeException e) {
+                // Serialization errors and producer buffer timeouts surface here instead of in the future
+                failedSend.increment();
+                log.error("Failed to publish {} of game {}: {}", event.getType(), event.getGameId(), e.getMessage());
+                pending.delivered().completeExceptionally(e);
+            }
+        }
+    }
+
+    private record PendingEvent(GameEvent<?> event, long emittedAt, CompletableFuture<Void> delivered) {
+    }
+}
@@ -0,0 +1,113 @@
+package com.shimmy.gameofthree.server.infrastructure.push;
+
+import com.shimmy.gameofthree.server.application.GameStateNotifier;
+import com.shimmy.gameofthree.server.domain.event.GameStateChangedEvent;
+import com.shimmy.gameofthree.server.domain.event.MoveRejectedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Pushes game state changes to the players of a game over Server-Sent Events
+@Slf4j
+@Component
+public class SseGameStateNotifier implements GameStateNotifier, DisposableBean {
+    @Value("${game.push.sse-timeout-ms:1800000}")
+    private long sseTimeoutMs;
+
+    private final Map<String, Set<SseEmitter>> emittersByPlayer = new ConcurrentHashMap<>();
+    // Notifications come from game mailboxes and the matchmaker, a slow client must not hold those up, so
+    // sends run on virtual threads. Sends to one emitter are chained behind each other to keep their order
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<SseEmitter, CompletableFuture<Void>> pendingSends = new ConcurrentHashMap<>();
+
+    public SseEmitter subscribe(String playerId) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        emittersByPlayer.compute(playerId, (id, emitters) -> {
+            Set<SseEmitter> playerEmitters = emitters != null ? emitters : ConcurrentHashMap.newKeySet();
+            playerEmitters.add(emitter);
+            return playerEmitters;
+        });
+        emitter.onCompletion(() -> unsubscribe(playerId, emitter));
+        emitter.onTimeout(() -> unsubscribe(playerId, emitter));
+        emitter.onError(error -> unsubscribe(playerId, emitter));
+        // The response is committed with its first event, a comment sends the headers right away so clients
+        // see the stream open, and resync, before the player's next game update
+        send(playerId, emitter, SseEmitter.event().comment("subscribed"));
+        log.info("Player {} subscribed to game updates", playerId);
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return emittersByPlayer.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @Override
+    public void notifyPlayers(GameStateChangedEvent event) {
+        for (String playerId : event.getPlayerIds()) {
+            Set<SseEmitter> emitters = emittersByPlayer.get(playerId);
+            if (emitters == null) {
+                continue;
+            }
+            for (SseEmitter emitter : emitters) {
+                send(playerId, emitter, event);
+            }
+        }
+    }
+
+    // Only the player who made the move is told
+    @Override
+    public void notifyMoveRejected(MoveRejectedEvent event) {
+        Set<SseEmitter> emitters = emittersByPlayer.get(event.getPlayerId());
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            send(event.getPlayerId(), emitter, SseEmitter.event().name(event.getType()).data(event));
+        }
+    }
+
+    private void send(String playerId, SseEmitter emitter, GameStateChangedEvent event) {
+        send(playerId, emitter, SseEmitter.event()
+                .name(event.getType())
+                .id(event.getGameId() + ":" + event.getLastUpdated().toEpochMilli())
+                .data(event));
+    }
+
+    private void send(String playerId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        CompletableFuture<Void> tail = pendingSends.compute(emitter, (key, previous) ->
+                (previous != null ? previous : CompletableFuture.<Void>completedFuture(null))
+                        .thenRunAsync(() -> sendNow(playerId, emitter, event), executor));
+        tail.whenComplete((ignored, error) -> pendingSends.remove(emitter, tail));
+    }
+
+    private void sendNow(String playerId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping game update subscription of player {}: {}", playerId, e.getMessage());
+            unsubscribe(playerId, emitter);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.close();
+    }
+
+    private void unsubscribe(String playerId, SseEmitter emitter) {
+        emittersByPlayer.computeIfPresent(playerId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
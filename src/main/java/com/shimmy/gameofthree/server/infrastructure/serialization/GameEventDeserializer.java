@@ -0,0 +1,21 @@
+package com.shimmy.gameofthree.server.infrastructure.serialization;
+
+import com.shimmy.gameofthree.server.domain.event.GameEvent;
+import com.shimmy.gameofthree.server.domain.event.GameEventCodec;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+public class GameEventDeserializer implements Deserializer<GameEvent<?>> {
+
+    @Override
+    public GameEvent<?> deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return GameEventCodec.decode(data);
+        } catch (IllegalArgumentException e) {
+            throw new SerializationException("Cannot deserialize game event from " + topic, e);
+        }
+    }
+}
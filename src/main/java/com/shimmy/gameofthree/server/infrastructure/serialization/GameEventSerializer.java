@@ -0,0 +1,21 @@
+package com.shimmy.gameofthree.server.infrastructure.serialization;
+
+import com.shimmy.gameofthree.server.domain.event.GameEvent;
+import com.shimmy.gameofthree.server.domain.event.GameEventCodec;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+public class GameEventSerializer implements Serializer<GameEvent<?>> {
+
+    @Override
+    public byte[] serialize(String topic, GameEvent<?> event) {
+        if (event == null) {
+            return null;
+        }
+        try {
+            return GameEventCodec.encode(event);
+        } catch (IllegalArgumentException e) {
+            throw new SerializationException("Cannot serialize game event " + event.getId(), e);
+        }
+    }
+}
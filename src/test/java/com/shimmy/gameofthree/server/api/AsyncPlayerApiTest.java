@@ -0,0 +1,120 @@
+package com.shimmy.gameofthree.server.api;
+
+import com.shimmy.gameofthree.server.api.dto.CreatePlayerRequestDto;
+import com.shimmy.gameofthree.server.api.dto.CreatePlayerResponseDto;
+import com.shimmy.gameofthree.server.api.dto.PlayerDto;
+import com.shimmy.gameofthree.server.api.dto.PlayerEnterMatchmakingRequestDto;
+import com.shimmy.gameofthree.server.api.exception.InvalidPlayerDataException;
+import com.shimmy.gameofthree.server.api.exception.PlayerNotFoundException;
+import com.shimmy.gameofthree.server.api.mapper.PlayerMapper;
+import com.shimmy.gameofthree.server.application.BlockingCalls;
+import com.shimmy.gameofthree.server.application.PlayerService;
+import com.shimmy.gameofthree.server.domain.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncPlayerApiTest {
+
+    @Mock
+    private PlayerService playerService;
+
+    @Mock
+    private PlayerMapper playerMapper;
+
+    @Mock
+    private ShardRouting shardRouting;
+
+    @Spy
+    private BlockingCalls blockingCalls = new BlockingCalls();
+
+    @InjectMocks
+    private AsyncPlayerApi playerApi;
+
+    private Player testPlayer;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(blockingCalls, "maxBlockingCalls", 4);
+        ReflectionTestUtils.invokeMethod(blockingCalls, "init");
+        testPlayer = new Player();
+        testPlayer.setId("player1");
+        testPlayer.setName("Test Player");
+        testPlayer.setIsLookingForGame(false);
+    }
+
+    @Test
+    void createPlayer_WhenValidName_ShouldReturnPlayerIdThroughABlockingCall() {
+        when(playerService.createPlayer("Test Player")).thenReturn(testPlayer);
+
+        CreatePlayerResponseDto response = await(playerApi.createPlayer(new CreatePlayerRequestDto("Test Player")));
+
+        assertEquals("player1", response.getPlayerId());
+        verify(blockingCalls).supply(any());
+    }
+
+    @Test
+    void createPlayer_WhenNameInvalid_ShouldThrowException() {
+        when(playerService.createPlayer(""))
+                .thenThrow(new InvalidPlayerDataException("Player name must be between 1 and 32 characters."));
+
+        InvalidPlayerDataException exception = assertThrows(
+                InvalidPlayerDataException.class,
+                () -> await(playerApi.createPlayer(new CreatePlayerRequestDto(""))));
+        assertEquals("Player name must be between 1 and 32 characters.", exception.getMessage());
+    }
+
+    @Test
+    void enterMatchmaking_WhenValidPlayerId_ShouldReturnUpdatedPlayerDto() {
+        Player updatedPlayer = new Player();
+        updatedPlayer.setId("player1");
+        updatedPlayer.setIsLookingForGame(true);
+        PlayerDto updatedPlayerDto = new PlayerDto();
+        updatedPlayerDto.setId("player1");
+        updatedPlayerDto.setIsLookingForGame(true);
+        when(playerService.getPlayer("player1")).thenReturn(testPlayer);
+        when(playerService.setPlayerIsLookingForGame("player1", true)).thenReturn(updatedPlayer);
+        when(playerMapper.toDto(updatedPlayer)).thenReturn(updatedPlayerDto);
+
+        PlayerDto response = await(playerApi.enterMatchmaking(new PlayerEnterMatchmakingRequestDto("player1")));
+
+        assertTrue(response.getIsLookingForGame());
+        verify(shardRouting).requireLocal("player1");
+        verify(playerService).setPlayerIsLookingForGame("player1", true);
+    }
+
+    @Test
+    void enterMatchmaking_WhenPlayerNotFound_ShouldThrowException() {
+        when(playerService.getPlayer("nonexistent"))
+                .thenThrow(new PlayerNotFoundException("Player not found with ID: nonexistent"));
+
+        assertThrows(PlayerNotFoundException.class,
+                () -> await(playerApi.enterMatchmaking(new PlayerEnterMatchmakingRequestDto("nonexistent"))));
+        verify(playerService, never()).setPlayerIsLookingForGame(anyString(), anyBoolean());
+    }
+
+    // Waits for an async endpoint, rethrowing its exception as the exception handlers would see it
+    private static <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.domain.Game;
+import com.shimmy.gameofthree.server.domain.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActiveGameStoreTest {
+
+    @Mock
+    private GameRepository gameRepository;
+
+    @Mock
+    private PlayerRepository playerRepository;
+
+    @Spy
+    private GameMailboxes gameMailboxes = new GameMailboxes();
+
+    @Mock
+    private InactivityTimers inactivityTimers;
+
+    @Spy
+    private GameShards gameShards = new GameShards();
+
+    @Mock
+    private GameLog gameLog;
+
+    @InjectMocks
+    private ActiveGameStore activeGameStore;
+
+    private Game testGame;
+    private Player player1;
+    private Player player2;
+
+    @BeforeEach
+    void setUp() {
+        player1 = new Player("Player 1", false);
+        player1.setId("player1");
+        player2 = new Player("Player 2", false);
+        player2.setId("player2");
+
+        testGame = new Game();
+        testGame.setId("game1");
+        testGame.setPlayers(List.of(player1, player2));
+        testGame.setCurrentPlayer(player1);
+        testGame.setCurrentNumber(27);
+        testGame.setStatus(Game.GameStatus.IN_PROGRESS);
+        testGame.setLastUpdated(Instant.now());
+    }
+
+    @Test
+    void track_ShouldKeepOneInstancePerGame() {
+        Game tracked = activeGameStore.track(testGame);
+
+        assertNotSame(testGame, tracked);
+        assertSame(tracked, activeGameStore.track(testGame));
+        assertSame(tracked, activeGameStore.get("game1").orElseThrow());
+    }
+
+    @Test
+    void snapshot_ShouldNotChangeWithLaterMoves() {
+        Game tracked = activeGameStore.track(testGame);
+
+        Game snapshot = activeGameStore.snapshot("game1").orElseThrow();
+        tracked.setCurrentNumber(9);
+
+        assertNotSame(tracked, snapshot);
+        assertEquals(27, snapshot.getCurrentNumber());
+        verify(gameMailboxes).call(eq("game1"), any());
+        assertTrue(activeGameStore.snapshot("game2").isEmpty());
+    }
+
+    @Test
+    void snapshotAsync_ShouldNotWaitForMovesQueuedInTheMailbox() {
+        Game tracked = activeGameStore.track(testGame);
+        CompletableFuture<Void> moveApplied = new CompletableFuture<>();
+        gameMailboxes.submit("game1", () -> {
+            moveApplied.join();
+            tracked.setCurrentNumber(9);
+            return null;
+        });
+
+        CompletableFuture<Game> snapshot = activeGameStore.snapshotAsync("game1").orElseThrow();
+
+        assertFalse(snapshot.isDone());
+        moveApplied.complete(null);
+        assertEquals(9, snapshot.join().getCurrentNumber());
+        assertTrue(activeGameStore.snapshotAsync("game2").isEmpty());
+    }
+
+    @Test
+    void flush_ShouldWriteOnlyEndedGames() {
+        Game tracked = activeGameStore.track(testGame);
+        Game other = new Game();
+        other.setId("game2");
+        other.setPlayers(List.of(player1, player2));
+        other.setStatus(Game.GameStatus.IN_PROGRESS);
+        Game trackedOther = activeGameStore.track(other);
+
+        tracked.setCurrentNumber(9);
+        tracked.setCurrentPlayer(player2);
+        activeGameStore.markDirty(tracked);
+        trackedOther.setStatus(Game.GameStatus.COMPLETED);
+        trackedOther.setWinner(player2);
+        activeGameStore.markDirty(trackedOther);
+
+        assertEquals(1, activeGameStore.flush());
+        verify(gameRepository).updateState("game2", 0, null, Game.GameStatus.COMPLETED, null, player2);
+        verify(gameRepository, never()).updateState(eq("game1"), anyInt(), any(), any(), any(), any());
+        assertEquals(0, activeGameStore.flush());
+    }
+
+    @Test
+    void flush_ShouldEvictCompletedGamesOnceWritten() {
+        Game tracked = activeGameStore.track(testGame);
+        tracked.setStatus(Game.GameStatus.COMPLETED);
+        tracked.setWinner(player1);
+        activeGameStore.markDirty(tracked);
+
+        activeGameStore.flush();
+
+        assertFalse(activeGameStore.contains("game1"));
+        verify(gameRepository).updateState("game1", 27, player1, Game.GameStatus.COMPLETED, tracked.getLastUpdated(), player1);
+        verify(playerRepository).clearActiveGameIdByGameIdIn(List.of("game1"));
+        assertTrue(activeGameStore.findGameIdByPlayerId("player1").isEmpty());
+    }
+
+    @Test
+    void track_ShouldIndexGameByItsPlayers() {
+        activeGameStore.track(testGame);
+
+        assertEquals(Optional.of("game1"), activeGameStore.findGameIdByPlayerId("player1"));
+        assertEquals(Optional.of("game1"), activeGameStore.findGameIdByPlayerId("player2"));
+        assertTrue(activeGameStore.findGameIdByPlayerId("player3").isEmpty());
+    }
+
+    @Test
+    void flush_WhenPlayerAlreadyInNextGame_ShouldKeepTheirNewIndexEntry() {
+        Game tracked = activeGameStore.track(testGame);
+        tracked.setStatus(Game.GameStatus.COMPLETED);
+        tracked.setWinner(player1);
+        activeGameStore.markDirty(tracked);
+        Game nextGame = new Game();
+        nextGame.setId("game2");
+        nextGame.setPlayers(List.of(player1, player2));
+        nextGame.setStatus(Game.GameStatus.IN_PROGRESS);
+        nextGame.setLastUpdated(Instant.now());
+        activeGameStore.track(nextGame);
+
+        activeGameStore.flush();
+
+        assertEquals(Optional.of("game2"), activeGameStore.findGameIdByPlayerId("player1"));
+        assertEquals(Optional.of("game2"), activeGameStore.findGameIdByPlayerId("player2"));
+    }
+
+    @Test
+    void flush_WhenWriteFails_ShouldRetryOnNextFlush() {
+        Game tracked = activeGameStore.track(testGame);
+        tracked.setStatus(Game.GameStatus.COMPLETED);
+        activeGameStore.markDirty(tracked);
+        when(gameRepository.updateState(any(), anyInt(), any(), any(), any(), any()))
+                .thenThrow(new IllegalStateException("database is locked"))
+                .thenReturn(1);
+
+        assertThrows(IllegalStateException.class, () -> activeGameStore.flush());
+        assertEquals(1, activeGameStore.flush());
+    }
+
+    @Test
+    void restore_ShouldTrackGamesInProgress() {
+        when(gameRepository.findWithPlayersByStatus(Game.GameStatus.IN_PROGRESS)).thenReturn(List.of(testGame));
+        when(gameLog.catchUp(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        activeGameStore.restore();
+
+        assertTrue(activeGameStore.contains("game1"));
+        assertEquals(1, activeGameStore.size());
+    }
+
+    @Test
+    void restore_ShouldArmInactivityTimersFromLastUpdated() {
+        when(gameRepository.findWithPlayersByStatus(Game.GameStatus.IN_PROGRESS)).thenReturn(List.of(testGame));
+        when(gameLog.catchUp(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        activeGameStore.restore();
+
+        verify(inactivityTimers).arm("game1", testGame.getLastUpdated());
+    }
+
+    @Test
+    void restore_ShouldCatchGamesUpFromTheirLog() {
+        when(gameRepository.findWithPlayersByStatus(Game.GameStatus.IN_PROGRESS)).thenReturn(List.of(testGame));
+        Instant lastMove = Instant.now().plusSeconds(5);
+        when(gameLog.catchUp(any())).thenAnswer(invocation -> {
+            Game game = invocation.getArgument(0);
+            game.setCurrentNumber(9);
+            game.setCurrentPlayer(player2);
+            game.setLastUpdated(lastMove);
+            return game;
+        });
+
+        activeGameStore.restore();
+
+        Game tracked = activeGameStore.get("game1").orElseThrow();
+        assertEquals(9, tracked.getCurrentNumber());
+        assertEquals(player2, tracked.getCurrentPlayer());
+        assertEquals(27, testGame.getCurrentNumber());
+        verify(inactivityTimers).arm("game1", lastMove);
+        assertEquals(0, activeGameStore.flush());
+    }
+
+    @Test
+    void restore_WhenLogShowsGameEnded_ShouldWriteItOnNextFlush() {
+        when(gameRepository.findWithPlayersByStatus(Game.GameStatus.IN_PROGRESS)).thenReturn(List.of(testGame));
+        when(gameLog.catchUp(any())).thenAnswer(invocation -> {
+            Game game = invocation.getArgument(0);
+            game.setStatus(Game.GameStatus.COMPLETED);
+            game.setCurrentPlayer(null);
+            game.setWinner(player1);
+            return game;
+        });
+
+        activeGameStore.restore();
+
+        assertEquals(1, activeGameStore.flush());
+        verify(gameRepository).updateState("game1", 27, null, Game.GameStatus.COMPLETED, testGame.getLastUpdated(), player1);
+        assertFalse(activeGameStore.contains("game1"));
+    }
+
+    @Test
+    void markDirty_ShouldRearmGamesInProgressAndCancelCompletedOnes() {
+        Game tracked = activeGameStore.track(testGame);
+        Instant moveTime = Instant.now().plusSeconds(5);
+        tracked.setLastUpdated(moveTime);
+
+        activeGameStore.markDirty(tracked);
+        verify(inactivityTimers).arm("game1", moveTime);
+
+        tracked.setStatus(Game.GameStatus.COMPLETED);
+        activeGameStore.markDirty(tracked);
+        verify(inactivityTimers).cancel("game1");
+    }
+
+    @Test
+    void track_WhenAlreadyTracked_ShouldNotRearm() {
+        activeGameStore.track(testGame);
+        activeGameStore.track(testGame);
+
+        verify(inactivityTimers, times(1)).arm(eq("game1"), any());
+    }
+}
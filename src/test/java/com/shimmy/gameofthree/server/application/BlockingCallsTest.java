@@ -0,0 +1,68 @@
+package com.shimmy.gameofthree.server.application;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlockingCallsTest {
+    private final BlockingCalls blockingCalls = new BlockingCalls();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(blockingCalls, "maxBlockingCalls", 3);
+        blockingCalls.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        blockingCalls.destroy();
+    }
+
+    @Test
+    void supply_ShouldRunNoMoreCallsAtOnceThanAllowed() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+
+        for (int i = 0; i < 30; i++) {
+            int call = i;
+            results.add(blockingCalls.supply(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                return call;
+            }));
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).join());
+        }
+        assertEquals(3, maxRunning.get());
+    }
+
+    @Test
+    void supply_WhenCallFails_ShouldCompleteExceptionallyAndFreeItsPermit() {
+        CompletableFuture<Object> failed = blockingCalls.supply(() -> {
+            throw new IllegalStateException("database is locked");
+        });
+
+        CompletionException exception = assertThrows(CompletionException.class, failed::join);
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+        for (int i = 0; i < 3; i++) {
+            assertEquals("ok", blockingCalls.supply(() -> "ok").join());
+        }
+    }
+}
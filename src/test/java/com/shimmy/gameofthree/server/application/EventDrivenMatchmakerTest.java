@@ -0,0 +1,85 @@
+package com.shimmy.gameofthree.server.application;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventDrivenMatchmakerTest {
+
+    @Spy
+    private MatchmakingQueue matchmakingQueue = new MatchmakingQueue();
+
+    @Mock
+    private GameService gameService;
+
+    @InjectMocks
+    private EventDrivenMatchmaker matchmaker;
+
+    @AfterEach
+    void tearDown() {
+        matchmaker.stop();
+    }
+
+    @Test
+    void start_WhenEventDriven_ShouldMatchAsSoonAsTwoPlayersAreQueued() throws InterruptedException {
+        ReflectionTestUtils.setField(matchmaker, "matchmakingMode", MatchmakingMode.EVENT_DRIVEN);
+        CountDownLatch matched = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            matchmakingQueue.pollPairs(10);
+            matched.countDown();
+            return null;
+        }).when(gameService).gameMatchmaking();
+        matchmaker.start();
+
+        matchmakingQueue.enqueue("player1");
+        matchmakingQueue.enqueue("player2");
+
+        // The invocation is recorded before the answer runs, so wait for the answer itself
+        assertTrue(matched.await(1, TimeUnit.SECONDS));
+        verify(gameService).gameMatchmaking();
+        assertTrue(matchmaker.isRunning());
+        assertEquals(0, matchmakingQueue.size());
+    }
+
+    @Test
+    void start_WhenOnlyOnePlayerQueued_ShouldNotRunMatchmaking() throws InterruptedException {
+        ReflectionTestUtils.setField(matchmaker, "matchmakingMode", MatchmakingMode.BOTH);
+        // The worker decides from the queue size whether to match, so once it has read it the decision is made
+        CountDownLatch checked = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            Object size = invocation.callRealMethod();
+            checked.countDown();
+            return size;
+        }).when(matchmakingQueue).size();
+        matchmaker.start();
+
+        matchmakingQueue.enqueue("player1");
+
+        assertTrue(checked.await(1, TimeUnit.SECONDS));
+        verifyNoInteractions(gameService);
+    }
+
+    @Test
+    void start_WhenScheduledOnly_ShouldNotStartMatchmakerThread() {
+        ReflectionTestUtils.setField(matchmaker, "matchmakingMode", MatchmakingMode.SCHEDULED);
+        matchmaker.start();
+
+        matchmakingQueue.enqueue("player1");
+        matchmakingQueue.enqueue("player2");
+
+        assertFalse(matchmaker.isRunning());
+        verifyNoInteractions(gameService);
+    }
+}
@@ -0,0 +1,141 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.domain.Game;
+import com.shimmy.gameofthree.server.domain.Player;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GameCleanupJobsTest {
+
+    @Mock
+    private GameRepository gameRepository;
+
+    @Mock
+    private GameService gameService;
+
+    @Mock
+    private ActiveGameStore activeGameStore;
+
+    @Mock
+    private InactivityTimers inactivityTimers;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager(Caches.GAMES);
+
+    @Mock
+    private Leases leases;
+
+    @InjectMocks
+    private GameCleanupJobs gameCleanupJobs;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(gameCleanupJobs, "batchSize", 2);
+        gameCleanupJobs.registerMetrics();
+        lenient().when(leases.holds(GameCleanupJobs.COMPLETED_GAMES_LEASE)).thenReturn(true);
+    }
+
+    @Test
+    void cleanUpCompletedGames_ShouldDeleteInChunks() {
+        when(gameRepository.findIdsByStatus(Game.GameStatus.COMPLETED, PageRequest.of(0, 2)))
+                .thenReturn(List.of("game1", "game2"))
+                .thenReturn(List.of("game3"));
+        when(gameRepository.deleteByIdIn(anyList())).thenReturn(2).thenReturn(1);
+        cacheManager.getCache(Caches.GAMES).put("game1", game("game1"));
+
+        gameCleanupJobs.cleanUpCompletedGames();
+
+        verify(gameRepository).deleteByIdIn(List.of("game1", "game2"));
+        verify(gameRepository).deleteByIdIn(List.of("game3"));
+        verify(transactionManager, times(2)).commit(any());
+        verify(gameRepository, never()).delete(any());
+        assertNull(cacheManager.getCache(Caches.GAMES).get("game1"));
+        assertEquals(3, meterRegistry.get("game.cleanup.rows").tag("job", "completed").counter().count());
+        assertEquals(1, meterRegistry.get("game.cleanup.duration").tag("job", "completed").timer().count());
+    }
+
+    @Test
+    void cleanUpCompletedGames_WhenNothingToDelete_ShouldStopAfterOneQuery() {
+        when(gameRepository.findIdsByStatus(Game.GameStatus.COMPLETED, PageRequest.of(0, 2)))
+                .thenReturn(List.of());
+
+        gameCleanupJobs.cleanUpCompletedGames();
+
+        verify(gameRepository, never()).deleteByIdIn(anyList());
+        assertEquals(0, meterRegistry.get("game.cleanup.rows").tag("job", "completed").counter().count());
+    }
+
+    @Test
+    void cleanUpCompletedGames_WhenAnotherNodeHoldsTheLease_ShouldNotRun() {
+        when(leases.holds(GameCleanupJobs.COMPLETED_GAMES_LEASE)).thenReturn(false);
+
+        gameCleanupJobs.cleanUpCompletedGames();
+
+        verifyNoInteractions(gameRepository, transactionManager);
+    }
+
+    @Test
+    void completeInactiveGames_ShouldEndExpiredGamesInChunks() {
+        List<Game> inactiveGames = List.of(game("game1"), game("game2"), game("game3"));
+        inactiveGames.forEach(game -> when(activeGameStore.get(game.getId())).thenReturn(Optional.of(game)));
+        when(activeGameStore.get("evicted")).thenReturn(Optional.empty());
+        when(inactivityTimers.timeoutFor(anyString())).thenReturn(Duration.ofSeconds(60));
+        when(gameService.endInactiveGames(anyList(), any())).thenReturn(2, 1);
+
+        gameCleanupJobs.completeInactiveGames(List.of("game1", "game2", "evicted", "game3"));
+
+        ArgumentCaptor<Instant> threshold = ArgumentCaptor.forClass(Instant.class);
+        verify(gameService).endInactiveGames(eq(inactiveGames.subList(0, 2)), threshold.capture());
+        verify(gameService).endInactiveGames(eq(inactiveGames.subList(2, 3)), any(Instant.class));
+        assertTrue(threshold.getValue().isBefore(Instant.now().minusSeconds(59)));
+        verifyNoInteractions(gameRepository);
+        assertEquals(3, meterRegistry.get("game.cleanup.rows").tag("job", "inactive").counter().count());
+        assertEquals(1, meterRegistry.get("game.cleanup.duration").tag("job", "inactive").timer().count());
+    }
+
+    private static Game game(String gameId) {
+        Player player1 = new Player("Player 1", false);
+        player1.setId(gameId + "-player1");
+        Player player2 = new Player("Player 2", false);
+        player2.setId(gameId + "-player2");
+        Game game = new Game();
+        game.setId(gameId);
+        game.setPlayers(List.of(player1, player2));
+        game.setCurrentPlayer(player1);
+        game.setStatus(Game.GameStatus.IN_PROGRESS);
+        game.setLastUpdated(Instant.now().minusSeconds(120));
+        return game;
+    }
+}
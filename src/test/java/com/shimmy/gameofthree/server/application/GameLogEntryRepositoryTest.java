@@ -0,0 +1,64 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.domain.GameLogEntry;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+class GameLogEntryRepositoryTest {
+
+    @Autowired
+    private GameLogEntryRepository gameLogEntryRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        for (String gameId : List.of("game-b", "game-a", "game-c")) {
+            for (long sequence = 1; sequence <= 3; sequence++) {
+                entityManager.persist(new GameLogEntry(gameId, sequence, new byte[]{1}, Instant.now()));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findByGameIdAndSequenceGreaterThan_ShouldReturnTheTailInOrder() {
+        List<GameLogEntry> tail = gameLogEntryRepository.findByGameIdAndSequenceGreaterThanOrderBySequenceAsc("game-a", 1);
+
+        assertEquals(List.of(2L, 3L), tail.stream().map(GameLogEntry::getSequence).toList());
+    }
+
+    @Test
+    void save_WhenTheSequenceIsAlreadyLogged_ShouldBeRejected() {
+        gameLogEntryRepository.save(new GameLogEntry("game-a", 3, new byte[]{2}, Instant.now()));
+
+        assertThrows(ConstraintViolationException.class, () -> entityManager.flush());
+    }
+
+    @Test
+    void findMaxSequenceByGameId_ShouldReturnTheLastSequenceOrNull() {
+        assertEquals(3L, gameLogEntryRepository.findMaxSequenceByGameId("game-b"));
+        assertNull(gameLogEntryRepository.findMaxSequenceByGameId("unknown"));
+    }
+
+    @Test
+    void findGameIdsAfter_ShouldPageThroughDistinctGameIds() {
+        assertEquals(List.of("game-a", "game-b"), gameLogEntryRepository.findGameIdsAfter("", Limit.of(2)));
+        assertEquals(List.of("game-c"), gameLogEntryRepository.findGameIdsAfter("game-b", Limit.of(2)));
+    }
+}
@@ -0,0 +1,263 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.domain.Game;
+import com.shimmy.gameofthree.server.domain.GameLogEntry;
+import com.shimmy.gameofthree.server.domain.GameLogState;
+import com.shimmy.gameofthree.server.domain.GameSnapshot;
+import com.shimmy.gameofthree.server.domain.Player;
+import com.shimmy.gameofthree.server.domain.event.ClientMoveEvent;
+import com.shimmy.gameofthree.server.domain.event.GameEndedEvent;
+import com.shimmy.gameofthree.server.domain.event.GameEvent;
+import com.shimmy.gameofthree.server.domain.event.GameEventCodec;
+import com.shimmy.gameofthree.server.domain.event.GameMatchmakingEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GameLogTest {
+
+    @Mock
+    private GameLogEntryRepository gameLogEntryRepository;
+
+    @Mock
+    private GameSnapshotRepository gameSnapshotRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private GameLog gameLog;
+
+    @Captor
+    private ArgumentCaptor<List<GameLogEntry>> entriesCaptor;
+
+    @Captor
+    private ArgumentCaptor<List<GameSnapshot>> snapshotsCaptor;
+
+    private Game game;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(gameLog, "snapshotInterval", 2);
+        ReflectionTestUtils.setField(gameLog, "rebuildBatchSize", 2);
+        gameLog.registerMetrics();
+
+        Player player1 = new Player("Player 1", false);
+        player1.setId("player1");
+        Player player2 = new Player("Player 2", false);
+        player2.setId("player2");
+        game = new Game();
+        game.setId("game1");
+        game.setPlayers(List.of(player1, player2));
+        game.setCurrentPlayer(player1);
+        game.setCurrentNumber(27);
+        game.setStatus(Game.GameStatus.IN_PROGRESS);
+        game.setLastUpdated(Instant.now());
+    }
+
+    @Test
+    void append_ShouldNumberEntriesAndSnapshotEveryInterval() {
+        gameLog.start(game, matchmaking());
+        gameLog.append(game, new ClientMoveEvent("game1", "player1", 0));
+        gameLog.append(game, new ClientMoveEvent("game1", "player2", 0));
+
+        assertEquals(3, gameLog.flush());
+
+        List<GameLogEntry> entries = savedEntries();
+        assertEquals(List.of(1L, 2L, 3L), entries.stream().map(GameLogEntry::getSequence).toList());
+        assertEquals(new ClientMoveEvent("game1", "player1", 0), GameEventCodec.decode(entries.get(1).getPayload()).getData());
+        List<GameSnapshot> snapshots = savedSnapshots();
+        assertEquals(1, snapshots.size());
+        assertEquals(2, snapshots.get(0).getSequence());
+        assertEquals(3, meterRegistry.get("game.log.appended").counter().count());
+        verify(gameLogEntryRepository, never()).findMaxSequenceByGameId(any());
+    }
+
+    @Test
+    void append_AfterRestart_ShouldContinueFromTheLastPersistedSequence() {
+        when(gameLogEntryRepository.findMaxSequenceByGameId("game1")).thenReturn(6L);
+
+        gameLog.append(game, new ClientMoveEvent("game1", "player1", 0));
+        gameLog.flush();
+
+        assertEquals(7, savedEntries().get(0).getSequence());
+    }
+
+    @Test
+    void append_ShouldLookUpTheLastPersistedSequenceOnlyOnce() {
+        when(gameLogEntryRepository.findMaxSequenceByGameId("game1")).thenReturn(6L);
+
+        gameLog.append(game, new ClientMoveEvent("game1", "player1", 0));
+        gameLog.append(game, new ClientMoveEvent("game1", "player2", 0));
+        gameLog.flush();
+
+        assertEquals(List.of(7L, 8L), savedEntries().stream().map(GameLogEntry::getSequence).toList());
+        verify(gameLogEntryRepository, times(1)).findMaxSequenceByGameId("game1");
+    }
+
+    @Test
+    void append_WhenGameEnds_ShouldSnapshotTheFinalState() {
+        gameLog.start(game, matchmaking());
+        game.setStatus(Game.GameStatus.COMPLETED);
+        game.setWinner(game.getPlayers().get(1));
+        game.setCurrentPlayer(null);
+        gameLog.append(game, new GameEndedEvent("game1", "player2"));
+        gameLog.flush();
+
+        GameSnapshot snapshot = savedSnapshots().get(0);
+        assertEquals(2, snapshot.getSequence());
+        assertEquals(Game.GameStatus.COMPLETED, snapshot.getStatus());
+        assertEquals("player2", snapshot.getWinnerId());
+    }
+
+    @Test
+    void flush_WhenSaveFails_ShouldKeepEntriesForTheNextFlush() {
+        gameLog.start(game, matchmaking());
+        when(gameLogEntryRepository.saveAll(anyList())).thenThrow(new IllegalStateException("database is locked"));
+
+        assertThrows(IllegalStateException.class, () -> gameLog.flush());
+
+        assertEquals(1, meterRegistry.get("game.log.pending").gauge().value());
+    }
+
+    @Test
+    void flush_WhenAnotherNodeContinuedAGame_ShouldDropOnlyThatGamesEntries() {
+        Game otherGame = ActiveGameStore.copyOf(game);
+        otherGame.setId("game2");
+        gameLog.start(game, matchmaking());
+        gameLog.start(otherGame, new GameMatchmakingEvent("game2", "player1", "player2", 27, "player1"));
+        when(gameLogEntryRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<GameLogEntry> entries = invocation.getArgument(0);
+            if (entries.stream().anyMatch(entry -> entry.getGameId().equals("game1"))) {
+                throw new DataIntegrityViolationException("Unique index or primary key violation");
+            }
+            return entries;
+        });
+
+        assertEquals(1, gameLog.flush());
+
+        assertEquals(0, meterRegistry.get("game.log.pending").gauge().value());
+        // The dropped game's next entry continues after whatever its new owner logged
+        when(gameLogEntryRepository.findMaxSequenceByGameId("game1")).thenReturn(4L);
+        gameLog.append(game, new ClientMoveEvent("game1", "player1", 0));
+        verify(gameLogEntryRepository).findMaxSequenceByGameId("game1");
+    }
+
+    @Test
+    void replay_ShouldApplyTheEntriesAfterTheLatestSnapshot() {
+        GameSnapshot snapshot = GameSnapshot.of(game, 4);
+        when(gameSnapshotRepository.findFirstByGameIdOrderBySequenceDesc("game1")).thenReturn(Optional.of(snapshot));
+        when(gameLogEntryRepository.findByGameIdAndSequenceGreaterThanOrderBySequenceAsc("game1", 4))
+                .thenReturn(List.of(entry(5, new ClientMoveEvent("game1", "player1", 0))));
+
+        GameLogState state = gameLog.replay("game1").orElseThrow();
+
+        assertEquals(5, state.getSequence());
+        assertEquals(9, state.getCurrentNumber());
+        assertEquals("player2", state.getCurrentPlayerId());
+        assertEquals(Game.GameStatus.IN_PROGRESS, state.getStatus());
+    }
+
+    @Test
+    void replay_WhenGameNeverLogged_ShouldReturnEmpty() {
+        assertTrue(gameLog.replay("unknown").isEmpty());
+    }
+
+    @Test
+    void catchUp_ShouldApplyTheLoggedMovesToTheGameRow() {
+        when(gameLogEntryRepository.findByGameIdAndSequenceGreaterThanOrderBySequenceAsc("game1", 0)).thenReturn(List.of(
+                entry(1, matchmaking()),
+                entry(2, new ClientMoveEvent("game1", "player1", 0))));
+
+        Game caughtUp = gameLog.catchUp(game);
+
+        assertEquals(9, caughtUp.getCurrentNumber());
+        assertEquals(game.getPlayers().get(1), caughtUp.getCurrentPlayer());
+        assertEquals(Game.GameStatus.IN_PROGRESS, caughtUp.getStatus());
+        verify(gameLogEntryRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void catchUp_WhenGameNeverLogged_ShouldLeaveTheGameUnchanged() {
+        Game caughtUp = gameLog.catchUp(game);
+
+        assertEquals(27, caughtUp.getCurrentNumber());
+        assertEquals(game.getPlayers().get(0), caughtUp.getCurrentPlayer());
+    }
+
+    @Test
+    void rebuild_ShouldReplayTheWholeLogAndReplaceTheSnapshots() {
+        when(gameLogEntryRepository.findByGameIdAndSequenceGreaterThanOrderBySequenceAsc("game1", 0)).thenReturn(List.of(
+                entry(1, matchmaking()),
+                entry(2, new ClientMoveEvent("game1", "player1", 0)),
+                entry(3, new ClientMoveEvent("game1", "player2", 0)),
+                entry(4, new ClientMoveEvent("game1", "player1", 0))));
+
+        GameLogState state = gameLog.rebuild("game1").orElseThrow();
+
+        assertEquals(Game.GameStatus.COMPLETED, state.getStatus());
+        assertEquals("player1", state.getWinnerId());
+        assertEquals(1, state.getCurrentNumber());
+        verify(gameSnapshotRepository).deleteByGameId("game1");
+        ArgumentCaptor<GameSnapshot> captor = ArgumentCaptor.forClass(GameSnapshot.class);
+        verify(gameSnapshotRepository).save(captor.capture());
+        assertEquals(4, captor.getValue().getSequence());
+        verify(gameSnapshotRepository, never()).findFirstByGameIdOrderBySequenceDesc(any());
+    }
+
+    @Test
+    void rebuildAll_ShouldPageThroughEveryLoggedGame() {
+        when(gameLogEntryRepository.findGameIdsAfter("", Limit.of(2))).thenReturn(List.of("game1", "game2"));
+        when(gameLogEntryRepository.findGameIdsAfter("game2", Limit.of(2))).thenReturn(List.of("game3"));
+        when(gameLogEntryRepository.findGameIdsAfter("game3", Limit.of(2))).thenReturn(List.of());
+        when(gameLogEntryRepository.findByGameIdAndSequenceGreaterThanOrderBySequenceAsc(anyString(), eq(0L)))
+                .thenAnswer(invocation -> List.of(entry(1, matchmaking())));
+
+        assertEquals(3, gameLog.rebuildAll());
+
+        verify(gameSnapshotRepository, times(3)).save(any());
+    }
+
+    private GameMatchmakingEvent matchmaking() {
+        return new GameMatchmakingEvent("game1", "player1", "player2", 27, "player1");
+    }
+
+    private static GameLogEntry entry(long sequence, Object event) {
+        return new GameLogEntry("game1", sequence, GameEventCodec.encode(new GameEvent<>(null, null, null, event)), Instant.now());
+    }
+
+    private List<GameLogEntry> savedEntries() {
+        verify(gameLogEntryRepository).saveAll(entriesCaptor.capture());
+        return new ArrayList<>(entriesCaptor.getValue());
+    }
+
+    private List<GameSnapshot> savedSnapshots() {
+        verify(gameSnapshotRepository).saveAll(snapshotsCaptor.capture());
+        return new ArrayList<>(snapshotsCaptor.getValue());
+    }
+}
@@ -0,0 +1,109 @@
+package com.shimmy.gameofthree.server.application;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameMailboxesTest {
+
+    private final GameMailboxes gameMailboxes = new GameMailboxes();
+
+    @AfterEach
+    void tearDown() {
+        gameMailboxes.destroy();
+    }
+
+    @Test
+    void submit_ShouldRunTasksForOneGameInSubmissionOrder() {
+        List<Integer> executed = new ArrayList<>();
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            int task = i;
+            results.add(gameMailboxes.submit("game1", () -> {
+                executed.add(task);
+                return task;
+            }));
+        }
+
+        results.forEach(CompletableFuture::join);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, executed.get(i));
+        }
+    }
+
+    @Test
+    void submit_ShouldNeverRunTwoTasksForOneGameAtOnce() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            results.add(gameMailboxes.submit("game1", () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.yield();
+                running.decrementAndGet();
+                return null;
+            }));
+        }
+
+        results.forEach(CompletableFuture::join);
+        assertEquals(1, maxRunning.get());
+    }
+
+    @Test
+    void submit_ShouldRunTasksForDifferentGamesInParallel() throws InterruptedException {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable task = () -> {
+            bothStarted.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        CompletableFuture<Void> first = gameMailboxes.submit("game1", () -> { task.run(); return null; });
+        CompletableFuture<Void> second = gameMailboxes.submit("game2", () -> { task.run(); return null; });
+
+        assertTrue(bothStarted.await(5, TimeUnit.SECONDS));
+        release.countDown();
+        first.join();
+        second.join();
+    }
+
+    @Test
+    void call_WhenTaskFails_ShouldRethrowAndKeepMailboxUsable() {
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> gameMailboxes.call("game1", () -> { throw new IllegalStateException("boom"); }));
+
+        assertEquals("boom", error.getMessage());
+        assertEquals(42, gameMailboxes.call("game1", () -> 42));
+    }
+
+    @Test
+    void call_WhenAlreadyInSameMailbox_ShouldRunInline() {
+        int result = gameMailboxes.call("game1", () -> gameMailboxes.call("game1", () -> 7));
+
+        assertEquals(7, result);
+    }
+
+    @Test
+    void submit_ShouldForgetIdleMailboxes() {
+        gameMailboxes.call("game1", () -> 1);
+        gameMailboxes.call("game2", () -> 2);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (gameMailboxes.activeMailboxes() > 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(0, gameMailboxes.activeMailboxes());
+    }
+}
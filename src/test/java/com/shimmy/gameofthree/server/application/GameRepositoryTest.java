@@ -0,0 +1,129 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.domain.Game;
+import com.shimmy.gameofthree.server.domain.Player;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Counts the statements each fetch plan issues, so an eager association or N+1 creeping back fails here
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("h2")
+class GameRepositoryTest {
+
+    private static final int GAMES = 5;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private final List<Game> games = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < GAMES; i++) {
+            Player player1 = entityManager.persist(new Player("Player " + i + "a", false));
+            Player player2 = entityManager.persist(new Player("Player " + i + "b", false));
+            Game game = new Game();
+            game.setPlayers(List.of(player1, player2));
+            game.setCurrentPlayer(player1);
+            game.setCurrentNumber(27);
+            game.setStatus(Game.GameStatus.IN_PROGRESS);
+            game.setLastUpdated(Instant.now());
+            games.add(entityManager.persist(game));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findById_ShouldNotLoadPlayers() {
+        Game game = gameRepository.findById(games.get(0).getId()).orElseThrow();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertFalse(Hibernate.isInitialized(game.getPlayers()));
+        assertFalse(Hibernate.isInitialized(game.getCurrentPlayer()));
+    }
+
+    @Test
+    void findWithPlayersById_ShouldLoadPlayersInOneQuery() {
+        Game game = gameRepository.findWithPlayersById(games.get(0).getId()).orElseThrow();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertTrue(Hibernate.isInitialized(game.getPlayers()));
+        assertTrue(Hibernate.isInitialized(game.getCurrentPlayer()));
+        assertEquals(2, game.getPlayers().size());
+        assertEquals(game.getPlayers().get(0).getName(), game.getCurrentPlayer().getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findWithPlayersByStatus_ShouldLoadAllGamesWithoutNPlusOne() {
+        List<Game> inProgress = gameRepository.findWithPlayersByStatus(Game.GameStatus.IN_PROGRESS);
+
+        assertEquals(GAMES, inProgress.size());
+        inProgress.forEach(game -> {
+            assertTrue(Hibernate.isInitialized(game.getPlayers()));
+            assertEquals(2, game.getPlayers().size());
+            assertNotNull(game.getCurrentPlayer().getName());
+        });
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findIdsByStatus_ShouldReadOnlyIds() {
+        List<String> ids = gameRepository.findIdsByStatus(Game.GameStatus.IN_PROGRESS, PageRequest.of(0, 3));
+
+        assertEquals(3, ids.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void updateState_ShouldWriteOneStatementWithoutLoadingTheGame() {
+        Game game = games.get(0);
+
+        int updated = gameRepository.updateState(game.getId(), 9, game.getPlayers().get(1),
+                Game.GameStatus.IN_PROGRESS, Instant.now(), null);
+
+        assertEquals(1, updated);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void deleteByIdIn_ShouldDeleteGamesAndTheirPlayerRowsInTwoStatements() {
+        List<String> ids = games.stream().map(Game::getId).toList();
+
+        int deleted = gameRepository.deleteByIdIn(ids);
+
+        assertEquals(GAMES, deleted);
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, gameRepository.count());
+        assertEquals(0L, entityManager.getEntityManager()
+                .createNativeQuery("select count(*) from game_players").getSingleResult());
+    }
+}
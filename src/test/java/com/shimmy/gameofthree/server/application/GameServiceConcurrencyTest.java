@@ -0,0 +1,160 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.domain.Game;
+import com.shimmy.gameofthree.server.domain.Player;
+import com.shimmy.gameofthree.server.domain.event.GameStateChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Fires concurrent moves from both players of thousands of games and checks every game
+// still observes a strict turn order
+@ExtendWith(MockitoExtension.class)
+class GameServiceConcurrencyTest {
+
+    private static final int GAMES = 2000;
+    private static final int ATTEMPTS_PER_PLAYER = 8;
+    // 3^10, so move 0 is always valid and every game takes exactly ten moves to finish
+    private static final int START_NUMBER = 59049;
+    private static final int MOVES_PER_GAME = 10;
+
+    @Mock
+    private GameRepository gameRepository;
+
+    @Mock
+    private PlayerService playerService;
+
+    @Mock
+    private GameEventOutbox gameEventOutbox;
+
+    @Mock(stubOnly = true)
+    private GameLog gameLog;
+
+    @InjectMocks
+    private GameService gameService;
+
+    // Real collaborators rather than spies or mocks, so Mockito does not record every call of the run
+    private final ActiveGameStore activeGameStore = new ActiveGameStore();
+    private final GameMailboxes gameMailboxes = new GameMailboxes();
+    private final InactivityTimers inactivityTimers = new InactivityTimers();
+    private final Map<String, List<GameStateChangedEvent>> eventsByGame = new ConcurrentHashMap<>();
+    private final GameStateNotifier gameStateNotifier = event -> eventsByGame
+            .computeIfAbsent(event.getGameId(), id -> Collections.synchronizedList(new ArrayList<>()))
+            .add(event);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(inactivityTimers, "timeout", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(activeGameStore, "gameMailboxes", gameMailboxes);
+        ReflectionTestUtils.setField(activeGameStore, "inactivityTimers", inactivityTimers);
+        ReflectionTestUtils.setField(gameService, "activeGameStore", activeGameStore);
+        ReflectionTestUtils.setField(gameService, "gameMailboxes", gameMailboxes);
+        ReflectionTestUtils.setField(gameService, "gameStateNotifier", gameStateNotifier);
+        ReflectionTestUtils.setField(gameService, "meterRegistry", new SimpleMeterRegistry());
+        gameService.registerMetrics();
+
+        for (int i = 0; i < GAMES; i++) {
+            Player player1 = new Player("Player " + i + "a", false);
+            player1.setId("game" + i + "-player1");
+            Player player2 = new Player("Player " + i + "b", false);
+            player2.setId("game" + i + "-player2");
+
+            Game game = new Game();
+            game.setId("game" + i);
+            game.setPlayers(List.of(player1, player2));
+            game.setCurrentPlayer(i % 2 == 0 ? player1 : player2);
+            game.setCurrentNumber(START_NUMBER);
+            game.setStatus(Game.GameStatus.IN_PROGRESS);
+            game.setLastUpdated(Instant.now());
+            activeGameStore.track(game);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        gameMailboxes.destroy();
+    }
+
+    @Test
+    void makeMove_WhenBothPlayersMoveConcurrently_ShouldKeepStrictTurnOrder() throws Exception {
+        Map<String, AtomicInteger> acceptedMoves = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> attempts = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < GAMES; i++) {
+                for (String player : List.of("-player1", "-player2")) {
+                    String gameId = "game" + i;
+                    String playerId = gameId + player;
+                    attempts.add(executor.submit(() -> {
+                        start.await();
+                        for (int attempt = 0; attempt < ATTEMPTS_PER_PLAYER; attempt++) {
+                            try {
+                                gameService.makeMove(gameId, playerId, 0);
+                                acceptedMoves.computeIfAbsent(gameId, id -> new AtomicInteger()).incrementAndGet();
+                            } catch (RuntimeException rejected) {
+                                // Not this player's turn, or the game is already over
+                            }
+                            Thread.yield();
+                        }
+                        return null;
+                    }));
+                }
+            }
+            start.countDown();
+            for (Future<?> attempt : attempts) {
+                attempt.get();
+            }
+        }
+
+        for (int i = 0; i < GAMES; i++) {
+            String gameId = "game" + i;
+            Game game = activeGameStore.get(gameId).orElseThrow();
+            List<GameStateChangedEvent> events = eventsByGame.getOrDefault(gameId, List.of());
+            int accepted = acceptedMoves.getOrDefault(gameId, new AtomicInteger()).get();
+            String firstPlayer = gameId + (i % 2 == 0 ? "-player1" : "-player2");
+            String secondPlayer = gameId + (i % 2 == 0 ? "-player2" : "-player1");
+
+            // Each player gets at most one accepted move per turn, so a complete game needs enough attempts
+            assertTrue(accepted <= MOVES_PER_GAME, gameId + " accepted " + accepted + " moves");
+            assertEquals(accepted, events.size(), gameId);
+
+            int expectedNumber = START_NUMBER;
+            for (int move = 0; move < events.size(); move++) {
+                GameStateChangedEvent event = events.get(move);
+                expectedNumber /= 3;
+                assertEquals(expectedNumber, event.getCurrentNumber(), gameId + " move " + move);
+                String mover = move % 2 == 0 ? firstPlayer : secondPlayer;
+                String waiting = move % 2 == 0 ? secondPlayer : firstPlayer;
+                if (expectedNumber == 1) {
+                    assertEquals(Game.GameStatus.COMPLETED, event.getStatus(), gameId);
+                    assertEquals(mover, event.getWinnerId(), gameId);
+                } else {
+                    assertEquals(waiting, event.getCurrentPlayerId(), gameId + " move " + move);
+                }
+            }
+            assertEquals(expectedNumber, game.getCurrentNumber(), gameId);
+        }
+    }
+}
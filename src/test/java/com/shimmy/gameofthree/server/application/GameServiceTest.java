@@ -1,327 +1,613 @@
-package com.shimmy.gameofthree.server.application;
-
-import com.shimmy.gameofthree.server.api.exception.GameNotFoundException;
-import com.shimmy.gameofthree.server.api.exception.InvalidGameStateException;
-import com.shimmy.gameofthree.server.api.exception.InvalidMoveException;
-import com.shimmy.gameofthree.server.domain.Game;
-import com.shimmy.gameofthree.server.domain.Player;
-import com.shimmy.gameofthree.server.domain.event.GameEvent;
-import com.shimmy.gameofthree.server.domain.event.GameMatchmakingEvent;
-import org.junit.jupiter.api.BeforeEach;
-import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
-import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
-
-import java.time.Instant;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-
-import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.*;
-
-@ExtendWith(MockitoExtension.class)
-class GameServiceTest {
-
-    @Mock
-    private GameRepository gameRepository;
-
-    @Mock
-    private PlayerService playerService;
-
-    @Mock
-    private GamePublisher gameEventPublisher;
-
-    @InjectMocks
-    private GameService gameService;
-
-    private Game testGame;
-    private Player player1;
-    private Player player2;
-
-    @BeforeEach
-    void setUp() {
-        player1 = new Player("Player 1", false);
-        player1.setId("player1");
-
-        player2 = new Player("Player 2", false);
-        player2.setId("player2");
-
-        testGame = new Game();
-        testGame.setId("game1");
-        testGame.setPlayers(new ArrayList<>(List.of(player1, player2)));
-        testGame.setCurrentPlayer(player1);
-        testGame.setCurrentNumber(27);
-        testGame.setStatus(Game.GameStatus.IN_PROGRESS);
-        testGame.setLastUpdated(Instant.now());
-    }
-
-    @Test
-    void createGame_ShouldCreateAndReturnNewGame() {
-        Game newGame = new Game();
-        newGame.setId("newGame");
-        when(gameRepository.save(any(Game.class))).thenReturn(newGame);
-
-        Game result = gameService.createGame();
-
-        assertNotNull(result);
-        assertEquals("newGame", result.getId());
-        verify(gameRepository).save(any(Game.class));
-    }
-
-    @Test
-    void addPlayer_WhenValidGameAndPlayer_ShouldAddPlayerToGame() {
-        Game game = new Game();
-        game.setId("game1");
-        game.setPlayers(new ArrayList<>());
-
-        when(gameRepository.findById("game1")).thenReturn(Optional.of(game));
-        when(playerService.getPlayer("player1")).thenReturn(player1);
-        when(gameRepository.save(any(Game.class))).thenReturn(game);
-
-        gameService.addPlayer("game1", "player1");
-
-        assertTrue(game.getPlayers().contains(player1));
-        verify(gameRepository).save(game);
-    }
-
-    @Test
-    void startGame_WhenEnoughPlayers_ShouldStartGame() {
-        Game game = new Game();
-        game.setId("game1");
-        game.setPlayers(List.of(player1, player2));
-
-        when(gameRepository.findById("game1")).thenReturn(Optional.of(game));
-        when(gameRepository.save(any(Game.class))).thenReturn(game);
-
-        gameService.startGame("game1");
-
-        assertEquals(Game.GameStatus.IN_PROGRESS, game.getStatus());
-        assertNotNull(game.getCurrentPlayer());
-        assertTrue(game.getPlayers().contains(game.getCurrentPlayer()));
-        verify(gameRepository).save(game);
-    }
-
-    @Test
-    void startGame_WhenNotEnoughPlayers_ShouldThrowException() {
-        Game game = new Game();
-        game.setId("game1");
-        game.setPlayers(List.of(player1));
-
-        when(gameRepository.findById("game1")).thenReturn(Optional.of(game));
-
-        assertThrows(InvalidGameStateException.class, () -> gameService.startGame("game1"));
-        verify(gameRepository, never()).save(any());
-    }
-
-    @Test
-    void makeMove_WhenValidMove_ShouldProcessMoveAndUpdateGame() {
-        when(gameRepository.findById("game1")).thenReturn(Optional.of(testGame));
-        when(playerService.getPlayer("player1")).thenReturn(player1);
-        when(gameRepository.save(any(Game.class))).thenReturn(testGame);
-
-        gameService.makeMove("game1", "player1", 0);
-
-        assertEquals(9, testGame.getCurrentNumber());
-        assertEquals(player2, testGame.getCurrentPlayer());
-        verify(gameRepository).save(testGame);
-    }
-
-    @Test
-    void makeMove_WhenWinningMove_ShouldEndGame() {
-        testGame.setCurrentNumber(3);
-        when(gameRepository.findById("game1")).thenReturn(Optional.of(testGame));
-        when(playerService.getPlayer("player1")).thenReturn(player1);
-        when(gameRepository.save(any(Game.class))).thenReturn(testGame);
-
-        gameService.makeMove("game1", "player1", 0);
-
-        assertEquals(1, testGame.getCurrentNumber());
-        assertEquals(Game.GameStatus.COMPLETED, testGame.getStatus());
-        assertNull(testGame.getCurrentPlayer());
-        verify(gameRepository).save(testGame);
-    }
-
-    @Test
-    void makeMove_WhenInvalidMove_ShouldThrowException() {
-        when(gameRepository.findById("game1")).thenReturn(Optional.of(testGame));
-        when(playerService.getPlayer("player1")).thenReturn(player1);
-
-        assertThrows(InvalidMoveException.class, () -> gameService.makeMove("game1", "player1", 2));
-        verify(gameRepository, never()).save(any());
-    }
-
-    @Test
-    void makeMove_WhenNotPlayersTurn_ShouldThrowException() {
-        when(gameRepository.findById("game1")).thenReturn(Optional.of(testGame));
-        when(playerService.getPlayer("player2")).thenReturn(player2);
-
-        assertThrows(InvalidGameStateException.class, () -> gameService.makeMove("game1", "player2", 0));
-        verify(gameRepository, never()).save(any());
-    }
-
-    @Test
-    void makeMove_WhenMoveNotDivisibleByThree_ShouldThrowException() {
-        when(gameRepository.findById("game1")).thenReturn(Optional.of(testGame));
-        when(playerService.getPlayer("player1")).thenReturn(player1);
-
-        assertThrows(InvalidMoveException.class, () -> gameService.makeMove("game1", "player1", 1));
-        verify(gameRepository, never()).save(any());
-    }
-
-    @Test
-    void endGame_WhenValidWinner_ShouldEndGameAndSetWinner() {
-        when(gameRepository.findById("game1")).thenReturn(Optional.of(testGame));
-        when(playerService.getPlayer("player1")).thenReturn(player1);
-        when(gameRepository.save(any(Game.class))).thenReturn(testGame);
-
-        gameService.endGame("game1", "player1");
-
-        assertEquals(Game.GameStatus.COMPLETED, testGame.getStatus());
-        assertNull(testGame.getCurrentPlayer());
-        assertEquals(player1, testGame.getWinner());
-        verify(gameRepository).save(testGame);
-    }
-
-    @Test
-    void endGame_WhenGameNotInProgress_ShouldThrowException() {
-        testGame.setStatus(Game.GameStatus.COMPLETED);
-        when(gameRepository.findById("game1")).thenReturn(Optional.of(testGame));
-        when(playerService.getPlayer("player1")).thenReturn(player1);
-
-        assertThrows(InvalidGameStateException.class, () -> gameService.endGame("game1", "player1"));
-        verify(gameRepository, never()).save(any());
-    }
-
-    @Test
-    void endGame_WhenWinnerNotInGame_ShouldThrowException() {
-        Player notInGame = new Player("Not In Game", false);
-        notInGame.setId("player3");
-
-        when(gameRepository.findById("game1")).thenReturn(Optional.of(testGame));
-        when(playerService.getPlayer("player3")).thenReturn(notInGame);
-
-        assertThrows(InvalidGameStateException.class, () -> gameService.endGame("game1", "player3"));
-        verify(gameRepository, never()).save(any());
-    }
-
-    @Test
-    void getGame_WhenGameExists_ShouldReturnGame() {
-        when(gameRepository.findById("game1")).thenReturn(Optional.of(testGame));
-
-        Game result = gameService.getGame("game1");
-
-        assertNotNull(result);
-        assertEquals(testGame.getId(), result.getId());
-        verify(gameRepository).findById("game1");
-    }
-
-    @Test
-    void getGame_WhenGameDoesNotExist_ShouldThrowException() {
-        when(gameRepository.findById("nonexistent")).thenReturn(Optional.empty());
-
-        assertThrows(GameNotFoundException.class, () -> gameService.getGame("nonexistent"));
-        verify(gameRepository).findById("nonexistent");
-    }
-
-    @Test
-    void gameMatchmaking_WhenEnoughPlayers_ShouldCreateGame() {
-        Player matchmakingPlayer1 = new Player("Player 1", true);
-        matchmakingPlayer1.setId("player1");
-        Player matchmakingPlayer2 = new Player("Player 2", true);
-        matchmakingPlayer2.setId("player2");
-
-        Game newGame = new Game();
-        newGame.setId("game1");
-
-        when(playerService.getPlayersLookingForGame())
-                .thenReturn(List.of(matchmakingPlayer1, matchmakingPlayer2));
-        when(gameRepository.save(any(Game.class))).thenAnswer(invocation -> {
-            Game savedGame = invocation.getArgument(0);
-            savedGame.setId("game1");
-            return savedGame;
-        });
-
-        gameService.gameMatchmaking();
-
-        ArgumentCaptor<Game> gameCaptor = ArgumentCaptor.forClass(Game.class);
-        verify(gameRepository, times(2)).save(gameCaptor.capture());
-
-        Game savedGame = gameCaptor.getValue();
-        assertEquals(Game.GameStatus.IN_PROGRESS, savedGame.getStatus());
-        assertEquals(2, savedGame.getPlayers().size());
-        assertTrue(savedGame.getPlayers().contains(matchmakingPlayer1));
-        assertTrue(savedGame.getPlayers().contains(matchmakingPlayer2));
-        assertTrue(savedGame.getCurrentNumber() >= 10 && savedGame.getCurrentNumber() <= 100);
-        assertNotNull(savedGame.getLastUpdated());
-        assertTrue(savedGame.getCurrentPlayer().equals(matchmakingPlayer1) ||
-                  savedGame.getCurrentPlayer().equals(matchmakingPlayer2));
-
-        ArgumentCaptor<GameEvent<?>> eventCaptor = ArgumentCaptor.forClass(GameEvent.class);
-        verify(gameEventPublisher).emit(eventCaptor.capture());
-
-        GameEvent<?> capturedEvent = eventCaptor.getValue();
-        assertEquals("game1", capturedEvent.getGameId());
-        assertEquals(GameMatchmakingEvent.class.getSimpleName(), capturedEvent.getType());
-        assertNotNull(capturedEvent.getId());
-
-        GameMatchmakingEvent matchmakingEvent = (GameMatchmakingEvent) capturedEvent.getData();
-        assertEquals("game1", matchmakingEvent.getGameId());
-        assertEquals(matchmakingPlayer1.getId(), matchmakingEvent.getPlayer1Id());
-        assertEquals(matchmakingPlayer2.getId(), matchmakingEvent.getPlayer2Id());
-        assertNotNull(matchmakingEvent.getInitialNumber());
-        assertTrue(matchmakingEvent.getCurrentPlayerId().equals(matchmakingPlayer1.getId()) ||
-                  matchmakingEvent.getCurrentPlayerId().equals(matchmakingPlayer2.getId()));
-
-        verify(playerService).updatePlayer(matchmakingPlayer1);
-        verify(playerService).updatePlayer(matchmakingPlayer2);
-        assertFalse(matchmakingPlayer1.getIsLookingForGame());
-        assertFalse(matchmakingPlayer2.getIsLookingForGame());
-    }
-
-    @Test
-    void gameMatchmaking_WhenNotEnoughPlayers_ShouldNotCreateGame() {
-        when(playerService.getPlayersLookingForGame())
-                .thenReturn(List.of(player1));
-
-        gameService.gameMatchmaking();
-
-        verify(gameRepository, never()).save(any());
-        verify(playerService, never()).updatePlayer(any());
-    }
-
-    @Test
-    void cleanUpCompletedGames_ShouldDeleteCompletedGames() {
-        List<Game> completedGames = List.of(testGame);
-        testGame.setStatus(Game.GameStatus.COMPLETED);
-
-        when(gameRepository.findByStatus(Game.GameStatus.COMPLETED))
-                .thenReturn(completedGames);
-
-        gameService.cleanUpCompletedGames();
-
-        verify(gameRepository).delete(testGame);
-    }
-
-    @Test
-    void completeInactiveGames_ShouldEndInactiveGames() {
-        testGame.setLastUpdated(Instant.now().minusSeconds(120));
-        List<Game> inactiveGames = List.of(testGame);
-
-        when(gameRepository.findByLastUpdatedBefore(any(Instant.class)))
-                .thenReturn(inactiveGames);
-        when(gameRepository.findById("game1")).thenReturn(Optional.of(testGame));
-        when(playerService.getPlayer("player2")).thenReturn(player2);
-        when(gameRepository.save(any(Game.class))).thenReturn(testGame);
-
-        gameService.completeInactiveGames();
-
-        assertEquals(Game.GameStatus.COMPLETED, testGame.getStatus());
-        assertEquals(player2, testGame.getWinner());
-        verify(gameRepository).save(testGame);
-    }
-}
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.api.exception.GameNotFoundException;
+import com.shimmy.gameofthree.server.api.exception.InvalidGameStateException;
+import com.shimmy.gameofthree.server.api.exception.InvalidMoveException;
+import com.shimmy.gameofthree.server.domain.Game;
+import com.shimmy.gameofthree.server.domain.MoveResult;
+import com.shimmy.gameofthree.server.domain.Player;
+import com.shimmy.gameofthree.server.domain.event.ClientMoveEvent;
+import com.shimmy.gameofthree.server.domain.event.GameEndedEvent;
+import com.shimmy.gameofthree.server.domain.event.GameEvent;
+import com.shimmy.gameofthree.server.domain.event.GameMatchmakingEvent;
+import com.shimmy.gameofthree.server.domain.event.GameStateChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GameServiceTest {
+
+    @Mock
+    private GameRepository gameRepository;
+
+    @Mock
+    private PlayerService playerService;
+
+    @Mock
+    private GameEventOutbox gameEventOutbox;
+
+    @Mock
+    private GameStateNotifier gameStateNotifier;
+
+    @Spy
+    private ActiveGameStore activeGameStore = new ActiveGameStore();
+
+    @Spy
+    private GameMailboxes gameMailboxes = new GameMailboxes();
+
+    @Mock
+    private InactivityTimers inactivityTimers;
+
+    @Mock
+    private GameLog gameLog;
+
+    @Spy
+    private GameShards gameShards = new GameShards();
+
+    @Spy
+    private BlockingCalls blockingCalls = new BlockingCalls();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @InjectMocks
+    private GameService gameService;
+
+    @Captor
+    private ArgumentCaptor<List<Game>> gamesCaptor;
+
+    @Captor
+    private ArgumentCaptor<List<GameEvent<?>>> eventsCaptor;
+
+    private Game testGame;
+    private Player player1;
+    private Player player2;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(blockingCalls, "maxBlockingCalls", 4);
+        blockingCalls.init();
+        ReflectionTestUtils.setField(gameService, "maxGamesPerTick", 100);
+        ReflectionTestUtils.setField(gameService, "matchmakingMode", MatchmakingMode.BOTH);
+        gameService.registerMetrics();
+        ReflectionTestUtils.setField(activeGameStore, "gameMailboxes", gameMailboxes);
+        ReflectionTestUtils.setField(activeGameStore, "inactivityTimers", inactivityTimers);
+        ReflectionTestUtils.setField(activeGameStore, "gameLog", gameLog);
+        // Games read from their row have nothing logged since
+        lenient().when(gameLog.catchUp(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        player1 = new Player("Player 1", false);
+        player1.setId("player1");
+
+        player2 = new Player("Player 2", false);
+        player2.setId("player2");
+
+        testGame = new Game();
+        testGame.setId("game1");
+        testGame.setPlayers(new ArrayList<>(List.of(player1, player2)));
+        testGame.setCurrentPlayer(player1);
+        testGame.setCurrentNumber(27);
+        testGame.setStatus(Game.GameStatus.IN_PROGRESS);
+        testGame.setLastUpdated(Instant.now());
+    }
+
+    @Test
+    void createGame_ShouldCreateAndReturnNewGame() {
+        Game newGame = new Game();
+        newGame.setId("newGame");
+        when(gameRepository.save(any(Game.class))).thenReturn(newGame);
+
+        Game result = gameService.createGame();
+
+        assertNotNull(result);
+        assertEquals("newGame", result.getId());
+        verify(gameRepository).save(any(Game.class));
+    }
+
+    @Test
+    void addPlayer_WhenValidGameAndPlayer_ShouldAddPlayerToGame() {
+        Game game = new Game();
+        game.setId("game1");
+        game.setPlayers(new ArrayList<>());
+
+        when(gameRepository.findWithPlayersById("game1")).thenReturn(Optional.of(game));
+        when(playerService.getPlayer("player1")).thenReturn(player1);
+        when(gameRepository.save(any(Game.class))).thenReturn(game);
+
+        gameService.addPlayer("game1", "player1");
+
+        assertTrue(game.getPlayers().contains(player1));
+        verify(gameRepository).save(game);
+    }
+
+    @Test
+    void startGame_WhenEnoughPlayers_ShouldStartGame() {
+        Game game = new Game();
+        game.setId("game1");
+        game.setPlayers(List.of(player1, player2));
+
+        when(gameRepository.findWithPlayersById("game1")).thenReturn(Optional.of(game));
+        when(gameRepository.save(any(Game.class))).thenReturn(game);
+
+        gameService.startGame("game1");
+
+        assertEquals(Game.GameStatus.IN_PROGRESS, game.getStatus());
+        assertNotNull(game.getCurrentPlayer());
+        assertTrue(game.getPlayers().contains(game.getCurrentPlayer()));
+        verify(gameRepository).save(game);
+        verify(playerService).setActiveGame(List.of("player1", "player2"), "game1");
+    }
+
+    @Test
+    void startGame_WhenNotEnoughPlayers_ShouldThrowException() {
+        Game game = new Game();
+        game.setId("game1");
+        game.setPlayers(List.of(player1));
+
+        when(gameRepository.findWithPlayersById("game1")).thenReturn(Optional.of(game));
+
+        assertThrows(InvalidGameStateException.class, () -> gameService.startGame("game1"));
+        verify(gameRepository, never()).save(any());
+    }
+
+    @Test
+    void makeMove_WhenValidMove_ShouldProcessMoveAndUpdateGame() {
+        Game activeGame = activeGameStore.track(testGame);
+
+        gameService.makeMove("game1", "player1", 0);
+
+        assertEquals(9, activeGame.getCurrentNumber());
+        assertEquals(player2, activeGame.getCurrentPlayer());
+        verify(activeGameStore).markDirty(activeGame);
+        verifyNoInteractions(gameRepository, playerService);
+
+        ArgumentCaptor<GameStateChangedEvent> eventCaptor = ArgumentCaptor.forClass(GameStateChangedEvent.class);
+        verify(gameStateNotifier).notifyPlayers(eventCaptor.capture());
+        assertEquals("game1", eventCaptor.getValue().getGameId());
+        assertEquals(List.of("player1", "player2"), eventCaptor.getValue().getPlayerIds());
+        assertEquals(9, eventCaptor.getValue().getCurrentNumber());
+        assertEquals("player2", eventCaptor.getValue().getCurrentPlayerId());
+        verify(gameLog).append(activeGame, new ClientMoveEvent("game1", "player1", 0));
+    }
+
+    @Test
+    void makeMove_WhenGameNotYetTracked_ShouldLoadItIntoActiveGameStore() {
+        when(gameRepository.findWithPlayersById("game1")).thenReturn(Optional.of(testGame));
+
+        gameService.makeMove("game1", "player1", 0);
+
+        Game activeGame = activeGameStore.get("game1").orElseThrow();
+        assertNotSame(testGame, activeGame);
+        assertEquals(9, activeGame.getCurrentNumber());
+        assertEquals(27, testGame.getCurrentNumber());
+        verify(gameRepository, never()).save(any());
+    }
+
+    @Test
+    void makeMove_WhenGameInProgressOnAnotherNode_ShouldNotTrackIt() {
+        doReturn(false).when(gameShards).isLocal("game1");
+        when(gameRepository.findWithPlayersById("game1")).thenReturn(Optional.of(testGame));
+        when(gameRepository.save(testGame)).thenReturn(testGame);
+
+        gameService.makeMove("game1", "player1", 0);
+
+        assertEquals(9, testGame.getCurrentNumber());
+        verify(gameRepository).save(testGame);
+        assertFalse(activeGameStore.contains("game1"));
+    }
+
+    @Test
+    void makeMove_WhenWinningMove_ShouldEndGame() {
+        testGame.setCurrentNumber(3);
+        Game activeGame = activeGameStore.track(testGame);
+
+        gameService.makeMove("game1", "player1", 0);
+
+        assertEquals(1, activeGame.getCurrentNumber());
+        assertEquals(Game.GameStatus.COMPLETED, activeGame.getStatus());
+        assertNull(activeGame.getCurrentPlayer());
+        assertEquals(player1, activeGame.getWinner());
+        verify(activeGameStore).markDirty(activeGame);
+
+        ArgumentCaptor<GameStateChangedEvent> eventCaptor = ArgumentCaptor.forClass(GameStateChangedEvent.class);
+        verify(gameStateNotifier).notifyPlayers(eventCaptor.capture());
+        assertEquals(Game.GameStatus.COMPLETED, eventCaptor.getValue().getStatus());
+        assertEquals("player1", eventCaptor.getValue().getWinnerId());
+        verify(gameLog).append(activeGame, new ClientMoveEvent("game1", "player1", 0));
+    }
+
+    @Test
+    void makeMove_WhenInvalidMove_ShouldThrowException() {
+        activeGameStore.track(testGame);
+
+        assertThrows(InvalidMoveException.class, () -> gameService.makeMove("game1", "player1", 2));
+        verify(activeGameStore, never()).markDirty(any());
+        verifyNoInteractions(gameStateNotifier, gameLog);
+    }
+
+    @Test
+    void makeMove_WhenNotPlayersTurn_ShouldThrowException() {
+        activeGameStore.track(testGame);
+
+        assertThrows(InvalidGameStateException.class, () -> gameService.makeMove("game1", "player2", 0));
+        verify(activeGameStore, never()).markDirty(any());
+    }
+
+    @Test
+    void makeMove_WhenMoveNotDivisibleByThree_ShouldThrowException() {
+        activeGameStore.track(testGame);
+
+        assertThrows(InvalidMoveException.class, () -> gameService.makeMove("game1", "player1", 1));
+        verify(activeGameStore, never()).markDirty(any());
+    }
+
+    @Test
+    void makeMove_ShouldReturnTheStateTheMoveLeftTheGameIn() {
+        Game activeGame = activeGameStore.track(testGame);
+
+        MoveResult result = gameService.makeMove("game1", "player1", 0);
+        gameService.makeMove("game1", "player2", 0);
+
+        assertEquals(new MoveResult("game1", 9, "player2", Game.GameStatus.IN_PROGRESS, null,
+                result.getLastUpdated()), result);
+        assertEquals(3, activeGame.getCurrentNumber());
+    }
+
+    @Test
+    void makeMove_WhenWinningMove_ShouldReturnTheWinner() {
+        testGame.setCurrentNumber(3);
+        activeGameStore.track(testGame);
+
+        MoveResult result = gameService.makeMove("game1", "player1", 0);
+
+        assertEquals(1, result.getCurrentNumber());
+        assertEquals(Game.GameStatus.COMPLETED, result.getStatus());
+        assertNull(result.getCurrentPlayerId());
+        assertEquals("player1", result.getWinnerId());
+    }
+
+    @Test
+    void makeMoveAsync_WhenGameActive_ShouldApplyTheMoveWithoutTheDatabase() {
+        Game activeGame = activeGameStore.track(testGame);
+
+        MoveResult result = gameService.makeMoveAsync("game1", "player1", 0).join();
+
+        assertEquals(9, result.getCurrentNumber());
+        assertEquals("player2", result.getCurrentPlayerId());
+        assertEquals(9, activeGame.getCurrentNumber());
+        verify(activeGameStore).markDirty(activeGame);
+        verifyNoInteractions(gameRepository);
+        verify(blockingCalls, never()).supply(any());
+    }
+
+    @Test
+    void makeMoveAsync_WhenGameNotYetTracked_ShouldLoadItOnABlockingCall() {
+        when(gameRepository.findWithPlayersById("game1")).thenReturn(Optional.of(testGame));
+
+        MoveResult result = gameService.makeMoveAsync("game1", "player1", 0).join();
+
+        assertEquals(9, result.getCurrentNumber());
+        assertEquals(9, activeGameStore.get("game1").orElseThrow().getCurrentNumber());
+        verify(blockingCalls).supply(any());
+    }
+
+    @Test
+    void makeMoveAsync_WhenInvalidMove_ShouldCompleteExceptionally() {
+        activeGameStore.track(testGame);
+
+        CompletableFuture<MoveResult> result = gameService.makeMoveAsync("game1", "player1", 2);
+
+        CompletionException exception = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(InvalidMoveException.class, exception.getCause());
+        verify(activeGameStore, never()).markDirty(any());
+    }
+
+    @Test
+    void endGame_WhenValidWinner_ShouldEndGameAndSetWinner() {
+        Game activeGame = activeGameStore.track(testGame);
+        when(playerService.getPlayer("player1")).thenReturn(player1);
+
+        gameService.endGame("game1", "player1");
+
+        assertEquals(Game.GameStatus.COMPLETED, activeGame.getStatus());
+        assertNull(activeGame.getCurrentPlayer());
+        assertEquals(player1, activeGame.getWinner());
+        verify(activeGameStore).markDirty(activeGame);
+        verify(gameLog).append(activeGame, new GameEndedEvent("game1", "player1"));
+    }
+
+    @Test
+    void endGame_WhenGameWaitingForPlayers_ShouldThrowException() {
+        when(gameRepository.findWithPlayersById("game1")).thenReturn(Optional.of(testGame));
+        when(playerService.getPlayer("player1")).thenReturn(player1);
+        testGame.setStatus(Game.GameStatus.WAITING_FOR_PLAYERS);
+
+        assertThrows(InvalidGameStateException.class, () -> gameService.endGame("game1", "player1"));
+        verify(gameRepository, never()).save(any());
+        assertFalse(activeGameStore.contains("game1"));
+    }
+
+    @Test
+    void endGame_WhenGameNotInProgress_ShouldThrowException() {
+        testGame.setStatus(Game.GameStatus.COMPLETED);
+        when(gameRepository.findWithPlayersById("game1")).thenReturn(Optional.of(testGame));
+        when(playerService.getPlayer("player1")).thenReturn(player1);
+
+        assertThrows(InvalidGameStateException.class, () -> gameService.endGame("game1", "player1"));
+        verify(gameRepository, never()).save(any());
+    }
+
+    @Test
+    void endGame_WhenWinnerNotInGame_ShouldThrowException() {
+        Player notInGame = new Player("Not In Game", false);
+        notInGame.setId("player3");
+
+        activeGameStore.track(testGame);
+        when(playerService.getPlayer("player3")).thenReturn(notInGame);
+
+        assertThrows(InvalidGameStateException.class, () -> gameService.endGame("game1", "player3"));
+        verify(activeGameStore, never()).markDirty(any());
+    }
+
+    @Test
+    void getGame_WhenGameExists_ShouldReturnGame() {
+        when(gameRepository.findWithPlayersById("game1")).thenReturn(Optional.of(testGame));
+
+        Game result = gameService.getGame("game1");
+
+        assertNotNull(result);
+        assertEquals(testGame.getId(), result.getId());
+        verify(gameRepository).findWithPlayersById("game1");
+    }
+
+    @Test
+    void getGame_WhenGameInProgressOnAnotherNode_ShouldCatchItUpFromItsLog() {
+        doReturn(false).when(gameShards).isLocal("game1");
+        when(gameRepository.findWithPlayersById("game1")).thenReturn(Optional.of(testGame));
+
+        gameService.getGame("game1");
+
+        verify(gameLog).catchUp(testGame);
+        assertFalse(activeGameStore.contains("game1"));
+    }
+
+    @Test
+    void getGame_WhenGameIsActive_ShouldReturnSnapshotWithoutHittingRepository() {
+        Game activeGame = activeGameStore.track(testGame);
+
+        Game result = gameService.getGame("game1");
+
+        assertNotSame(activeGame, result);
+        assertEquals(activeGame.getCurrentNumber(), result.getCurrentNumber());
+        verifyNoInteractions(gameRepository);
+    }
+
+    @Test
+    void getGame_WhenGameCompleted_ShouldServeCopiesFromTheCache() {
+        testGame.setStatus(Game.GameStatus.COMPLETED);
+        testGame.setCurrentPlayer(null);
+        testGame.setWinner(player1);
+        when(cacheManager.getCache(Caches.GAMES)).thenReturn(new ConcurrentMapCache(Caches.GAMES));
+        when(gameRepository.findWithPlayersById("game1")).thenReturn(Optional.of(testGame));
+
+        gameService.getGame("game1");
+        Game cached = gameService.getGame("game1");
+        cached.getWinner().setName("Changed");
+        Game again = gameService.getGame("game1");
+
+        assertNotSame(cached, again);
+        assertEquals(27, again.getCurrentNumber());
+        assertEquals("Player 1", again.getWinner().getName());
+        verify(gameRepository, times(1)).findWithPlayersById("game1");
+    }
+
+    @Test
+    void getGame_WhenGameDoesNotExist_ShouldThrowException() {
+        when(gameRepository.findWithPlayersById("nonexistent")).thenReturn(Optional.empty());
+
+        assertThrows(GameNotFoundException.class, () -> gameService.getGame("nonexistent"));
+        verify(gameRepository).findWithPlayersById("nonexistent");
+    }
+
+    @Test
+    void getGameByPlayerId_WhenGameActive_ShouldServeItFromActiveGameStore() {
+        Game activeGame = activeGameStore.track(testGame);
+
+        Game result = gameService.getGameByPlayerId("player2");
+
+        assertNotSame(activeGame, result);
+        assertEquals(activeGame.getId(), result.getId());
+        verifyNoInteractions(playerService, gameRepository);
+    }
+
+    @Test
+    void getGameByPlayerId_WhenGameNotTracked_ShouldFollowThePlayersActiveGameId() {
+        player1.setActiveGameId("game1");
+        when(playerService.getPlayer("player1")).thenReturn(player1);
+        when(gameRepository.findWithPlayersById("game1")).thenReturn(Optional.of(testGame));
+
+        Game result = gameService.getGameByPlayerId("player1");
+
+        assertEquals("game1", result.getId());
+        assertEquals(Optional.of("game1"), activeGameStore.findGameIdByPlayerId("player1"));
+    }
+
+    @Test
+    void getGameByPlayerId_WhenNoActiveGame_ShouldReturnNull() {
+        when(playerService.getPlayer("player1")).thenReturn(player1);
+
+        assertNull(gameService.getGameByPlayerId("player1"));
+        verifyNoInteractions(gameRepository);
+    }
+
+    @Test
+    void gameMatchmaking_WhenEnoughPlayers_ShouldCreateGame() {
+        Player matchmakingPlayer1 = new Player("Player 1", true);
+        matchmakingPlayer1.setId("player1");
+        Player matchmakingPlayer2 = new Player("Player 2", true);
+        matchmakingPlayer2.setId("player2");
+        List<Player> matchedPlayers = List.of(matchmakingPlayer1, matchmakingPlayer2);
+
+        when(playerService.pollPlayersLookingForGame(100)).thenReturn(matchedPlayers);
+        when(gameRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Game> savedGames = invocation.getArgument(0);
+            savedGames.forEach(savedGame -> savedGame.setId("game1"));
+            return savedGames;
+        });
+
+        gameService.gameMatchmaking();
+
+        verify(gameRepository).saveAll(gamesCaptor.capture());
+        verify(gameRepository, never()).save(any());
+
+        assertEquals(1, gamesCaptor.getValue().size());
+        Game savedGame = gamesCaptor.getValue().get(0);
+        assertEquals(Game.GameStatus.IN_PROGRESS, savedGame.getStatus());
+        assertEquals(2, savedGame.getPlayers().size());
+        assertTrue(savedGame.getPlayers().contains(matchmakingPlayer1));
+        assertTrue(savedGame.getPlayers().contains(matchmakingPlayer2));
+        assertTrue(savedGame.getCurrentNumber() >= 10 && savedGame.getCurrentNumber() <= 100);
+        assertNotNull(savedGame.getLastUpdated());
+        assertTrue(savedGame.getCurrentPlayer().equals(matchmakingPlayer1) ||
+                  savedGame.getCurrentPlayer().equals(matchmakingPlayer2));
+
+        verify(gameEventOutbox).append(eventsCaptor.capture());
+
+        assertEquals(1, eventsCaptor.getValue().size());
+        GameEvent<?> capturedEvent = eventsCaptor.getValue().get(0);
+        assertEquals("game1", capturedEvent.getGameId());
+        assertEquals(GameMatchmakingEvent.class.getSimpleName(), capturedEvent.getType());
+        assertNotNull(capturedEvent.getId());
+
+        GameMatchmakingEvent matchmakingEvent = (GameMatchmakingEvent) capturedEvent.getData();
+        assertEquals("game1", matchmakingEvent.getGameId());
+        assertEquals(matchmakingPlayer1.getId(), matchmakingEvent.getPlayer1Id());
+        assertEquals(matchmakingPlayer2.getId(), matchmakingEvent.getPlayer2Id());
+        assertEquals(savedGame.getCurrentNumber(), matchmakingEvent.getInitialNumber());
+        assertEquals(savedGame.getCurrentPlayer().getId(), matchmakingEvent.getCurrentPlayerId());
+        verify(gameLog, timeout(1000)).start(savedGame, matchmakingEvent);
+
+        verify(playerService).setPlayersIsLookingForGame(matchedPlayers, false);
+        assertEquals("game1", matchmakingPlayer1.getActiveGameId());
+        assertEquals("game1", matchmakingPlayer2.getActiveGameId());
+        assertEquals(1.0, meterRegistry.get("matchmaking.games.per.tick").summary().totalAmount());
+    }
+
+    @Test
+    void gameMatchmaking_WhenManyPlayersQueued_ShouldPairAllOfThemInOneRun() {
+        List<Player> queuedPlayers = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Player player = new Player("Player " + i, true);
+            player.setId("player" + i);
+            queuedPlayers.add(player);
+        }
+
+        when(playerService.pollPlayersLookingForGame(100)).thenReturn(queuedPlayers);
+        when(gameRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Game> savedGames = invocation.getArgument(0);
+            for (int i = 0; i < savedGames.size(); i++) {
+                savedGames.get(i).setId("game" + i);
+            }
+            return savedGames;
+        });
+
+        gameService.gameMatchmaking();
+
+        verify(gameRepository).saveAll(gamesCaptor.capture());
+        List<Game> savedGames = gamesCaptor.getValue();
+        assertEquals(3, savedGames.size());
+        for (int i = 0; i < savedGames.size(); i++) {
+            assertEquals(List.of(queuedPlayers.get(2 * i), queuedPlayers.get(2 * i + 1)), savedGames.get(i).getPlayers());
+        }
+        verify(gameEventOutbox).append(argThat(events -> events.size() == 3));
+        verify(playerService).setPlayersIsLookingForGame(queuedPlayers, false);
+        verify(gameStateNotifier, times(3)).notifyPlayers(any());
+        assertEquals(3.0, meterRegistry.get("matchmaking.games.per.tick").summary().totalAmount());
+    }
+
+    @Test
+    void gameMatchmaking_WhenNotEnoughPlayers_ShouldNotCreateGame() {
+        when(playerService.pollPlayersLookingForGame(100))
+                .thenReturn(List.of());
+
+        gameService.gameMatchmaking();
+
+        verify(gameRepository, never()).saveAll(any());
+        verify(playerService, never()).setPlayersIsLookingForGame(any(), anyBoolean());
+        verifyNoInteractions(gameEventOutbox);
+    }
+
+    @Test
+    void scheduledGameMatchmaking_WhenEventDrivenOnly_ShouldSkipPolling() {
+        ReflectionTestUtils.setField(gameService, "matchmakingMode", MatchmakingMode.EVENT_DRIVEN);
+
+        gameService.scheduledGameMatchmaking();
+
+        verifyNoInteractions(playerService, gameRepository, gameEventOutbox);
+    }
+
+    @Test
+    void scheduledGameMatchmaking_WhenScheduled_ShouldRunMatchmaking() {
+        ReflectionTestUtils.setField(gameService, "matchmakingMode", MatchmakingMode.SCHEDULED);
+        when(playerService.pollPlayersLookingForGame(100)).thenReturn(List.of());
+
+        gameService.scheduledGameMatchmaking();
+
+        verify(playerService).pollPlayersLookingForGame(100);
+    }
+
+    @Test
+    void endInactiveGames_ShouldEndInactiveGames() {
+        Instant threshold = Instant.now().minusSeconds(60);
+        testGame.setLastUpdated(Instant.now().minusSeconds(120));
+        Game activeGame = activeGameStore.track(testGame);
+
+        int ended = gameService.endInactiveGames(List.of(activeGame), threshold);
+
+        assertEquals(1, ended);
+        assertEquals(Game.GameStatus.COMPLETED, activeGame.getStatus());
+        assertEquals(player2, activeGame.getWinner());
+        verify(activeGameStore).markDirty(activeGame);
+        verifyNoInteractions(gameRepository, playerService);
+    }
+
+    @Test
+    void endInactiveGames_WhenMovedSinceFound_ShouldLeaveGameRunning() {
+        Instant threshold = Instant.now().minusSeconds(60);
+        Game activeGame = activeGameStore.track(testGame);
+
+        int ended = gameService.endInactiveGames(List.of(activeGame), threshold);
+
+        assertEquals(0, ended);
+        assertEquals(Game.GameStatus.IN_PROGRESS, activeGame.getStatus());
+        verify(activeGameStore, never()).markDirty(any());
+    }
+}
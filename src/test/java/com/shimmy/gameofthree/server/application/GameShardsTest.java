@@ -0,0 +1,97 @@
+package com.shimmy.gameofthree.server.application;
+
+import org.apache.kafka.clients.producer.internals.BuiltInPartitioner;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameShardsTest {
+
+    private static final List<String> NODES = List.of("a=http://node-a:8080", "b=http://node-b:8080", "c=http://node-c:8080");
+
+    @Test
+    void shardOf_ShouldMatchTheKafkaPartitionOfTheKey() {
+        GameShards shards = shards("a", NODES, 12);
+        for (int i = 0; i < 1000; i++) {
+            String id = UUID.randomUUID().toString();
+            assertEquals(BuiltInPartitioner.partitionForKey(id.getBytes(StandardCharsets.UTF_8), 12), shards.shardOf(id));
+        }
+    }
+
+    @Test
+    void preferredShards_ShouldSplitEveryShardBetweenTheNodes() {
+        List<Integer> allShards = new ArrayList<>();
+        for (String nodeId : List.of("a", "b", "c")) {
+            List<Integer> preferredShards = shards(nodeId, NODES, 12).preferredShards();
+            assertEquals(4, preferredShards.size());
+            allShards.addAll(preferredShards);
+        }
+        assertEquals(12, allShards.stream().distinct().count());
+    }
+
+    @Test
+    void isLocal_ShouldHoldOnExactlyOneNode() {
+        List<GameShards> cluster = List.of(shards("a", NODES, 12), shards("b", NODES, 12), shards("c", NODES, 12));
+        for (int i = 0; i < 1000; i++) {
+            String id = UUID.randomUUID().toString();
+            List<GameShards> owners = cluster.stream().filter(shards -> shards.isLocal(id)).toList();
+            assertEquals(1, owners.size());
+            assertEquals(Optional.empty(), owners.getFirst().ownerUrl(id));
+            String ownerUrl = "http://node-" + owners.getFirst().nodeId() + ":8080";
+            cluster.stream()
+                    .filter(shards -> shards != owners.getFirst())
+                    .forEach(shards -> assertEquals(Optional.of(ownerUrl), shards.ownerUrl(id)));
+        }
+    }
+
+    @Test
+    void newLocalId_ShouldAlwaysBeOwnedByThisNode() {
+        GameShards shards = shards("b", NODES, 12);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(shards.isLocal(shards.newLocalId()));
+        }
+    }
+
+    @Test
+    void updateOwners_ShouldMoveShardsToTheLeaseHolder() {
+        GameShards shards = shards("b", NODES, 12);
+
+        shards.updateOwners(Map.of(0, "b", 4, "unknown"));
+
+        assertEquals(Set.of(0, 1, 4, 7, 10), shards.ownedShards());
+        String id = UUID.randomUUID().toString();
+        assertEquals(Set.of(0, 1, 4, 7, 10).contains(shards.shardOf(id)), shards.isLocal(id));
+    }
+
+    @Test
+    void isLocal_WhenNotClustered_ShouldOwnEverything() {
+        GameShards shards = shards("", List.of(), 3);
+
+        assertFalse(shards.isClustered());
+        assertTrue(shards.isLocal(UUID.randomUUID().toString()));
+        assertEquals(List.of(0, 1, 2), shards.preferredShards());
+    }
+
+    @Test
+    void init_WhenNodeIdIsNotAClusterNode_ShouldThrowException() {
+        assertThrows(IllegalStateException.class, () -> shards("d", NODES, 12));
+    }
+
+    static GameShards shards(String nodeId, List<String> nodes, int shardCount) {
+        GameShards shards = new GameShards();
+        ReflectionTestUtils.setField(shards, "nodeId", nodeId);
+        ReflectionTestUtils.setField(shards, "nodes", nodes);
+        ReflectionTestUtils.setField(shards, "shardCount", shardCount);
+        shards.init();
+        return shards;
+    }
+}
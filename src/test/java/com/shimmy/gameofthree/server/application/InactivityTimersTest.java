@@ -0,0 +1,96 @@
+package com.shimmy.gameofthree.server.application;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InactivityTimersTest {
+
+    private final InactivityTimers inactivityTimers = new InactivityTimers();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(inactivityTimers, "timeout", Duration.ofMillis(200));
+    }
+
+    @AfterEach
+    void tearDown() {
+        inactivityTimers.stop();
+    }
+
+    @Test
+    void takeExpired_ShouldReturnGamesOnceTheirDeadlinePasses() throws InterruptedException {
+        Instant start = Instant.now();
+        inactivityTimers.arm("game1", start);
+
+        assertEquals(List.of("game1"), inactivityTimers.takeExpired());
+        assertFalse(Instant.now().isBefore(start.plusMillis(200)));
+        assertEquals(0, inactivityTimers.size());
+    }
+
+    @Test
+    void takeExpired_ShouldReturnAlreadyExpiredGamesImmediately() throws InterruptedException {
+        inactivityTimers.arm("game1", Instant.now().minusSeconds(120));
+        inactivityTimers.arm("game2", Instant.now().minusSeconds(90));
+
+        assertEquals(List.of("game1", "game2"), inactivityTimers.takeExpired());
+    }
+
+    @Test
+    void arm_WhenGameMovedAgain_ShouldPushDeadlineBack() throws Exception {
+        Instant start = Instant.now();
+        inactivityTimers.arm("game1", start);
+        inactivityTimers.arm("game1", start.plusMillis(300));
+
+        List<String> expired = CompletableFuture.supplyAsync(() -> {
+            try {
+                return inactivityTimers.takeExpired();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }).get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of("game1"), expired);
+        assertFalse(Instant.now().isBefore(start.plusMillis(500)));
+    }
+
+    @Test
+    void cancel_ShouldDropTheDeadline() throws InterruptedException {
+        inactivityTimers.arm("game1", Instant.now().minusSeconds(120));
+        inactivityTimers.cancel("game1");
+        inactivityTimers.arm("game2", Instant.now());
+
+        assertEquals(List.of("game2"), inactivityTimers.takeExpired());
+    }
+
+    @Test
+    void start_ShouldNotifyListenersOfExpiredGames() {
+        List<String> notified = new CopyOnWriteArrayList<>();
+        inactivityTimers.addExpiryListener(notified::addAll);
+        inactivityTimers.start();
+
+        List<String> armed = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            armed.add("game" + i);
+            inactivityTimers.arm("game" + i, Instant.now());
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (notified.size() < armed.size() && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(armed.size(), notified.size());
+        assertTrue(notified.containsAll(armed));
+    }
+}
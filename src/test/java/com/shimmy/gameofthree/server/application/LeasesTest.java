@@ -0,0 +1,145 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.domain.Lease;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Two Leases instances sharing one database, standing in for two nodes
+@DataJpaTest
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LeasesTest {
+
+    private static final Duration TTL = Duration.ofSeconds(1);
+    private static final long RENEW_INTERVAL_MS = 200;
+
+    @Autowired
+    private LeaseRepository leaseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        leaseRepository.deleteAll();
+    }
+
+    @Test
+    void acquire_ShouldGrantALeaseToOneNodeOnly() {
+        Leases nodeA = leases("a", new SimpleMeterRegistry());
+        Leases nodeB = leases("b", new SimpleMeterRegistry());
+
+        assertTrue(nodeA.acquire("job"));
+        assertFalse(nodeB.acquire("job"));
+        assertTrue(nodeA.acquire("job"));
+
+        assertTrue(nodeA.isHeld("job"));
+        assertFalse(nodeB.isHeld("job"));
+        assertEquals(Map.of("job", "a"), nodeB.owners(""));
+    }
+
+    @Test
+    void acquire_WhenTheHolderStopsRenewing_ShouldFailOverOnceTheLeaseExpired() throws Exception {
+        MeterRegistry registryA = new SimpleMeterRegistry();
+        MeterRegistry registryB = new SimpleMeterRegistry();
+        Leases nodeA = leases("a", registryA);
+        Leases nodeB = leases("b", registryB);
+        assertTrue(nodeA.acquire("job"));
+
+        Thread.sleep(TTL.toMillis() + 100);
+
+        assertFalse(nodeA.isHeld("job"));
+        assertTrue(nodeB.acquire("job"));
+        assertFalse(nodeA.acquire("job"));
+        assertEquals(1, acquisitions(registryB, "acquired"));
+        assertEquals(1, acquisitions(registryA, "denied"));
+        assertEquals(Map.of("job", "b"), nodeA.owners(""));
+    }
+
+    @Test
+    void isHeld_ShouldEndOneRenewIntervalBeforeTheLeaseExpires() throws Exception {
+        Leases nodeA = leases("a", new SimpleMeterRegistry());
+        Leases nodeB = leases("b", new SimpleMeterRegistry());
+        assertTrue(nodeA.acquire("job"));
+
+        Thread.sleep(TTL.toMillis() - RENEW_INTERVAL_MS + 50);
+
+        assertFalse(nodeA.isHeld("job"));
+        assertFalse(nodeB.acquire("job"));
+    }
+
+    @Test
+    void acquire_WhenHeldLeaseIsTakenOver_ShouldCountItAsLost() {
+        MeterRegistry registryA = new SimpleMeterRegistry();
+        Leases nodeA = leases("a", registryA);
+        Leases nodeB = leases("b", new SimpleMeterRegistry());
+        assertTrue(nodeA.acquire("job"));
+        // Node a was paused long enough for node b to take over
+        leaseRepository.save(new Lease("job", "b", Instant.now().plus(TTL)));
+
+        assertFalse(nodeA.acquire("job"));
+        assertTrue(nodeB.acquire("job"));
+        assertEquals(1, acquisitions(registryA, "lost"));
+        assertEquals(0, registryA.get("game.leases.held").gauge().value());
+    }
+
+    @Test
+    void release_ShouldLetAnotherNodeTakeOverRightAway() {
+        Leases nodeA = leases("a", new SimpleMeterRegistry());
+        Leases nodeB = leases("b", new SimpleMeterRegistry());
+        assertTrue(nodeA.holds("job"));
+
+        nodeA.releaseAll();
+
+        assertFalse(nodeA.isHeld("job"));
+        assertTrue(nodeB.acquire("job"));
+    }
+
+    @Test
+    void holds_ShouldBeKeptByTheSchedulerOnTheNodeThatAskedFirst() throws Exception {
+        Leases nodeA = leases("a", new SimpleMeterRegistry());
+        Leases nodeB = leases("b", new SimpleMeterRegistry());
+        assertTrue(nodeA.holds("job"));
+        assertFalse(nodeB.holds("job"));
+
+        for (int i = 0; i < 4; i++) {
+            Thread.sleep(TTL.toMillis() / 3);
+            nodeA.renew();
+            nodeB.renew();
+        }
+
+        assertTrue(nodeA.holds("job"));
+        assertFalse(nodeB.holds("job"));
+    }
+
+    private double acquisitions(MeterRegistry registry, String result) {
+        return registry.get("game.leases.acquisitions").tag("lease", "job").tag("result", result).counter().count();
+    }
+
+    private Leases leases(String nodeId, MeterRegistry meterRegistry) {
+        Leases leases = new Leases();
+        ReflectionTestUtils.setField(leases, "leaseRepository", leaseRepository);
+        ReflectionTestUtils.setField(leases, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(leases, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(leases, "nodeId", nodeId);
+        ReflectionTestUtils.setField(leases, "ttl", TTL);
+        ReflectionTestUtils.setField(leases, "renewIntervalMs", RENEW_INTERVAL_MS);
+        leases.init();
+        return leases;
+    }
+}
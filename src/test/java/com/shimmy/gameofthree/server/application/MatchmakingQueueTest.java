@@ -0,0 +1,91 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.application.MatchmakingQueue.QueuedPlayer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchmakingQueueTest {
+
+    private MatchmakingQueue matchmakingQueue;
+
+    @BeforeEach
+    void setUp() {
+        matchmakingQueue = new MatchmakingQueue();
+    }
+
+    @Test
+    void pollPairs_ShouldReturnEveryCompletePairInFifoOrder() {
+        matchmakingQueue.enqueue("player1");
+        matchmakingQueue.enqueue("player2");
+        matchmakingQueue.enqueue("player3");
+        matchmakingQueue.enqueue("player4");
+        matchmakingQueue.enqueue("player5");
+
+        assertEquals(List.of("player1", "player2", "player3", "player4"), playerIds(matchmakingQueue.pollPairs(10)));
+        assertEquals(1, matchmakingQueue.size());
+        assertTrue(matchmakingQueue.contains("player5"));
+    }
+
+    @Test
+    void pollPairs_ShouldRespectMaxPairs() {
+        matchmakingQueue.enqueue("player1");
+        matchmakingQueue.enqueue("player2");
+        matchmakingQueue.enqueue("player3");
+        matchmakingQueue.enqueue("player4");
+
+        assertEquals(List.of("player1", "player2"), playerIds(matchmakingQueue.pollPairs(1)));
+        assertEquals(2, matchmakingQueue.size());
+    }
+
+    @Test
+    void pollPairs_WhenNotEnoughPlayersQueued_ShouldReturnEmptyListAndKeepQueue() {
+        matchmakingQueue.enqueue("player1");
+
+        assertTrue(matchmakingQueue.pollPairs(10).isEmpty());
+        assertEquals(1, matchmakingQueue.size());
+    }
+
+    @Test
+    void enqueue_WhenPlayerAlreadyQueued_ShouldNotQueueTwice() {
+        assertTrue(matchmakingQueue.enqueue("player1"));
+        assertFalse(matchmakingQueue.enqueue("player1"));
+
+        assertEquals(1, matchmakingQueue.size());
+        assertTrue(matchmakingQueue.pollPairs(1).isEmpty());
+    }
+
+    @Test
+    void remove_ShouldSkipPlayerWhenPolling() {
+        matchmakingQueue.enqueue("player1");
+        matchmakingQueue.enqueue("player2");
+        matchmakingQueue.enqueue("player3");
+
+        matchmakingQueue.remove("player2");
+
+        assertEquals(List.of("player1", "player3"), playerIds(matchmakingQueue.pollPairs(1)));
+        assertEquals(0, matchmakingQueue.size());
+    }
+
+    @Test
+    void requeue_ShouldPutPlayersBackAtHeadInOriginalOrder() {
+        matchmakingQueue.enqueue("player1");
+        matchmakingQueue.enqueue("player2");
+        matchmakingQueue.enqueue("player3");
+        matchmakingQueue.enqueue("player4");
+        List<QueuedPlayer> polled = matchmakingQueue.pollPairs(1);
+
+        matchmakingQueue.requeue(polled);
+
+        List<QueuedPlayer> repolled = matchmakingQueue.pollPairs(2);
+        assertEquals(List.of("player1", "player2", "player3", "player4"), playerIds(repolled));
+        assertEquals(polled, repolled.subList(0, 2));
+    }
+
+    private static List<String> playerIds(List<QueuedPlayer> players) {
+        return players.stream().map(QueuedPlayer::playerId).toList();
+    }
+}
@@ -0,0 +1,108 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.api.exception.InvalidMoveException;
+import com.shimmy.gameofthree.server.api.exception.MoveNotAcceptedException;
+import com.shimmy.gameofthree.server.domain.event.ClientMoveEvent;
+import com.shimmy.gameofthree.server.domain.event.GameEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MoveIngestionTest {
+
+    @Mock
+    private GamePublisher gamePublisher;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private MoveIngestion moveIngestion;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(moveIngestion, "ackTimeout", Duration.ofMillis(100));
+        moveIngestion.registerMetrics();
+    }
+
+    @Test
+    void submit_ShouldPublishTheMoveKeyedByGame() {
+        when(gamePublisher.emit(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        String eventId = moveIngestion.submit("game1", "player1", -1);
+
+        ArgumentCaptor<GameEvent> captor = ArgumentCaptor.forClass(GameEvent.class);
+        verify(gamePublisher).emit(captor.capture());
+        assertEquals(eventId, captor.getValue().getId());
+        assertEquals("game1", captor.getValue().getGameId());
+        assertEquals("client_move", captor.getValue().getType());
+        assertEquals(new ClientMoveEvent("game1", "player1", -1), captor.getValue().getData());
+        assertEquals(1, meterRegistry.get("game.moves.accepted").counter().count());
+    }
+
+    @Test
+    void submit_WhenMoveOutOfRange_ShouldRejectWithoutPublishing() {
+        assertThrows(InvalidMoveException.class, () -> moveIngestion.submit("game1", "player1", 2));
+
+        verifyNoInteractions(gamePublisher);
+    }
+
+    @Test
+    void submit_WhenPublishFails_ShouldNotAcceptTheMove() {
+        when(gamePublisher.emit(any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Game event buffer full")));
+
+        assertThrows(MoveNotAcceptedException.class, () -> moveIngestion.submit("game1", "player1", 1));
+        assertEquals(0, meterRegistry.get("game.moves.accepted").counter().count());
+    }
+
+    @Test
+    void submit_WhenBrokerDoesNotAcknowledge_ShouldNotAcceptTheMove() {
+        when(gamePublisher.emit(any())).thenReturn(new CompletableFuture<>());
+
+        assertThrows(MoveNotAcceptedException.class, () -> moveIngestion.submit("game1", "player1", 1));
+    }
+
+    @Test
+    void submitAsync_ShouldCompleteWithTheEventIdOnceTheBrokerHasTheMove() {
+        CompletableFuture<Void> ack = new CompletableFuture<>();
+        when(gamePublisher.emit(any())).thenReturn(ack);
+
+        CompletableFuture<String> result = moveIngestion.submitAsync("game1", "player1", 0);
+
+        assertFalse(result.isDone());
+        ack.complete(null);
+        ArgumentCaptor<GameEvent> captor = ArgumentCaptor.forClass(GameEvent.class);
+        verify(gamePublisher).emit(captor.capture());
+        assertEquals(captor.getValue().getId(), result.join());
+        assertEquals(1, meterRegistry.get("game.moves.accepted").counter().count());
+    }
+
+    @Test
+    void submitAsync_WhenBrokerDoesNotAcknowledge_ShouldNotAcceptTheMove() {
+        when(gamePublisher.emit(any())).thenReturn(new CompletableFuture<>());
+
+        CompletableFuture<String> result = moveIngestion.submitAsync("game1", "player1", 1);
+
+        CompletionException exception = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(MoveNotAcceptedException.class, exception.getCause());
+        assertEquals(0, meterRegistry.get("game.moves.accepted").counter().count());
+    }
+}
@@ -0,0 +1,219 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.domain.Game;
+import com.shimmy.gameofthree.server.domain.Player;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// Runs several GameService nodes in one JVM. Moves arrive at a random node and are forwarded to the
+// owner the way a 307 from ShardRouting would send them, so each game lives and is played on one node only
+@Slf4j
+class MultiNodeGameServiceTest {
+
+    private static final int GAMES = 1500;
+    private static final int SHARDS = 12;
+    // 3^10, so move 0 is always valid and every game takes exactly ten moves to finish
+    private static final int START_NUMBER = 59049;
+    private static final int MOVES_PER_GAME = 10;
+    // Each node serves moves with a few request threads, each held for the I/O a move costs a real node
+    private static final int REQUEST_THREADS = 4;
+    private static final Duration MOVE_IO = Duration.ofMillis(2);
+
+    @Test
+    void makeMove_ShouldOnlyApplyMovesOnTheOwningNode() throws Exception {
+        List<Game> games = games();
+        List<Node> cluster = cluster(3, games);
+        try {
+            play(cluster, games);
+
+            int tracked = 0;
+            for (Node node : cluster) {
+                for (Game game : games) {
+                    // Completed games stay tracked until the next flush, so every node still holds exactly its own
+                    assertEquals(node.shards.isLocal(game.getId()), node.activeGameStore.contains(game.getId()));
+                }
+                tracked += node.activeGameStore.size();
+                // Murmur2 over random ids spreads the games evenly, within a generous margin
+                assertTrue(node.activeGameStore.size() > GAMES / 3 * 0.8, node.shards.nodeId() + " owns " + node.activeGameStore.size());
+                assertEquals(node.activeGameStore.size() * MOVES_PER_GAME, node.appliedMoves.get());
+            }
+            assertEquals(GAMES, tracked);
+            for (Game game : games) {
+                Game played = owner(cluster, game.getId()).activeGameStore.get(game.getId()).orElseThrow();
+                assertEquals(Game.GameStatus.COMPLETED, played.getStatus(), game.getId());
+                assertEquals(1, played.getCurrentNumber());
+            }
+        } finally {
+            cluster.forEach(Node::stop);
+        }
+    }
+
+    // Moves are bound by each node's request threads rather than this JVM's cores, which the nodes share. Moves
+    // per second then grow with the node count unless something makes the nodes wait on each other
+    @Test
+    void makeMove_ShouldScaleThroughputWithTheNodeCount() throws Exception {
+        double singleNode = 0;
+        // The first round only warms the JIT up, so the single node is not measured while still interpreted
+        for (int nodeCount = 0; nodeCount <= 3; nodeCount++) {
+            List<Game> games = games(GAMES / 2);
+            List<Node> cluster = cluster(Math.max(1, nodeCount), games);
+            try {
+                long started = System.nanoTime();
+                play(cluster, games);
+                Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+                int applied = cluster.stream().mapToInt(node -> node.appliedMoves.get()).sum();
+                assertEquals(games.size() * MOVES_PER_GAME, applied);
+                if (nodeCount == 0) {
+                    continue;
+                }
+                double movesPerSecond = applied * 1_000_000_000.0 / Math.max(1, elapsed.toNanos());
+                log.info("{} nodes applied {} moves in {} ms, {} moves/s", nodeCount, applied, elapsed.toMillis(),
+                        Math.round(movesPerSecond));
+                if (nodeCount == 1) {
+                    singleNode = movesPerSecond;
+                } else {
+                    // Games never spread perfectly evenly over the nodes, the busiest one sets the pace
+                    double scaling = movesPerSecond / singleNode;
+                    assertTrue(scaling > nodeCount * 0.75, nodeCount + " nodes scaled " + scaling + " times");
+                }
+            } finally {
+                cluster.forEach(Node::stop);
+            }
+        }
+    }
+
+    // Each game is played by one client thread, every move goes to a random node first
+    private static void play(List<Node> cluster, List<Game> games) throws Exception {
+        List<Future<?>> clients = new ArrayList<>(games.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Game game : games) {
+                clients.add(executor.submit(() -> {
+                    String gameId = game.getId();
+                    for (int move = 0; move < MOVES_PER_GAME; move++) {
+                        Node entry = cluster.get(ThreadLocalRandom.current().nextInt(cluster.size()));
+                        Node target = entry.shards.ownerUrl(gameId).map(url -> node(cluster, url)).orElse(entry);
+                        target.serve(gameId, game.getPlayers().get(move % 2).getId());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> client : clients) {
+                client.get();
+            }
+        }
+    }
+
+    private static List<Game> games() {
+        return games(GAMES);
+    }
+
+    private static List<Game> games(int count) {
+        List<Game> games = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Player player1 = new Player("Player " + i + "a", false);
+            player1.setId(UUID.randomUUID().toString());
+            Player player2 = new Player("Player " + i + "b", false);
+            player2.setId(UUID.randomUUID().toString());
+
+            Game game = new Game();
+            game.setId(UUID.randomUUID().toString());
+            game.setPlayers(List.of(player1, player2));
+            game.setCurrentPlayer(player1);
+            game.setCurrentNumber(START_NUMBER);
+            game.setStatus(Game.GameStatus.IN_PROGRESS);
+            game.setLastUpdated(Instant.now());
+            games.add(game);
+        }
+        return games;
+    }
+
+    // Every node restores from the same database and keeps only the games it owns
+    private static List<Node> cluster(int nodeCount, List<Game> games) {
+        List<String> nodes = IntStream.range(0, nodeCount).mapToObj(i -> "node" + i + "=http://node" + i).toList();
+        List<Node> cluster = new ArrayList<>(nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            GameShards shards = GameShardsTest.shards("node" + i, nodes, SHARDS);
+            GameRepository gameRepository = mock(GameRepository.class, withSettings().stubOnly());
+            when(gameRepository.findWithPlayersByStatus(Game.GameStatus.IN_PROGRESS)).thenReturn(games);
+            Node node = new Node(shards, gameRepository);
+            node.activeGameStore.restore();
+            cluster.add(node);
+        }
+        return cluster;
+    }
+
+    private static Node owner(List<Node> cluster, String id) {
+        return cluster.stream().filter(node -> node.shards.isLocal(id)).findFirst().orElseThrow();
+    }
+
+    private static Node node(List<Node> cluster, String url) {
+        return cluster.stream().filter(node -> url.equals("http://" + node.shards.nodeId())).findFirst().orElseThrow();
+    }
+
+    // The collaborators of one node, wired like GameServiceConcurrencyTest does for a single one
+    private static class Node {
+        final GameShards shards;
+        final GameService gameService = new GameService();
+        final ActiveGameStore activeGameStore = new ActiveGameStore();
+        final GameMailboxes gameMailboxes = new GameMailboxes();
+        final InactivityTimers inactivityTimers = new InactivityTimers();
+        // Nothing is logged, games are restored as their rows have them
+        final GameLog gameLog = mock(GameLog.class, withSettings().stubOnly());
+        final AtomicInteger appliedMoves = new AtomicInteger();
+        final Semaphore requestThreads = new Semaphore(REQUEST_THREADS);
+
+        Node(GameShards shards, GameRepository gameRepository) {
+            this.shards = shards;
+            ReflectionTestUtils.setField(inactivityTimers, "timeout", Duration.ofMinutes(1));
+            ReflectionTestUtils.setField(activeGameStore, "gameRepository", gameRepository);
+            ReflectionTestUtils.setField(activeGameStore, "gameMailboxes", gameMailboxes);
+            ReflectionTestUtils.setField(activeGameStore, "inactivityTimers", inactivityTimers);
+            ReflectionTestUtils.setField(activeGameStore, "gameShards", shards);
+            ReflectionTestUtils.setField(activeGameStore, "gameLog", gameLog);
+            when(gameLog.catchUp(any())).thenAnswer(invocation -> invocation.getArgument(0));
+            ReflectionTestUtils.setField(gameService, "gameRepository", gameRepository);
+            ReflectionTestUtils.setField(gameService, "playerService", mock(PlayerService.class, withSettings().stubOnly()));
+            ReflectionTestUtils.setField(gameService, "gameLog", gameLog);
+            ReflectionTestUtils.setField(gameService, "activeGameStore", activeGameStore);
+            ReflectionTestUtils.setField(gameService, "gameMailboxes", gameMailboxes);
+            ReflectionTestUtils.setField(gameService, "gameShards", shards);
+            ReflectionTestUtils.setField(gameService, "gameStateNotifier", (GameStateNotifier) event -> appliedMoves.incrementAndGet());
+            ReflectionTestUtils.setField(gameService, "meterRegistry", new SimpleMeterRegistry());
+            gameService.registerMetrics();
+        }
+
+        // Plays move 0 on one of this node's request threads, the way a move request would
+        void serve(String gameId, String playerId) throws InterruptedException {
+            requestThreads.acquire();
+            try {
+                Thread.sleep(MOVE_IO);
+                gameService.makeMove(gameId, playerId, 0);
+            } finally {
+                requestThreads.release();
+            }
+        }
+
+        void stop() {
+            gameMailboxes.destroy();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.domain.OutboxEvent;
+import com.shimmy.gameofthree.server.domain.event.GameEvent;
+import com.shimmy.gameofthree.server.domain.event.GameEventCodec;
+import com.shimmy.gameofthree.server.domain.event.GameMatchmakingEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Spy
+    private GameEventOutbox gameEventOutbox = new GameEventOutbox();
+
+    @Mock
+    private GamePublisher gamePublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private Leases leases;
+
+    @InjectMocks
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(gameEventOutbox, "outboxEventRepository", outboxEventRepository);
+        ReflectionTestUtils.setField(outboxRelay, "batchSize", 2);
+        ReflectionTestUtils.setField(outboxRelay, "ackTimeout", Duration.ofSeconds(1));
+        outboxRelay.registerMetrics();
+        lenient().when(leases.holds(OutboxRelay.LEASE)).thenReturn(true);
+    }
+
+    @Test
+    void append_ShouldStoreEventsThatRelayAsTheSameEvent() {
+        GameMatchmakingEvent data = new GameMatchmakingEvent("game1", "player1", "player2", 27, "player1");
+        gameEventOutbox.append(List.of(new GameEvent<>("event1", "game1", "GameMatchmakingEvent", data)));
+
+        ArgumentCaptor<List<OutboxEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(outboxEventRepository).saveAll(captor.capture());
+        OutboxEvent stored = captor.getValue().get(0);
+        GameEvent<?> relayed = gameEventOutbox.toGameEvent(stored);
+
+        assertEquals("event1", relayed.getId());
+        assertEquals("game1", relayed.getGameId());
+        assertEquals("GameMatchmakingEvent", relayed.getType());
+        assertEquals(data, relayed.getData());
+    }
+
+    @Test
+    void relay_ShouldPublishAndDeleteUntilTheOutboxIsDrained() {
+        when(outboxEventRepository.findByOrderByCreatedAtAsc(Limit.of(2)))
+                .thenReturn(List.of(outboxEvent("row1"), outboxEvent("row2")), List.of(outboxEvent("row3")));
+        when(gamePublisher.emit(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertEquals(3, outboxRelay.relay());
+
+        verify(gamePublisher, times(3)).emit(any());
+        verify(outboxEventRepository).deleteByIdIn(List.of("row1", "row2"));
+        verify(outboxEventRepository).deleteByIdIn(List.of("row3"));
+        assertEquals(3, meterRegistry.get("game.outbox.relayed").counter().count());
+        assertEquals(0, meterRegistry.get("game.outbox.lag").timeGauge().value(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void relay_WhenPublishFails_ShouldKeepTheEventForTheNextRun() {
+        OutboxEvent old = outboxEvent("row1");
+        old.setCreatedAt(Instant.now().minusSeconds(5));
+        when(outboxEventRepository.findByOrderByCreatedAtAsc(Limit.of(2)))
+                .thenReturn(List.of(old, outboxEvent("row2")));
+        when(gamePublisher.emit(any())).thenReturn(
+                CompletableFuture.completedFuture(null),
+                CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        assertEquals(1, outboxRelay.relay());
+
+        verify(outboxEventRepository).deleteByIdIn(List.of("row1"));
+        verify(outboxEventRepository, times(1)).findByOrderByCreatedAtAsc(any());
+        assertEquals(1, meterRegistry.get("game.outbox.failed").counter().count());
+        assertTrue(meterRegistry.get("game.outbox.lag").timeGauge().value(TimeUnit.MILLISECONDS) >= 5000);
+    }
+
+    @Test
+    void relay_WhenAckTimesOut_ShouldNotDeleteTheEvent() {
+        ReflectionTestUtils.setField(outboxRelay, "ackTimeout", Duration.ofMillis(50));
+        when(outboxEventRepository.findByOrderByCreatedAtAsc(Limit.of(2))).thenReturn(List.of(outboxEvent("row1")));
+        when(gamePublisher.emit(any())).thenReturn(new CompletableFuture<>());
+
+        assertEquals(0, outboxRelay.relay());
+
+        verify(outboxEventRepository, never()).deleteByIdIn(anyList());
+        assertEquals(1, meterRegistry.get("game.outbox.failed").counter().count());
+    }
+
+    @Test
+    void relay_WhenEventUnreadable_ShouldDropItWithoutPublishing() {
+        OutboxEvent corrupt = outboxEvent("row1");
+        corrupt.setPayload(new byte[]{99});
+        when(outboxEventRepository.findByOrderByCreatedAtAsc(Limit.of(2))).thenReturn(List.of(corrupt));
+
+        assertEquals(0, outboxRelay.relay());
+
+        verifyNoInteractions(gamePublisher);
+        verify(outboxEventRepository).deleteByIdIn(List.of("row1"));
+        assertEquals(1, meterRegistry.get("game.outbox.failed").counter().count());
+    }
+
+    @Test
+    void relay_WhenOutboxEmpty_ShouldPublishNothing() {
+        when(outboxEventRepository.findByOrderByCreatedAtAsc(Limit.of(2))).thenReturn(new ArrayList<>());
+
+        assertEquals(0, outboxRelay.relay());
+
+        verifyNoInteractions(gamePublisher);
+        verify(outboxEventRepository, never()).deleteByIdIn(anyList());
+    }
+
+    @Test
+    void relay_WhenAnotherNodeHoldsTheLease_ShouldLeaveTheOutboxAlone() {
+        when(leases.holds(OutboxRelay.LEASE)).thenReturn(false);
+
+        assertEquals(0, outboxRelay.relay());
+
+        verifyNoInteractions(outboxEventRepository, gamePublisher);
+    }
+
+    private static OutboxEvent outboxEvent(String id) {
+        GameEvent<?> event = new GameEvent<>(id + "-event", "game1", "GameMatchmakingEvent",
+                new GameMatchmakingEvent("game1", "player1", "player2", 27, "player1"));
+        OutboxEvent outboxEvent = new OutboxEvent(event.getId(), event.getGameId(), event.getType(),
+                GameEventCodec.encode(event), Instant.now());
+        outboxEvent.setId(id);
+        return outboxEvent;
+    }
+}
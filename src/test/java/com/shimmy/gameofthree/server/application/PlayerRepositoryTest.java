@@ -0,0 +1,100 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.domain.Game;
+import com.shimmy.gameofthree.server.domain.Player;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A player with a long game history must still find their active game with one primary key lookup
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("h2")
+class PlayerRepositoryTest {
+
+    private static final int COMPLETED_GAMES = 500;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Player player1;
+    private Player player2;
+    private Game activeGame;
+
+    @BeforeEach
+    void setUp() {
+        player1 = entityManager.persist(new Player("Player 1", false));
+        player2 = entityManager.persist(new Player("Player 2", false));
+        for (int i = 0; i < COMPLETED_GAMES; i++) {
+            entityManager.persist(game(Game.GameStatus.COMPLETED));
+        }
+        activeGame = entityManager.persist(game(Game.GameStatus.IN_PROGRESS));
+        player1.setActiveGameId(activeGame.getId());
+        player2.setActiveGameId(activeGame.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findById_ShouldReadTheActiveGameWithoutTouchingGameHistory() {
+        Player player = playerRepository.findById(player1.getId()).orElseThrow();
+
+        assertEquals(activeGame.getId(), player.getActiveGameId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void setActiveGameId_ShouldUpdateAllPlayersInOneStatement() {
+        int updated = playerRepository.setActiveGameId(List.of(player1.getId(), player2.getId()), "game2");
+
+        assertEquals(2, updated);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals("game2", playerRepository.findById(player2.getId()).orElseThrow().getActiveGameId());
+    }
+
+    @Test
+    void clearActiveGameIdByGameIdIn_ShouldOnlyClearPlayersOfTheGivenGames() {
+        Player otherPlayer = entityManager.persist(new Player("Player 3", false));
+        otherPlayer.setActiveGameId("game2");
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        int cleared = playerRepository.clearActiveGameIdByGameIdIn(List.of(activeGame.getId()));
+
+        assertEquals(2, cleared);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertNull(playerRepository.findById(player1.getId()).orElseThrow().getActiveGameId());
+        assertEquals("game2", playerRepository.findById(otherPlayer.getId()).orElseThrow().getActiveGameId());
+    }
+
+    private Game game(Game.GameStatus status) {
+        Game game = new Game();
+        game.setPlayers(List.of(player1, player2));
+        game.setCurrentNumber(1);
+        game.setStatus(status);
+        game.setLastUpdated(Instant.now());
+        return game;
+    }
+}
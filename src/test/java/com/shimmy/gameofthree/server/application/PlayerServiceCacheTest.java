@@ -0,0 +1,126 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.shimmy.gameofthree.server.domain.Player;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// Runs PlayerService against a real cache, the unit tests run it without one
+@SpringJUnitConfig
+class PlayerServiceCacheTest {
+
+    @Configuration
+    @Import({PlayerService.class, GameShards.class})
+    static class Config {
+        @Bean
+        CacheManager cacheManager() {
+            CaffeineCacheManager cacheManager = new CaffeineCacheManager(Caches.PLAYERS);
+            cacheManager.setCaffeine(Caffeine.newBuilder().maximumSize(100).recordStats());
+            return cacheManager;
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @MockitoBean
+    private PlayerRepository playerRepository;
+
+    @MockitoBean
+    private MatchmakingQueue matchmakingQueue;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Player player;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(Caches.PLAYERS).clear();
+        player = new Player("player1", "Player 1", false);
+        when(playerRepository.findById("player1")).thenReturn(Optional.of(player));
+        when(playerRepository.save(any(Player.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(playerRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void getPlayer_ShouldOnlyHitTheRepositoryOnce() {
+        CacheStats before = nativeCache().stats();
+
+        assertEquals(player, playerService.getPlayer("player1"));
+        assertEquals(player, playerService.getPlayer("player1"));
+
+        verify(playerRepository, times(1)).findById("player1");
+        CacheStats stats = nativeCache().stats().minus(before);
+        assertEquals(1, stats.hitCount());
+        assertEquals(1, stats.missCount());
+    }
+
+    @Test
+    void getPlayer_ShouldHandOutANewInstanceOnEveryHit() {
+        playerService.getPlayer("player1");
+
+        Player cached = playerService.getPlayer("player1");
+        cached.setName("Changed");
+
+        assertNotSame(cached, playerService.getPlayer("player1"));
+        assertEquals("Player 1", playerService.getPlayer("player1").getName());
+    }
+
+    @Test
+    void updatePlayer_ShouldEvictThePlayer() {
+        playerService.getPlayer("player1");
+
+        playerService.updatePlayer(new Player("player1", "Renamed", null));
+        playerService.getPlayer("player1");
+
+        // Once for the first read, once inside updatePlayer and once after the eviction
+        verify(playerRepository, times(3)).findById("player1");
+    }
+
+    @Test
+    void setPlayersIsLookingForGame_ShouldEvictEveryPlayer() {
+        playerService.getPlayer("player1");
+
+        playerService.setPlayersIsLookingForGame(List.of(player), false);
+        playerService.getPlayer("player1");
+
+        verify(playerRepository, times(2)).findById("player1");
+    }
+
+    @Test
+    void deletePlayer_ShouldEvictThePlayer() {
+        playerService.getPlayer("player1");
+
+        playerService.deletePlayer("player1");
+
+        assertNull(cacheManager.getCache(Caches.PLAYERS).get("player1"));
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache() {
+        return ((CaffeineCache) cacheManager.getCache(Caches.PLAYERS)).getNativeCache();
+    }
+}
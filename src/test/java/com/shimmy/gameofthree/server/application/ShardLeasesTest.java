@@ -0,0 +1,242 @@
+package com.shimmy.gameofthree.server.application;
+
+import com.shimmy.gameofthree.server.domain.Game;
+import com.shimmy.gameofthree.server.domain.GameLogEntry;
+import com.shimmy.gameofthree.server.domain.Player;
+import com.shimmy.gameofthree.server.domain.event.ClientMoveEvent;
+import com.shimmy.gameofthree.server.domain.event.GameMatchmakingEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// Two nodes sharing one database: node a goes away, node b takes over its shards, and hands them back
+// once node a is restarted. Each node has its own game store and game log, the way separate processes would
+@DataJpaTest
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ShardLeasesTest {
+
+    private static final Duration TTL = Duration.ofMillis(500);
+    private static final List<String> NODES = List.of("a=http://node-a", "b=http://node-b");
+
+    @Autowired
+    private LeaseRepository leaseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private GameLogEntryRepository gameLogEntryRepository;
+
+    @Autowired
+    private GameSnapshotRepository gameSnapshotRepository;
+
+    @BeforeEach
+    void setUp() {
+        leaseRepository.deleteAll();
+        gameLogEntryRepository.deleteAll();
+        gameSnapshotRepository.deleteAll();
+    }
+
+    @Test
+    void heartbeat_ShouldGiveEveryNodeItsPreferredShards() {
+        Node nodeA = new Node("a");
+        Node nodeB = new Node("b");
+
+        nodeA.shardLeases.start();
+        nodeB.shardLeases.start();
+
+        assertEquals(Set.of(0, 2), nodeA.shards.ownedShards());
+        assertEquals(Set.of(1, 3), nodeB.shards.ownedShards());
+        verify(nodeA.activeGameStore, never()).restore(anySet());
+    }
+
+    @Test
+    void heartbeat_WhenANodeStopsRenewing_ShouldFailItsShardsOverAndBack() throws Exception {
+        Node nodeA = new Node("a");
+        Node nodeB = new Node("b");
+        nodeA.shardLeases.start();
+        nodeB.shardLeases.start();
+
+        failOver(nodeB);
+        assertEquals(Set.of(0, 1, 2, 3), nodeB.shards.ownedShards());
+        verify(nodeB.activeGameStore).restore(Set.of(0, 2));
+        verify(nodeB.playerService).restoreMatchmakingQueue(Set.of(0, 2));
+        assertEquals(2, changes(nodeB, "gained"));
+        String gameOfShard0 = idOfShard(nodeB.shards, 0);
+        assertEquals(Optional.empty(), nodeB.shards.ownerUrl(gameOfShard0));
+
+        // Node a restarts, finds its shards taken and waits for node b to hand them back
+        Node restartedA = new Node("a");
+        restartedA.shardLeases.start();
+        assertEquals(Set.of(), restartedA.shards.ownedShards());
+        assertEquals(Optional.of("http://node-b"), restartedA.shards.ownerUrl(gameOfShard0));
+
+        nodeB.shardLeases.heartbeat();
+        verify(nodeB.activeGameStore).flush();
+        verify(nodeB.activeGameStore).forget(Set.of(0, 2));
+        verify(nodeB.gameLog).flush();
+        verify(nodeB.playerService).forgetMatchmakingQueue(Set.of(0, 2));
+        assertEquals(Set.of(1, 3), nodeB.shards.ownedShards());
+        assertEquals(2, changes(nodeB, "handed_back"));
+
+        restartedA.shardLeases.heartbeat();
+        assertEquals(Set.of(0, 2), restartedA.shards.ownedShards());
+        verify(restartedA.activeGameStore).restore(Set.of(0, 2));
+        assertEquals(2, restartedA.meterRegistry.get("game.shards.owned").gauge().value());
+    }
+
+    @Test
+    void heartbeat_WhenHandingAShardBack_ShouldWriteItsBufferedMovesForThePreferredNode() throws Exception {
+        Node nodeA = new Node("a");
+        Node nodeB = new Node("b");
+        nodeA.shardLeases.start();
+        nodeB.shardLeases.start();
+        failOver(nodeB);
+
+        // Node b plays a game of node a's shard, its moves stay buffered as no log flush is due yet
+        Player player1 = playerRepository.save(new Player(UUID.randomUUID().toString(), "Player 1", false));
+        Player player2 = playerRepository.save(new Player(UUID.randomUUID().toString(), "Player 2", false));
+        Game created = new Game();
+        created.setId(idOfShard(nodeB.shards, 0));
+        created.setPlayers(List.of(player1, player2));
+        created.setCurrentPlayer(player1);
+        created.setCurrentNumber(27);
+        created.setStatus(Game.GameStatus.IN_PROGRESS);
+        created.setLastUpdated(Instant.now());
+        String gameId = gameRepository.save(created).getId();
+        try {
+            Game game = nodeB.activeGameStore.track(gameRepository.findWithPlayersById(gameId).orElseThrow());
+            nodeB.gameMailboxes.call(gameId, () -> {
+                nodeB.gameLog.start(game, new GameMatchmakingEvent(gameId, player1.getId(), player2.getId(), 27, player1.getId()));
+                move(nodeB.gameLog, game);
+                move(nodeB.gameLog, game);
+                return null;
+            });
+            assertNull(gameLogEntryRepository.findMaxSequenceByGameId(gameId));
+
+            // Renewed right before node a restarts, so its leases are still held and are handed back
+            nodeB.shardLeases.heartbeat();
+            Node restartedA = new Node("a");
+            restartedA.shardLeases.start();
+            nodeB.shardLeases.heartbeat();
+            assertEquals(3L, gameLogEntryRepository.findMaxSequenceByGameId(gameId));
+            assertFalse(((Map<?, ?>) ReflectionTestUtils.getField(nodeB.gameLog, "lastSequences")).containsKey(gameId));
+
+            // Node a restores the game with both moves and continues its log after them
+            restartedA.shardLeases.heartbeat();
+            Game restored = restartedA.activeGameStore.get(gameId).orElseThrow();
+            assertEquals(3, restored.getCurrentNumber());
+            assertEquals(player1, restored.getCurrentPlayer());
+            restartedA.gameMailboxes.call(gameId, () -> {
+                move(restartedA.gameLog, restored);
+                return null;
+            });
+            assertEquals(1, restartedA.gameLog.flush());
+            assertEquals(List.of(1L, 2L, 3L, 4L), gameLogEntryRepository
+                    .findByGameIdAndSequenceGreaterThanOrderBySequenceAsc(gameId, 0).stream().map(GameLogEntry::getSequence).toList());
+        } finally {
+            gameRepository.deleteById(gameId);
+            playerRepository.deleteAll(List.of(player1, player2));
+        }
+    }
+
+    // Node a stops, node b keeps renewing until node a's leases expired
+    private static void failOver(Node nodeB) throws InterruptedException {
+        for (int i = 0; i < 4; i++) {
+            Thread.sleep(TTL.toMillis() / 3);
+            nodeB.shardLeases.heartbeat();
+        }
+    }
+
+    // Plays move 0 for the current player the way GameService does, in the game's mailbox
+    private static void move(GameLog gameLog, Game game) {
+        Player player = game.getCurrentPlayer();
+        game.setCurrentNumber(game.getCurrentNumber() / 3);
+        game.setCurrentPlayer(game.getPlayers().get(0).equals(player) ? game.getPlayers().get(1) : game.getPlayers().get(0));
+        game.setLastUpdated(Instant.now());
+        gameLog.append(game, new ClientMoveEvent(game.getId(), player.getId(), 0));
+    }
+
+    private static double changes(Node node, String change) {
+        return node.meterRegistry.get("game.shards.changes").tag("change", change).counter().count();
+    }
+
+    private static String idOfShard(GameShards shards, int shard) {
+        while (true) {
+            String id = UUID.randomUUID().toString();
+            if (shards.shardOf(id) == shard) {
+                return id;
+            }
+        }
+    }
+
+    private class Node {
+        final GameShards shards;
+        final Leases leases = new Leases();
+        final ShardLeases shardLeases = new ShardLeases();
+        final GameMailboxes gameMailboxes = new GameMailboxes();
+        final GameLog gameLog;
+        final ActiveGameStore activeGameStore;
+        final PlayerService playerService = mock(PlayerService.class);
+        final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        Node(String nodeId) {
+            shards = GameShardsTest.shards(nodeId, NODES, 4);
+            GameLog log = new GameLog();
+            ReflectionTestUtils.setField(log, "gameLogEntryRepository", gameLogEntryRepository);
+            ReflectionTestUtils.setField(log, "gameSnapshotRepository", gameSnapshotRepository);
+            ReflectionTestUtils.setField(log, "transactionManager", transactionManager);
+            ReflectionTestUtils.setField(log, "meterRegistry", meterRegistry);
+            ReflectionTestUtils.setField(log, "snapshotInterval", 20);
+            log.registerMetrics();
+            gameLog = spy(log);
+            ActiveGameStore store = new ActiveGameStore();
+            ReflectionTestUtils.setField(store, "gameRepository", gameRepository);
+            ReflectionTestUtils.setField(store, "playerRepository", playerRepository);
+            ReflectionTestUtils.setField(store, "gameMailboxes", gameMailboxes);
+            ReflectionTestUtils.setField(store, "inactivityTimers", mock(InactivityTimers.class));
+            ReflectionTestUtils.setField(store, "gameShards", shards);
+            ReflectionTestUtils.setField(store, "gameLog", gameLog);
+            activeGameStore = spy(store);
+            ReflectionTestUtils.setField(leases, "leaseRepository", leaseRepository);
+            ReflectionTestUtils.setField(leases, "transactionManager", transactionManager);
+            ReflectionTestUtils.setField(leases, "meterRegistry", meterRegistry);
+            ReflectionTestUtils.setField(leases, "nodeId", nodeId);
+            ReflectionTestUtils.setField(leases, "ttl", TTL);
+            leases.init();
+            ReflectionTestUtils.setField(shardLeases, "gameShards", shards);
+            ReflectionTestUtils.setField(shardLeases, "leases", leases);
+            ReflectionTestUtils.setField(shardLeases, "activeGameStore", activeGameStore);
+            ReflectionTestUtils.setField(shardLeases, "playerService", playerService);
+            ReflectionTestUtils.setField(shardLeases, "gameLog", gameLog);
+            ReflectionTestUtils.setField(shardLeases, "meterRegistry", meterRegistry);
+            shardLeases.registerMetrics();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.shimmy.gameofthree.server.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class VirtualThreadPinningTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final VirtualThreadPinning virtualThreadPinning = new VirtualThreadPinning();
+    private final Object monitor = new Object();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(virtualThreadPinning, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(virtualThreadPinning, "threshold", Duration.ofMillis(10));
+        virtualThreadPinning.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        virtualThreadPinning.stop();
+    }
+
+    @Test
+    void testBlockingInsideSynchronizedIsTimedPerFrame() throws Exception {
+        Thread.ofVirtual().start(this::sleepHoldingMonitor).join();
+
+        Timer pinned = awaitPinnedTimer();
+        assertEquals(getClass().getName() + ".sleepHoldingMonitor", pinned.getId().getTag("frame"));
+        assertTrue(pinned.totalTime(TimeUnit.MILLISECONDS) >= 50);
+    }
+
+    @Test
+    void testBlockingWithoutMonitorIsNotPinned() throws Exception {
+        Thread.ofVirtual().start(() -> sleep(100)).join();
+
+        // The stream flushes about once a second
+        Thread.sleep(2000);
+        assertTrue(meterRegistry.find("game.threads.pinned").timers().isEmpty());
+    }
+
+    private void sleepHoldingMonitor() {
+        synchronized (monitor) {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private Timer awaitPinnedTimer() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            Timer timer = meterRegistry.find("game.threads.pinned").timer();
+            if (timer != null) {
+                return timer;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("No pinned virtual thread was reported");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.shimmy.gameofthree.server.domain;
+
+import com.shimmy.gameofthree.server.domain.event.ClientMoveEvent;
+import com.shimmy.gameofthree.server.domain.event.GameEndedEvent;
+import com.shimmy.gameofthree.server.domain.event.GameMatchmakingEvent;
+import com.shimmy.gameofthree.server.domain.event.GameStartedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameLogStateTest {
+
+    private final Instant now = Instant.now();
+
+    @Test
+    void apply_ShouldPlayAGameToItsWinningMove() {
+        GameLogState state = GameLogState.empty("game1")
+                .apply(1, new GameMatchmakingEvent("game1", "player1", "player2", 56, "player2"), now)
+                .apply(2, new ClientMoveEvent("game1", "player2", 1), now)
+                .apply(3, new ClientMoveEvent("game1", "player1", -1), now);
+
+        assertEquals(3, state.getSequence());
+        assertEquals(List.of("player1", "player2"), state.getPlayerIds());
+        assertEquals(Game.GameStatus.IN_PROGRESS, state.getStatus());
+        assertEquals(6, state.getCurrentNumber());
+        assertEquals("player2", state.getCurrentPlayerId());
+
+        state = state.apply(4, new ClientMoveEvent("game1", "player2", 0), now)
+                .apply(5, new ClientMoveEvent("game1", "player1", 1), now);
+
+        assertEquals(1, state.getCurrentNumber());
+        assertEquals(Game.GameStatus.COMPLETED, state.getStatus());
+        assertEquals("player1", state.getWinnerId());
+        assertNull(state.getCurrentPlayerId());
+    }
+
+    @Test
+    void apply_WhenGameEndedEarly_ShouldKeepTheNumberAndSetTheWinner() {
+        GameLogState state = GameLogState.empty("game1")
+                .apply(1, new GameMatchmakingEvent("game1", "player1", "player2", 56, "player2"), now)
+                .apply(2, new GameEndedEvent("game1", "player1"), now);
+
+        assertEquals(56, state.getCurrentNumber());
+        assertEquals(Game.GameStatus.COMPLETED, state.getStatus());
+        assertEquals("player1", state.getWinnerId());
+        assertEquals(now, state.getLastUpdated());
+    }
+
+    @Test
+    void apply_WhenEventIsNotLogged_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> GameLogState.empty("game1")
+                .apply(1, new GameStartedEvent("game1", List.of("player1", "player2")), now));
+    }
+}
@@ -0,0 +1,117 @@
+package com.shimmy.gameofthree.server.domain.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.shimmy.gameofthree.server.domain.Game;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameEventCodecTest {
+
+    private static final String GAME_ID = UUID.randomUUID().toString();
+    private static final String PLAYER1_ID = UUID.randomUUID().toString();
+    private static final String PLAYER2_ID = UUID.randomUUID().toString();
+
+    @Test
+    void decode_ShouldReturnTheEncodedMatchmakingEvent() {
+        GameEvent<?> event = new GameEvent<>(UUID.randomUUID().toString(), GAME_ID,
+                GameMatchmakingEvent.class.getSimpleName(),
+                new GameMatchmakingEvent(GAME_ID, PLAYER1_ID, PLAYER2_ID, 27, PLAYER1_ID));
+
+        assertEquals(event, GameEventCodec.decode(GameEventCodec.encode(event)));
+    }
+
+    @Test
+    void decode_ShouldReturnTheEncodedStateChange() {
+        GameStateChangedEvent data = new GameStateChangedEvent(GAME_ID, List.of(PLAYER1_ID, PLAYER2_ID), 1,
+                PLAYER2_ID, Game.GameStatus.COMPLETED, PLAYER1_ID, Instant.parse("2025-06-01T10:15:30.123456789Z"));
+        GameEvent<?> event = new GameEvent<>(UUID.randomUUID().toString(), GAME_ID, data.getType(), data);
+
+        assertEquals(event, GameEventCodec.decode(GameEventCodec.encode(event)));
+    }
+
+    @Test
+    void decode_ShouldReturnTheEncodedLifecycleAndMoveEvents() {
+        List<Object> payloads = List.of(
+                new GameStartedEvent(GAME_ID, List.of(PLAYER1_ID, PLAYER2_ID)),
+                new GameEndedEvent(GAME_ID, PLAYER2_ID),
+                new ClientMoveEvent(GAME_ID, PLAYER1_ID, -1));
+        for (Object payload : payloads) {
+            GameEvent<?> decoded = GameEventCodec.decode(GameEventCodec.encode(
+                    new GameEvent<>("event1", GAME_ID, "ignored", payload)));
+
+            assertEquals(payload, decoded.getData());
+            assertEquals("event1", decoded.getId());
+        }
+    }
+
+    @Test
+    void decode_ShouldKeepNullsAndIdsThatAreNotUuids() {
+        GameStateChangedEvent data = new GameStateChangedEvent("game1", List.of("player1", "550E8400-E29B-41D4-A716-446655440000"),
+                -42, null, null, null, null);
+        GameEvent<?> event = new GameEvent<>(null, "game1", data.getType(), data);
+
+        assertEquals(event, GameEventCodec.decode(GameEventCodec.encode(event)));
+    }
+
+    @Test
+    void decode_WhenVersionUnknown_ShouldThrow() {
+        byte[] encoded = GameEventCodec.encode(new GameEvent<>("event1", GAME_ID, "game_ended",
+                new GameEndedEvent(GAME_ID, null)));
+        encoded[0] = GameEventCodec.VERSION + 1;
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> GameEventCodec.decode(encoded));
+        assertTrue(e.getMessage().contains("version"));
+    }
+
+    @Test
+    void decode_WhenTruncated_ShouldThrow() {
+        byte[] encoded = GameEventCodec.encode(new GameEvent<>("event1", GAME_ID, "game_ended",
+                new GameEndedEvent(GAME_ID, PLAYER1_ID)));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> GameEventCodec.decode(Arrays.copyOf(encoded, encoded.length - 3)));
+    }
+
+    @Test
+    void decode_WhenStatusUnknown_ShouldThrow() {
+        Instant now = Instant.now();
+        byte[] inProgress = GameEventCodec.encode(new GameEvent<>("event1", GAME_ID, "game_state_changed",
+                new GameStateChangedEvent(GAME_ID, List.of(PLAYER1_ID, PLAYER2_ID), 3, PLAYER2_ID,
+                        Game.GameStatus.IN_PROGRESS, null, now)));
+        byte[] completed = GameEventCodec.encode(new GameEvent<>("event1", GAME_ID, "game_state_changed",
+                new GameStateChangedEvent(GAME_ID, List.of(PLAYER1_ID, PLAYER2_ID), 3, PLAYER2_ID,
+                        Game.GameStatus.COMPLETED, null, now)));
+        // The two encodings only differ in the status byte
+        int status = Arrays.mismatch(inProgress, completed);
+        inProgress[status] = (byte) Game.GameStatus.values().length;
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> GameEventCodec.decode(inProgress));
+        assertTrue(e.getMessage().contains("status"));
+    }
+
+    @Test
+    void encode_WhenPayloadUnknown_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class,
+                () -> GameEventCodec.encode(new GameEvent<>("event1", GAME_ID, "unknown", "payload")));
+    }
+
+    @Test
+    void encode_ShouldBeLessThanHalfTheSizeOfJson() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        GameStateChangedEvent data = new GameStateChangedEvent(GAME_ID, List.of(PLAYER1_ID, PLAYER2_ID), 9,
+                PLAYER2_ID, Game.GameStatus.IN_PROGRESS, null, Instant.now());
+        GameEvent<?> event = new GameEvent<>(UUID.randomUUID().toString(), GAME_ID, data.getType(), data);
+
+        int binary = GameEventCodec.encode(event).length;
+        int json = objectMapper.writeValueAsBytes(event).length;
+
+        assertTrue(binary * 2 < json, "binary " + binary + " bytes, json " + json + " bytes");
+    }
+}
@@ -0,0 +1,136 @@
+package com.shimmy.gameofthree.server.infrastructure.listener;
+
+import com.shimmy.gameofthree.server.application.GameService;
+import com.shimmy.gameofthree.server.application.GameShards;
+import com.shimmy.gameofthree.server.application.GameStateNotifier;
+import com.shimmy.gameofthree.server.config.Kafka;
+import com.shimmy.gameofthree.server.domain.event.ClientMoveEvent;
+import com.shimmy.gameofthree.server.domain.event.GameEvent;
+import com.shimmy.gameofthree.server.infrastructure.serialization.GameEventSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// Runs the listener in the real batch container against an embedded broker
+@SpringJUnitConfig
+@EmbeddedKafka(topics = KafkaGameListenerContainerTest.TOPIC, partitions = 3)
+@TestPropertySource(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "kafka.game-topic=" + KafkaGameListenerContainerTest.TOPIC,
+        "kafka.listener.group-id=" + KafkaGameListenerContainerTest.GROUP,
+        "kafka.listener.concurrency=5"
+})
+class KafkaGameListenerContainerTest {
+
+    static final String TOPIC = "game-moves";
+    static final String GROUP = "listener-test";
+
+    @Configuration
+    @EnableKafka
+    @Import({Kafka.class, KafkaGameListener.class})
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        // Unclustered, so the listener is assigned every partition
+        @Bean
+        GameShards gameShards() {
+            return new GameShards();
+        }
+    }
+
+    @MockitoBean
+    private GameService gameService;
+
+    @MockitoBean
+    private GameStateNotifier gameStateNotifier;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry registry;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void onGameEvents_ShouldApplyEachGamesMovesInOrderAndCommitThem() throws Exception {
+        Map<String, List<Integer>> appliedMoves = new ConcurrentHashMap<>();
+        doAnswer(invocation -> {
+            appliedMoves.computeIfAbsent(invocation.getArgument(0), id -> new ArrayList<>())
+                    .add(Integer.parseInt(invocation.<String>getArgument(1).substring(1)));
+            return null;
+        }).when(gameService).makeMove(anyString(), anyString(), anyInt());
+
+        DefaultKafkaProducerFactory<String, GameEvent<?>> producerFactory = new DefaultKafkaProducerFactory<>(
+                KafkaTestUtils.producerProps(broker), new StringSerializer(), new GameEventSerializer());
+        KafkaTemplate<String, GameEvent<?>> template = new KafkaTemplate<>(producerFactory);
+        for (int sequence = 0; sequence < 20; sequence++) {
+            for (int game = 0; game < 6; game++) {
+                // The player id carries the sequence number to check the order the moves arrive in
+                ClientMoveEvent move = new ClientMoveEvent("game" + game, "p" + sequence, 0);
+                template.send(TOPIC, move.getGameId(),
+                        new GameEvent<>(UUID.randomUUID().toString(), move.getGameId(), move.getType(), move));
+            }
+        }
+        template.flush();
+        producerFactory.destroy();
+
+        verify(gameService, timeout(30_000).times(120)).makeMove(anyString(), anyString(), anyInt());
+        assertEquals(6, appliedMoves.size());
+        for (List<Integer> sequence : appliedMoves.values()) {
+            for (int i = 0; i < sequence.size(); i++) {
+                assertEquals(i, sequence.get(i));
+            }
+        }
+
+        ConcurrentMessageListenerContainer<?, ?> container =
+                (ConcurrentMessageListenerContainer<?, ?>) registry.getListenerContainers().iterator().next();
+        assertEquals(3, container.getConcurrency());
+        assertEquals(120, awaitCommittedOffsets(120));
+        assertEquals(120, meterRegistry.get("game.events.consumed").tag("result", "applied").counter().count());
+    }
+
+    private long awaitCommittedOffsets(long expected) throws Exception {
+        long committed = 0;
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (committed < expected && System.currentTimeMillis() < deadline) {
+            committed = 0;
+            for (int partition = 0; partition < 3; partition++) {
+                var offset = KafkaTestUtils.getCurrentOffset(broker.getBrokersAsString(), GROUP, TOPIC, partition);
+                committed += offset != null ? offset.offset() : 0;
+            }
+            Thread.sleep(100);
+        }
+        return committed;
+    }
+}
@@ -0,0 +1,148 @@
+package com.shimmy.gameofthree.server.infrastructure.listener;
+
+import com.shimmy.gameofthree.server.api.exception.InvalidMoveException;
+import com.shimmy.gameofthree.server.application.GameService;
+import com.shimmy.gameofthree.server.application.GameShards;
+import com.shimmy.gameofthree.server.application.GameStateNotifier;
+import com.shimmy.gameofthree.server.domain.event.ClientMoveEvent;
+import com.shimmy.gameofthree.server.domain.event.GameEvent;
+import com.shimmy.gameofthree.server.domain.event.GameMatchmakingEvent;
+import com.shimmy.gameofthree.server.domain.event.MoveRejectedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaGameListenerTest {
+
+    @Mock
+    private GameService gameService;
+
+    @Mock
+    private GameStateNotifier gameStateNotifier;
+
+    @Mock
+    private Acknowledgment acknowledgment;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private GameShards gameShards = new GameShards();
+
+    @InjectMocks
+    private KafkaGameListener kafkaGameListener;
+
+    @BeforeEach
+    void setUp() {
+        kafkaGameListener.registerMetrics();
+    }
+
+    @Test
+    void onGameEvents_ShouldApplyMovesInOrderAndAcknowledge() {
+        kafkaGameListener.onGameEvents(List.of(
+                record(0, move("game1", "player1", 1)),
+                record(1, move("game1", "player2", -1)),
+                record(2, move("game1", "player1", 0))), acknowledgment);
+
+        InOrder inOrder = inOrder(gameService, acknowledgment);
+        inOrder.verify(gameService).makeMove("game1", "player1", 1);
+        inOrder.verify(gameService).makeMove("game1", "player2", -1);
+        inOrder.verify(gameService).makeMove("game1", "player1", 0);
+        inOrder.verify(acknowledgment).acknowledge();
+        assertEquals(3, consumed("applied"));
+        assertEquals(3, meterRegistry.get("game.events.consume.lag").timer().count());
+    }
+
+    @Test
+    void onGameEvents_WhenMoveRejected_ShouldTellThePlayerAndContinue() {
+        doThrow(new InvalidMoveException("Invalid move")).when(gameService).makeMove("game1", "player1", 2);
+
+        kafkaGameListener.onGameEvents(List.of(
+                record(0, move("game1", "player1", 2)),
+                record(1, move("game2", "player3", 1))), acknowledgment);
+
+        verify(gameStateNotifier).notifyMoveRejected(new MoveRejectedEvent("game1", "player1", 2, "Invalid move"));
+        verify(gameService).makeMove("game2", "player3", 1);
+        verify(acknowledgment).acknowledge();
+        assertEquals(1, consumed("rejected"));
+        assertEquals(1, consumed("applied"));
+    }
+
+    @Test
+    void onGameEvents_WhenGameOwnedByAnotherNode_ShouldRejectTheMove() {
+        when(gameShards.isLocal("game1")).thenReturn(false);
+
+        kafkaGameListener.onGameEvents(List.of(record(0, move("game1", "player1", 1))), acknowledgment);
+
+        verifyNoInteractions(gameService);
+        verify(gameStateNotifier).notifyMoveRejected(any(MoveRejectedEvent.class));
+        verify(acknowledgment).acknowledge();
+        assertEquals(1, consumed("rejected"));
+    }
+
+    @Test
+    void onGameEvents_ShouldSkipOtherAndUnreadableEvents() {
+        List<ConsumerRecord<String, GameEvent<?>>> records = new ArrayList<>();
+        records.add(record(0, new GameEvent<>("event1", "game1", GameMatchmakingEvent.class.getSimpleName(),
+                new GameMatchmakingEvent("game1", "player1", "player2", 27, "player1"))));
+        records.add(record(1, null));
+
+        kafkaGameListener.onGameEvents(records, acknowledgment);
+
+        verifyNoInteractions(gameService);
+        verify(acknowledgment).acknowledge();
+        assertEquals(1, consumed("ignored"));
+        assertEquals(1, consumed("unreadable"));
+    }
+
+    @Test
+    void onGameEvents_WhenMoveFailsUnexpectedly_ShouldFailAtThatRecordWithoutAcknowledging() {
+        doReturn(null).doThrow(new IllegalStateException("database is locked"))
+                .when(gameService).makeMove(anyString(), anyString(), anyInt());
+
+        BatchListenerFailedException e = assertThrows(BatchListenerFailedException.class,
+                () -> kafkaGameListener.onGameEvents(List.of(
+                        record(0, move("game1", "player1", 1)),
+                        record(1, move("game1", "player2", -1)),
+                        record(2, move("game1", "player1", 0))), acknowledgment));
+
+        assertEquals(1, e.getIndex());
+        verify(gameService, never()).makeMove("game1", "player1", 0);
+        verifyNoInteractions(acknowledgment);
+    }
+
+    private double consumed(String result) {
+        return meterRegistry.get("game.events.consumed").tag("result", result).counter().count();
+    }
+
+    private static GameEvent<?> move(String gameId, String playerId, int move) {
+        ClientMoveEvent data = new ClientMoveEvent(gameId, playerId, move);
+        return new GameEvent<>(gameId + "-" + playerId + "-" + move, gameId, data.getType(), data);
+    }
+
+    private static ConsumerRecord<String, GameEvent<?>> record(long offset, GameEvent<?> event) {
+        return new ConsumerRecord<>("game-events", 0, offset, System.currentTimeMillis(), TimestampType.CREATE_TIME,
+                -1, -1, event != null ? event.getGameId() : null, event, new RecordHeaders(), Optional.empty());
+    }
+}
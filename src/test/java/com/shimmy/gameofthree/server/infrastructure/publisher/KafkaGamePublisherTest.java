@@ -0,0 +1,152 @@
+package com.shimmy.gameofthree.server.infrastructure.publisher;
+
+import com.shimmy.gameofthree.server.domain.event.GameEvent;
+import com.shimmy.gameofthree.server.domain.event.GameMatchmakingEvent;
+import com.shimmy.gameofthree.server.infrastructure.serialization.GameEventDeserializer;
+import com.shimmy.gameofthree.server.infrastructure.serialization.GameEventSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@EmbeddedKafka(topics = KafkaGamePublisherTest.TOPIC, partitions = 3)
+class KafkaGamePublisherTest {
+
+    static final String TOPIC = "game-events";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DefaultKafkaProducerFactory<String, GameEvent<?>> producerFactory;
+    private KafkaGamePublisher publisher;
+    private Consumer<String, GameEvent<?>> consumer;
+
+    @BeforeEach
+    void setUp(EmbeddedKafkaBroker broker) {
+        Map<String, Object> producerProps = new HashMap<>(KafkaTestUtils.producerProps(broker));
+        producerProps.put("linger.ms", 10);
+        producerProps.put("compression.type", "lz4");
+        producerProps.put("enable.idempotence", true);
+        producerProps.put("acks", "all");
+        producerFactory = new DefaultKafkaProducerFactory<>(producerProps, new StringSerializer(), new GameEventSerializer());
+        publisher = new KafkaGamePublisher(new KafkaTemplate<>(producerFactory), meterRegistry);
+        ReflectionTestUtils.setField(publisher, "gameEventsTopic", TOPIC);
+        ReflectionTestUtils.setField(publisher, "bufferSize", 10_000);
+        ReflectionTestUtils.setField(publisher, "drainBatchSize", 500);
+        ReflectionTestUtils.setField(publisher, "shutdownTimeout", Duration.ofSeconds(10));
+        publisher.init();
+
+        Map<String, Object> consumerProps = KafkaTestUtils.consumerProps("test-" + UUID.randomUUID(), "false", broker);
+        consumer = new DefaultKafkaConsumerFactory<>(consumerProps, new StringDeserializer(), new GameEventDeserializer())
+                .createConsumer();
+        broker.consumeFromAnEmbeddedTopic(consumer, TOPIC);
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.stop();
+        consumer.close();
+        producerFactory.destroy();
+    }
+
+    @Test
+    void emit_ShouldDeliverEveryEventKeyedByGame() throws Exception {
+        publisher.start();
+
+        List<GameEvent<?>> events = new ArrayList<>();
+        List<CompletableFuture<Void>> acks = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            GameEvent<?> event = event("game" + (i % 50));
+            events.add(event);
+            acks.add(publisher.emit(event));
+        }
+        CompletableFuture.allOf(acks.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+
+        List<ConsumerRecord<String, GameEvent<?>>> records = consume(events);
+        assertEquals(events.size(), records.size());
+        for (ConsumerRecord<String, GameEvent<?>> record : records) {
+            assertEquals(record.key(), record.value().getGameId());
+            assertInstanceOf(GameMatchmakingEvent.class, record.value().getData());
+        }
+        assertEquals(events.size(), meterRegistry.get("game.events.published").counter().count());
+        assertEquals(events.size(), meterRegistry.get("game.events.publish.latency").timer().count());
+        assertEquals(0, meterRegistry.get("game.events.buffer.size").gauge().value());
+        assertEquals(0, meterRegistry.get("game.events.failed").tag("reason", "send").counter().count());
+    }
+
+    @Test
+    void stop_ShouldSendEventsStillBuffered() {
+        List<GameEvent<?>> events = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            GameEvent<?> event = event("game" + i);
+            events.add(event);
+            publisher.emit(event);
+        }
+        assertEquals(100, publisher.bufferedEvents());
+
+        publisher.start();
+        publisher.stop();
+
+        assertEquals(0, publisher.bufferedEvents());
+        assertEquals(100, consume(events).size());
+    }
+
+    @Test
+    void emit_WhenBufferFull_ShouldDropAndCountTheEvent() {
+        ReflectionTestUtils.setField(publisher, "bufferSize", 2);
+        publisher.init();
+
+        publisher.emit(event("game1"));
+        publisher.emit(event("game2"));
+        CompletableFuture<Void> rejected = publisher.emit(event("game3"));
+
+        assertTrue(rejected.isCompletedExceptionally());
+        assertEquals(2, publisher.bufferedEvents());
+        assertEquals(1, meterRegistry.get("game.events.failed").tag("reason", "buffer_full").counter().count());
+    }
+
+    // The broker is shared by all tests of the class, so only the records of the given events count
+    private List<ConsumerRecord<String, GameEvent<?>>> consume(List<GameEvent<?>> events) {
+        Set<String> eventIds = events.stream().map(GameEvent::getId).collect(Collectors.toSet());
+        List<ConsumerRecord<String, GameEvent<?>>> records = new ArrayList<>();
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (records.size() < events.size() && System.nanoTime() < deadline) {
+            ConsumerRecords<String, GameEvent<?>> polled = KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(1));
+            for (ConsumerRecord<String, GameEvent<?>> record : polled) {
+                if (eventIds.contains(record.value().getId())) {
+                    records.add(record);
+                }
+            }
+        }
+        return records;
+    }
+
+    private static GameEvent<?> event(String gameId) {
+        return new GameEvent<>(UUID.randomUUID().toString(), gameId, GameMatchmakingEvent.class.getSimpleName(),
+                new GameMatchmakingEvent(gameId, "player1", "player2", 27, "player1"));
+    }
+}